@@ -20,11 +20,13 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IDriver;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -35,6 +37,8 @@ public class DataCarrier<T> {
     private Channels<T> channels;
     private IDriver driver;
     private String name;
+    private WaitStrategy waitStrategy = WaitStrategy.SLEEP;
+    private int wakeUpThreshold = 1;
 
     public DataCarrier(int channelSize, int bufferSize) {
         this("DEFAULT", channelSize, bufferSize);
@@ -49,10 +53,22 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    /**
+     * @param bufferType the implementation of the channel buffers, see {@link BufferType}.
+     */
+    public DataCarrier(String name,
+                       String envPrefix,
+                       int channelSize,
+                       int bufferSize,
+                       BufferStrategy strategy,
+                       BufferType bufferType) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, bufferType);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
@@ -71,6 +87,21 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * set the {@link WaitStrategy} of the consumer threads created by the following {@link DataCarrier#consume}. Default
+     * is {@link WaitStrategy#SLEEP}.
+     *
+     * @param waitStrategy    what the consumer thread does when there is nothing to consume.
+     * @param wakeUpThreshold the number of data saved while the consumer is parked to wake it up, only for {@link
+     *                        WaitStrategy#ADAPTIVE}.
+     * @return DataCarrier instance for chain
+     */
+    public DataCarrier setWaitStrategy(WaitStrategy waitStrategy, int wakeUpThreshold) {
+        this.waitStrategy = waitStrategy;
+        this.wakeUpThreshold = wakeUpThreshold;
+        return this;
+    }
+
     /**
      * produce data to buffer, using the given {@link BufferStrategy}.
      *
@@ -100,7 +131,8 @@ public class DataCarrier<T> {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumerClass, num, consumeCycle, properties);
+        driver = new ConsumeDriver<T>(
+            this.name, this.channels, consumerClass, num, consumeCycle, properties, waitStrategy, wakeUpThreshold);
         driver.begin(channels);
         return this;
     }
@@ -126,7 +158,8 @@ public class DataCarrier<T> {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle);
+        driver = new ConsumeDriver<T>(
+            this.name, this.channels, consumer, num, consumeCycle, waitStrategy, wakeUpThreshold);
         driver.begin(channels);
         return this;
     }
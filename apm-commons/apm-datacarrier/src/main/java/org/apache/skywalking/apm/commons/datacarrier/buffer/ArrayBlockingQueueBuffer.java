@@ -60,6 +60,11 @@ public class ArrayBlockingQueueBuffer<T> implements QueueBuffer<T> {
         queue.drainTo(consumeList);
     }
 
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
     @Override
     public int getBufferSize() {
         return bufferSize;
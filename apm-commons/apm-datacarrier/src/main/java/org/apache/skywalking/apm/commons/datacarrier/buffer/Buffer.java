@@ -64,6 +64,19 @@ public class Buffer<T> implements QueueBuffer<T> {
         this.obtain(consumeList, 0, buffer.length);
     }
 
+    /**
+     * The slots are plain array elements, so the data being saved could still be missed here.
+     */
+    @Override
+    public boolean isEmpty() {
+        for (Object data : buffer) {
+            if (data != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     void obtain(List<T> consumeList, int start, int end) {
         for (int i = start; i < end; i++) {
             if (buffer[i] != null) {
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerWaiter;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -26,16 +27,31 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  */
 public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
+    /**
+     * The waiters of the consumer threads of each channel, null if the consumer doesn't need to be woken up.
+     */
+    private final ConsumerWaiter[] consumerWaiters;
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize,
+                    int bufferSize,
+                    IDataPartitioner<T> partitioner,
+                    BufferStrategy strategy,
+                    BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
+        consumerWaiters = new ConsumerWaiter[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.MPSC_RING.equals(bufferType)) {
+                bufferChannels[i] = new MpscRingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
@@ -56,12 +72,24 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                ConsumerWaiter waiter = consumerWaiters[index];
+                if (waiter != null) {
+                    waiter.onProduced();
+                }
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Register the waiter of the consumer thread of the given channel. A stale waiter seen by the producers only causes
+     * a missed or useless wake up, as the parked consumer always wakes up by itself after the consume cycle.
+     */
+    public void setConsumerWaiter(int index, ConsumerWaiter waiter) {
+        this.consumerWaiters[index] = waiter;
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
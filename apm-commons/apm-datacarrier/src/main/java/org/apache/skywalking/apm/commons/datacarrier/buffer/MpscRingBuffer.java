@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer/single-consumer ring queue.
+ * <p>
+ * Producers claim a sequence by CAS on the tail, then publish the element into the claimed slot with an ordered write.
+ * The consumer walks from the head to the first unpublished slot only, so a pass costs as much as the data it gets,
+ * rather than the whole buffer size. Head and tail live in separate padded arrays to avoid false sharing between the
+ * producers and the consumer.
+ * <p>
+ * The capacity is rounded up to the next power of two. When the queue is full, {@link BufferStrategy#IF_POSSIBLE}
+ * returns false immediately and {@link BufferStrategy#BLOCKING} waits until the consumer frees a slot.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * Index of the real value in the padded arrays. The 7 unused longs ahead of it and behind it keep the producer side
+     * and the consumer side in different cache lines.
+     */
+    private static final int VALUE_OFFSET = 7;
+    private static final int PRODUCER_LIMIT_OFFSET = VALUE_OFFSET + 1;
+    private static final int PADDED_LENGTH = 16;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    /**
+     * Tail sequence, and the cached upper bound a producer could claim without reading the head.
+     */
+    private final AtomicLongArray producerIndex;
+    /**
+     * Head sequence, only written by the consumer.
+     */
+    private final AtomicLongArray consumerIndex;
+    private volatile BufferStrategy strategy;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive, but it is " + bufferSize);
+        }
+        int capacity = roundToPowerOfTwo(bufferSize);
+        this.slots = new AtomicReferenceArray<T>(capacity);
+        this.mask = capacity - 1;
+        this.producerIndex = new AtomicLongArray(PADDED_LENGTH);
+        this.producerIndex.set(PRODUCER_LIMIT_OFFSET, capacity);
+        this.consumerIndex = new AtomicLongArray(PADDED_LENGTH);
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        for (; ; ) {
+            long tail = producerIndex.get(VALUE_OFFSET);
+            long limit = producerIndex.get(PRODUCER_LIMIT_OFFSET);
+            if (tail >= limit) {
+                limit = consumerIndex.get(VALUE_OFFSET) + slots.length();
+                if (tail >= limit) {
+                    if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                producerIndex.lazySet(PRODUCER_LIMIT_OFFSET, limit);
+            }
+            if (producerIndex.compareAndSet(VALUE_OFFSET, tail, tail + 1)) {
+                slots.lazySet((int) tail & mask, data);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Drain the published elements. Only one consumer is expected, concurrent calls are serialized to keep the queue
+     * safe when a consumer thread is being replaced.
+     */
+    @Override
+    public synchronized void obtain(List<T> consumeList) {
+        long head = consumerIndex.get(VALUE_OFFSET);
+        final long start = head;
+        // Never go over one round, otherwise the consumer could be held by fast producers forever.
+        final long end = start + slots.length();
+        while (head < end) {
+            int offset = (int) head & mask;
+            T data = slots.get(offset);
+            if (data == null) {
+                // Empty, or the slot has been claimed but not published yet. Pick it up in the next pass.
+                break;
+            }
+            slots.lazySet(offset, null);
+            consumeList.add(data);
+            head++;
+        }
+        if (head != start) {
+            consumerIndex.lazySet(VALUE_OFFSET, head);
+        }
+    }
+
+    /**
+     * A claimed slot counts as data even before it is published, as the tail is moved by a CAS, so the producers are
+     * always seen by the consumer here after its own volatile writes.
+     */
+    @Override
+    public boolean isEmpty() {
+        return producerIndex.get(VALUE_OFFSET) == consumerIndex.get(VALUE_OFFSET);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return slots.length();
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("bufferSize is too large, the max value is " + (1 << 30));
+        }
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
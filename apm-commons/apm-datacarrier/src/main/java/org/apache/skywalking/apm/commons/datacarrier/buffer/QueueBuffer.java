@@ -42,5 +42,11 @@ public interface QueueBuffer<T> {
      */
     void obtain(List<T> consumeList);
 
+    /**
+     * @return true if there is no data to obtain. The data saved before a volatile write of the consumer thread should
+     * be seen by this check after that write.
+     */
+    boolean isEmpty();
+
     int getBufferSize();
 }
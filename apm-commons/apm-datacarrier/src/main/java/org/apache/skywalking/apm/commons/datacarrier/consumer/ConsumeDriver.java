@@ -37,22 +37,44 @@ public class ConsumeDriver<T> implements IDriver {
                          int num,
                          long consumeCycle,
                          Properties properties) {
+        this(name, channels, consumerClass, num, consumeCycle, properties, WaitStrategy.SLEEP, 1);
+    }
+
+    public ConsumeDriver(String name,
+                         Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+                         int num,
+                         long consumeCycle,
+                         Properties properties,
+                         WaitStrategy waitStrategy,
+                         int wakeUpThreshold) {
         this(channels, num);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, waitStrategy, wakeUpThreshold
             );
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, WaitStrategy.SLEEP, 1);
+    }
+
+    public ConsumeDriver(String name,
+                         Channels<T> channels,
+                         IConsumer<T> prototype,
+                         int num,
+                         long consumeCycle,
+                         WaitStrategy waitStrategy,
+                         int wakeUpThreshold) {
         this(channels, num);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, waitStrategy,
+                wakeUpThreshold
+            );
             consumerThreads[i].setDaemon(true);
         }
 
@@ -121,6 +143,8 @@ public class ConsumeDriver<T> implements IDriver {
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            ConsumerWaiter waiter = consumerThreads[consumerIndex].getWaiter();
+            channels.setConsumerWaiter(channelIndex, waiter.isAdaptive() ? waiter : null);
         }
 
     }
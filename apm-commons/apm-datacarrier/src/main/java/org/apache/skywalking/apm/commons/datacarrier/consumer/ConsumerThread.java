@@ -27,14 +27,22 @@ public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, WaitStrategy.SLEEP, 1);
+    }
+
+    ConsumerThread(String threadName,
+                   IConsumer<T> consumer,
+                   long consumeCycle,
+                   WaitStrategy waitStrategy,
+                   int wakeUpThreshold) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(this, waitStrategy, consumeCycle, wakeUpThreshold, this::hasData);
     }
 
     /**
@@ -50,11 +58,10 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList)) {
+                waiter.reset();
+            } else {
+                waiter.idle();
             }
         }
 
@@ -84,8 +91,22 @@ public class ConsumerThread<T> extends Thread {
         return false;
     }
 
+    private boolean hasData() {
+        for (DataSource dataSource : dataSources) {
+            if (!dataSource.sourceBuffer.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void shutdown() {
         running = false;
+        waiter.wakeUp();
+    }
+
+    ConsumerWaiter getWaiter() {
+        return waiter;
     }
 
     /**
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ConsumerWaiter holds the idle status of one consumer thread, and implements the {@link WaitStrategy}.
+ * <p>
+ * In {@link WaitStrategy#ADAPTIVE}, it is registered into the channels consumed by the thread, then the producers
+ * could wake the parked consumer up through {@link #onProduced()}. The producer side cost is only a volatile read
+ * while the consumer is running.
+ * <p>
+ * A producer saves the data, then reads the parked flag. The consumer sets the flag, then checks the channels again
+ * before parking. So either the producer sees the flag and wakes the consumer up, or the consumer sees the data and
+ * doesn't park.
+ */
+public class ConsumerWaiter {
+    private static final int SPIN_TIMES = 100;
+    private static final int YIELD_TIMES = 10;
+
+    private final Thread owner;
+    private final WaitStrategy strategy;
+    private final long consumeCycle;
+    private final long parkNanos;
+    private final int wakeUpThreshold;
+    private final AtomicInteger producedWhileParked;
+    private final BooleanSupplier hasData;
+    private volatile boolean parked;
+    private int idleTimes;
+
+    /**
+     * @param hasData checks whether the channels consumed by the owner thread have any data, called before parking
+     */
+    ConsumerWaiter(Thread owner,
+                   WaitStrategy strategy,
+                   long consumeCycle,
+                   int wakeUpThreshold,
+                   BooleanSupplier hasData) {
+        this.owner = owner;
+        this.hasData = hasData;
+        this.strategy = strategy;
+        this.consumeCycle = consumeCycle;
+        this.parkNanos = TimeUnit.MILLISECONDS.toNanos(consumeCycle);
+        this.wakeUpThreshold = Math.max(1, wakeUpThreshold);
+        this.producedWhileParked = new AtomicInteger(0);
+    }
+
+    /**
+     * Called by the producers after data saved into the channel consumed by the owner thread.
+     */
+    public void onProduced() {
+        if (parked && producedWhileParked.incrementAndGet() == wakeUpThreshold) {
+            LockSupport.unpark(owner);
+        }
+    }
+
+    /**
+     * Called by the owner thread when a pass found nothing.
+     */
+    void idle() {
+        if (WaitStrategy.SLEEP.equals(strategy)) {
+            try {
+                Thread.sleep(consumeCycle);
+            } catch (InterruptedException e) {
+            }
+            return;
+        }
+
+        if (idleTimes < SPIN_TIMES) {
+            idleTimes++;
+            return;
+        }
+        if (idleTimes < SPIN_TIMES + YIELD_TIMES) {
+            idleTimes++;
+            Thread.yield();
+            return;
+        }
+        producedWhileParked.set(0);
+        parked = true;
+        // The data saved before the flag was set doesn't wake the consumer up, so it must be found here.
+        if (!hasData.getAsBoolean()) {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+        parked = false;
+    }
+
+    /**
+     * Called by the owner thread when a pass found data.
+     */
+    void reset() {
+        idleTimes = 0;
+    }
+
+    /**
+     * Wake the owner thread up, if it is parked.
+     */
+    void wakeUp() {
+        LockSupport.unpark(owner);
+    }
+
+    boolean isAdaptive() {
+        return WaitStrategy.ADAPTIVE.equals(strategy);
+    }
+}
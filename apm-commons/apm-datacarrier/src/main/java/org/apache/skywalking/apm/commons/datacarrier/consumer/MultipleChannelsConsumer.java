@@ -32,12 +32,19 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, WaitStrategy.SLEEP, 1);
+    }
+
+    public MultipleChannelsConsumer(String threadName,
+                                    long consumeCycle,
+                                    WaitStrategy waitStrategy,
+                                    int wakeUpThreshold) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(this, waitStrategy, consumeCycle, wakeUpThreshold, this::hasData);
     }
 
     @Override
@@ -52,11 +59,10 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                waiter.reset();
+            } else {
+                waiter.idle();
             }
         }
 
@@ -89,11 +95,27 @@ public class MultipleChannelsConsumer extends Thread {
         return false;
     }
 
+    private boolean hasData() {
+        for (Group target : consumeTargets) {
+            for (int i = 0; i < target.channels.getChannelSize(); i++) {
+                if (!target.channels.getBuffer(i).isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Add a new target channels.
      */
     public void addNewTarget(Channels channels, IConsumer consumer) {
         Group group = new Group(channels, consumer);
+        if (waiter.isAdaptive()) {
+            for (int i = 0; i < channels.getChannelSize(); i++) {
+                channels.setConsumerWaiter(i, waiter);
+            }
+        }
         // Recreate the new list to avoid change list while the list is used in consuming.
         ArrayList<Group> newList = new ArrayList<Group>();
         for (Group target : consumeTargets) {
@@ -110,6 +132,7 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        waiter.wakeUp();
     }
 
     private static class Group {
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+/**
+ * What a consumer thread does when a pass finds nothing to consume.
+ */
+public enum WaitStrategy {
+    /**
+     * Sleep the whole consume cycle.
+     */
+    SLEEP,
+    /**
+     * Spin for a few passes, then yield, then park for at most the consume cycle. Producers unpark the consumer once
+     * the wake up threshold of data has been saved while it is parked.
+     */
+    ADAPTIVE
+}
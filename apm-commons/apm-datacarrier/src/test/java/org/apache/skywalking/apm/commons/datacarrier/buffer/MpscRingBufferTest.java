@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void testCapacityRoundUp() {
+        Assert.assertEquals(1, new MpscRingBuffer<SampleData>(1, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(8, new MpscRingBuffer<SampleData>(5, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(8, new MpscRingBuffer<SampleData>(8, BufferStrategy.IF_POSSIBLE).getBufferSize());
+    }
+
+    @Test
+    public void testSaveAndObtainInOrder() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(4, BufferStrategy.IF_POSSIBLE);
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+            }
+            buffer.obtain(consumeList);
+            Assert.assertEquals(3, consumeList.size());
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(i, consumeList.get(i).getIntValue());
+            }
+            consumeList.clear();
+        }
+        buffer.obtain(consumeList);
+        Assert.assertTrue(consumeList.isEmpty());
+    }
+
+    @Test
+    public void testIfPossibleWhenFull() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(4, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertFalse(buffer.save(new SampleData().setIntValue(4)));
+
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(4, consumeList.size());
+        Assert.assertTrue(buffer.save(new SampleData().setIntValue(5)));
+    }
+
+    @Test
+    public void testBlockingWhenFull() throws InterruptedException {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(2, BufferStrategy.BLOCKING);
+        buffer.save(new SampleData().setIntValue(0));
+        buffer.save(new SampleData().setIntValue(1));
+
+        Thread producer = new Thread(() -> buffer.save(new SampleData().setIntValue(2)));
+        producer.start();
+        producer.join(200);
+        Assert.assertTrue(producer.isAlive());
+
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        buffer.obtain(consumeList);
+        producer.join();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(3, consumeList.size());
+        Assert.assertEquals(2, consumeList.get(2).getIntValue());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final int producerCount = 8;
+        final int dataPerProducer = 10000;
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<SampleData>(128, BufferStrategy.BLOCKING);
+        final CountDownLatch finished = new CountDownLatch(producerCount);
+        for (int p = 0; p < producerCount; p++) {
+            final int base = p * dataPerProducer;
+            new Thread(() -> {
+                for (int i = 0; i < dataPerProducer; i++) {
+                    buffer.save(new SampleData().setIntValue(base + i));
+                }
+                finished.countDown();
+            }).start();
+        }
+
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        while (finished.getCount() > 0) {
+            buffer.obtain(consumeList);
+        }
+        buffer.obtain(consumeList);
+
+        Assert.assertEquals(producerCount * dataPerProducer, consumeList.size());
+        Set<Integer> values = new HashSet<Integer>();
+        for (SampleData data : consumeList) {
+            values.add(data.getIntValue());
+        }
+        Assert.assertEquals(producerCount * dataPerProducer, values.size());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Producer throughput of the {@link QueueBuffer} implementations, while a background thread keeps draining the buffer
+ * like a DataCarrier consumer does. Every implementation is measured under the same {@link BufferStrategy}, note that
+ * {@link Buffer} overwrites the unconsumed data rather than waiting under {@link BufferStrategy#BLOCKING}.
+ * <p>
+ * Run {@link #main} to get the results of 2, 8, 32 and 64 producer threads. The producers only contend with each other
+ * on a host with more cores than the producer and consumer threads, the results of a single core host are meaningless.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Benchmark)
+public class QueueBufferBenchmark {
+    private static final SampleData DATA = new SampleData();
+
+    @Param({
+        "BUFFER",
+        "ARRAY_BLOCKING_QUEUE",
+        "MPSC_RING"
+    })
+    private String type;
+
+    @Param({
+        "BLOCKING",
+        "IF_POSSIBLE"
+    })
+    private BufferStrategy strategy;
+
+    private QueueBuffer<SampleData> buffer;
+    private volatile boolean running;
+    private Thread consumer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (type) {
+            case "BUFFER":
+                buffer = new Buffer<>(10000, strategy);
+                break;
+            case "ARRAY_BLOCKING_QUEUE":
+                buffer = new ArrayBlockingQueueBuffer<>(10000, strategy);
+                break;
+            default:
+                buffer = new MpscRingBuffer<>(10000, strategy);
+        }
+        running = true;
+        consumer = new Thread(() -> {
+            List<SampleData> consumeList = new ArrayList<>(1500);
+            while (running) {
+                buffer.obtain(consumeList);
+                consumeList.clear();
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join();
+    }
+
+    @Benchmark
+    public boolean save() {
+        return buffer.save(DATA);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        if (Runtime.getRuntime().availableProcessors() < 4) {
+            System.err.println("Less than 4 cores, the producers barely contend, don't compare the buffers by this run.");
+        }
+        for (int threads : new int[] {2, 8, 32, 64}) {
+            Options opt = new OptionsBuilder().include(QueueBufferBenchmark.class.getName())
+                                              .threads(threads)
+                                              .forks(1)
+                                              .warmupIterations(3)
+                                              .measurementIterations(5)
+                                              .build();
+            new Runner(opt).run();
+        }
+    }
+}
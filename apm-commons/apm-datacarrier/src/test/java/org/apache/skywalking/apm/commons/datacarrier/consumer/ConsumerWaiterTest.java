@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsumerWaiterTest {
+
+    @Test
+    public void testProducerWakesParkedConsumer() throws InterruptedException {
+        final CountDownLatch consumed = new CountDownLatch(2);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 100, BufferStrategy.IF_POSSIBLE);
+        // The consume cycle is much longer than the test timeout, only the wake up could make the data consumed.
+        carrier.setWaitStrategy(WaitStrategy.ADAPTIVE, 2)
+               .consume(new CountDownConsumer(consumed), 1, 60 * 1000L);
+
+        // Wait for the consumer going through spinning and yielding.
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setIntValue(1)));
+        Assert.assertFalse(consumed.await(500, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(carrier.produce(new SampleData().setIntValue(2)));
+        Assert.assertTrue(consumed.await(5, TimeUnit.SECONDS));
+
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testParkBoundedByConsumeCycle() throws InterruptedException {
+        final CountDownLatch consumed = new CountDownLatch(1);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 100, BufferStrategy.IF_POSSIBLE);
+        carrier.setWaitStrategy(WaitStrategy.ADAPTIVE, 100)
+               .consume(new CountDownConsumer(consumed), 1, 20);
+
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setIntValue(1)));
+        Assert.assertTrue(consumed.await(5, TimeUnit.SECONDS));
+
+        carrier.shutdownConsumers();
+    }
+
+    @Test(timeout = 10 * 1000L)
+    public void testNoParkWhenProducedBeforeFlagSet() throws InterruptedException {
+        final AtomicBoolean saved = new AtomicBoolean();
+        final ConsumerWaiter waiter = new ConsumerWaiter(
+            Thread.currentThread(), WaitStrategy.ADAPTIVE, 60 * 1000L, 1, saved::get);
+        // The producer saves the data and sees the consumer running, so it doesn't wake it up.
+        Thread producer = new Thread(() -> {
+            saved.set(true);
+            waiter.onProduced();
+        });
+        producer.start();
+        producer.join();
+
+        // The consumer goes through spinning and yielding to parking, only the check before parking finds the data.
+        // A park would take the whole consume cycle, far longer than the test timeout.
+        for (int i = 0; i < 1000; i++) {
+            waiter.idle();
+        }
+    }
+
+    @Test
+    public void testNoLostWakeUpWhileParking() throws InterruptedException {
+        final Semaphore consumed = new Semaphore(0);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(
+            "WAITER", "WAITER", 1, 100, BufferStrategy.IF_POSSIBLE, BufferType.MPSC_RING);
+        // A lost wake up would hold the data until the consume cycle, far longer than the test timeout.
+        carrier.setWaitStrategy(WaitStrategy.ADAPTIVE, 1)
+               .consume(new SemaphoreConsumer(consumed), 1, 60 * 1000L);
+
+        for (int i = 0; i < 2000; i++) {
+            // Produce at random points of the spinning, yielding and parking of the consumer.
+            long produceAt = System.nanoTime() + ThreadLocalRandom.current().nextLong(200 * 1000L);
+            while (System.nanoTime() < produceAt) {
+                Thread.yield();
+            }
+            Assert.assertTrue(carrier.produce(new SampleData().setIntValue(i)));
+            Assert.assertTrue("lost wake up at " + i, consumed.tryAcquire(5, TimeUnit.SECONDS));
+        }
+
+        carrier.shutdownConsumers();
+    }
+
+    private static class SemaphoreConsumer implements IConsumer<SampleData> {
+        private final Semaphore semaphore;
+
+        private SemaphoreConsumer(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void init(final Properties properties) {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            semaphore.release(data.size());
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+    }
+
+    private static class CountDownConsumer implements IConsumer<SampleData> {
+        private final CountDownLatch latch;
+
+        private CountDownConsumer(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void init(final Properties properties) {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            for (SampleData one : data) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+    }
+}
@@ -18,10 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.asyncprofiler;
 
-import com.google.protobuf.ByteString;
 import io.grpc.Channel;
-import io.grpc.stub.ClientCallStreamObserver;
-import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
@@ -33,16 +30,19 @@ import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
 import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.agent.core.util.BufferCleaner;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerMetaData;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.AsyncProfiler.DATA_CHUNK_SIZE;
@@ -92,65 +92,43 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
             return;
         }
 
-        try (FileInputStream fileInputStream = new FileInputStream(dumpFile)) {
-            long fileSize = Files.size(dumpFile.toPath());
-            int size = Math.toIntExact(fileSize);
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<AsyncProfilerData> dataStreamObserver = asyncProfilerTaskStub.withDeadlineAfter(
+        final ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                // the content size of the meta data is an int32
+                sendError(task, "JFR file of " + fileSize + " bytes is too large to be uploaded");
+                return;
+            }
+            // the mapping stays valid after the channel is closed
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final AsyncProfilerDataUploader uploader = new AsyncProfilerDataUploader(content, DATA_CHUNK_SIZE, status);
+        try {
+            AsyncProfilerTaskGrpc.AsyncProfilerTaskStub stub = asyncProfilerTaskStub.withDeadlineAfter(
                     GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse>() {
-                ClientCallStreamObserver<AsyncProfilerData> requestStream;
-                final byte[] buf = new byte[DATA_CHUNK_SIZE];
-
-                @Override
-                public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
-                    this.requestStream = requestStream;
-                }
-
-                @Override
-                public void onNext(AsyncProfilerCollectionResponse value) {
-                    if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
-                        LOGGER.warn("JFR is too large to be received by the oap server");
-                    } else {
-                        try {
-                            int bytesRead;
-                            while ((bytesRead = fileInputStream.read(buf)) != -1) {
-                                AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder()
-                                        .setContent(ByteString.copyFrom(buf, 0, bytesRead))
-                                        .build();
-                                requestStream.onNext(asyncProfilerData);
-                            }
-                        } catch (IOException e) {
-                            LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
-                        }
-                    }
-
-                    requestStream.onCompleted();
-                }
-
-                @Override
-                public void onError(Throwable t) {
-                    status.finished();
-                    LOGGER.error(t, "Send async profiler task data to collector fail with a grpc internal exception.");
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
-                }
-
-                @Override
-                public void onCompleted() {
-                    status.finished();
-                }
-            });
+            );
+            if (StringUtil.isNotEmpty(Config.AsyncProfiler.UPLOAD_COMPRESSION)) {
+                stub = stub.withCompression(Config.AsyncProfiler.UPLOAD_COMPRESSION);
+            }
+            StreamObserver<AsyncProfilerData> dataStreamObserver = stub.collect(uploader);
             AsyncProfilerMetaData metaData = AsyncProfilerMetaData.newBuilder()
                     .setService(Config.Agent.SERVICE_NAME)
                     .setServiceInstance(Config.Agent.INSTANCE_NAME)
                     .setType(AsyncProfilingStatus.PROFILING_SUCCESS)
-                    .setContentSize(size)
+                    .setContentSize(content.remaining())
                     .setTaskId(task.getTaskId())
                     .build();
             AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder().setMetaData(metaData).build();
             dataStreamObserver.onNext(asyncProfilerData);
 
             status.wait4Finish();
+        } finally {
+            // release the mapping right away, or the deleted JFR file keeps its disk space until the GC
+            uploader.release();
+            BufferCleaner.clean(content);
         }
     }
 
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Upload the content of a JFR file, once the collector accepted its size, in chunks wrapping the slices of the
+ * content without copying them. A chunk is sent only when the stream is ready, and the rest is sent by the on-ready
+ * handler of the stream, so the chunks waiting for the network are not buffered in the heap.
+ */
+class AsyncProfilerDataUploader implements ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse> {
+    private static final ILog LOGGER = LogManager.getLogger(AsyncProfilerDataUploader.class);
+
+    private final ByteBuffer content;
+    private final int chunkSize;
+    private final GRPCStreamServiceStatus status;
+    private ClientCallStreamObserver<AsyncProfilerData> requestStream;
+    private boolean uploading;
+    private boolean completed;
+    private boolean released;
+
+    AsyncProfilerDataUploader(ByteBuffer content, int chunkSize, GRPCStreamServiceStatus status) {
+        this.content = content;
+        this.chunkSize = chunkSize;
+        this.status = status;
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::sendChunks);
+    }
+
+    @Override
+    public synchronized void onNext(AsyncProfilerCollectionResponse value) {
+        if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
+            LOGGER.warn("JFR is too large to be received by the oap server");
+            complete();
+            return;
+        }
+        uploading = true;
+        sendChunks();
+    }
+
+    /**
+     * Send the chunks until the stream isn't ready, and complete the stream once the whole content is sent.
+     */
+    synchronized void sendChunks() {
+        if (!uploading || completed || released) {
+            return;
+        }
+        while (content.hasRemaining() && requestStream.isReady()) {
+            int length = Math.min(chunkSize, content.remaining());
+            ByteBuffer chunk = content.slice();
+            chunk.limit(length);
+            content.position(content.position() + length);
+            requestStream.onNext(AsyncProfilerData.newBuilder()
+                                                  .setContent(UnsafeByteOperations.unsafeWrap(chunk))
+                                                  .build());
+        }
+        if (!content.hasRemaining()) {
+            complete();
+        }
+    }
+
+    /**
+     * Stop reading the content, so it can be released. The chunks sent already don't refer to the content, as a
+     * message is serialized into the buffers of the transport when it is sent.
+     */
+    synchronized void release() {
+        released = true;
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            requestStream.onCompleted();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        status.finished();
+        LOGGER.error(t, "Send async profiler task data to collector fail with a grpc internal exception.");
+        ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
+    }
+
+    @Override
+    public void onCompleted() {
+        status.finished();
+    }
+}
@@ -29,6 +29,7 @@ import lombok.Getter;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorSo11y;
 
 /**
  * The <code>ServiceManager</code> bases on {@link ServiceLoader}, load all {@link BootService} implementations.
@@ -50,6 +51,7 @@ public enum ServiceManager {
     }
 
     public void shutdown() {
+        InterceptorSo11y.onShutdown();
         bootedServices.values().stream().sorted(Comparator.comparingInt(BootService::priority).reversed()).forEach(service -> {
             try {
                 service.shutdown();
@@ -131,6 +133,7 @@ public enum ServiceManager {
             }
         }
         isBooted = true;
+        InterceptorSo11y.onBooted();
     }
 
     /**
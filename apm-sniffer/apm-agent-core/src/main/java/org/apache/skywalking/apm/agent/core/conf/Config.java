@@ -25,6 +25,7 @@ import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
 import org.apache.skywalking.apm.agent.core.logging.core.ResolverType;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.agent.core.remote.SegmentPartitioner;
 import org.apache.skywalking.apm.util.Length;
 
 /**
@@ -108,6 +109,13 @@ public class Config {
          */
         public static int SPAN_LIMIT_PER_SEGMENT = 300;
 
+        /**
+         * If true, span and tag objects are recycled after the segment has been sent to the backend, and reused by the
+         * following traces to reduce the allocation rate. Keep it false if any plugin or toolkit holds the span
+         * reference after the span is finished.
+         */
+        public static boolean SPAN_RECYCLE_ENABLE = false;
+
         /**
          * If true, SkyWalking agent will save all instrumented classes files in `/debugging` folder. SkyWalking team
          * may ask for these files in order to resolve compatible problem.
@@ -179,6 +187,18 @@ public class Config {
          * Enable the agent kernel services and instrumentation.
          */
         public static boolean ENABLE = true;
+
+        /**
+         * The number of threads running the periodical tasks of the agent kernel services and plugins. The tasks which
+         * could block waiting for the backend run in the {@link #SCHEDULER_BLOCKING_THREAD_SIZE} threads instead.
+         */
+        public static int SCHEDULER_THREAD_SIZE = 2;
+
+        /**
+         * The number of threads running the periodical tasks which could block waiting for the backend, such as the
+         * reconnection, the heartbeat and the meter reports. Their calls are bounded by the gRPC deadlines.
+         */
+        public static int SCHEDULER_BLOCKING_THREAD_SIZE = 2;
     }
 
     public static class OsInfo {
@@ -222,6 +242,47 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * If true, the trace segments are sent through one long-lived gRPC stream with flow control, rather than a
+         * new stream per batch.
+         */
+        public static boolean SEGMENT_STREAM_PERSISTENT = false;
+        /**
+         * The persistent segment stream is completed and replaced by a new one after sending this amount of bytes.
+         */
+        public static long SEGMENT_STREAM_MAX_BYTES = 64 * 1024 * 1024;
+        /**
+         * The persistent segment stream is completed and replaced by a new one after this time. Unit is second.
+         */
+        public static long SEGMENT_STREAM_MAX_DURATION = 60;
+        /**
+         * The number of threads sending the trace segments. Each one has its own channels and gRPC stream.
+         */
+        public static int SEGMENT_CONSUMER_SIZE = 1;
+        /**
+         * How the trace segments are dispatched to the sending threads, see {@link SegmentPartitioner}. {@link
+         * SegmentPartitioner#TRACE} keeps the segments of one trace in order, but retries no other channel when the
+         * one of the trace is full.
+         */
+        public static SegmentPartitioner SEGMENT_PARTITIONER = SegmentPartitioner.ROLLING;
+        /**
+         * If true, the trace segments and logs are kept in files when the collector is not connected, and sent after
+         * reconnecting.
+         */
+        public static boolean SPILL_ENABLE = false;
+        /**
+         * The directory of the spill files, locked by one process. Default is spill/{service name} in the agent package,
+         * so the spilled data is recovered after a restart. The spill is disabled when the directory can't be written.
+         */
+        public static String SPILL_DIR = "";
+        /**
+         * The max size in bytes of the spill files of each data type. The oldest files are deleted beyond it.
+         */
+        public static long SPILL_MAX_SIZE = 128 * 1024 * 1024;
+        /**
+         * The max number of spilled messages of each data type sent per second after reconnecting.
+         */
+        public static int SPILL_REPLAY_RATE = 1000;
     }
 
     public static class Profile {
@@ -251,6 +312,12 @@ public class Config {
          */
         public static int DUMP_MAX_STACK_DEPTH = 500;
 
+        /**
+         * If true, the stacks of all the profiling threads are dumped by one ThreadMXBean call each period, which takes
+         * one safepoint for all of them instead of one per thread.
+         */
+        public static boolean BATCH_DUMP = false;
+
         /**
          * Snapshot transport to backend buffer size
          */
@@ -282,6 +349,11 @@ public class Config {
          * The size of the chunk when uploading jfr
          */
         public static final int DATA_CHUNK_SIZE = 1024 * 1024;
+
+        /**
+         * The gRPC compressor, such as gzip, compressing the JFR while uploading it. Empty means no compression.
+         */
+        public static String UPLOAD_COMPRESSION = "";
     }
 
     public static class Meter {
@@ -299,6 +371,30 @@ public class Config {
          * Max size of the meter count, using {@link org.apache.skywalking.apm.agent.core.meter.MeterId} as identity
          */
         public static Integer MAX_METER_SIZE = 500;
+
+        /**
+         * Time 1 in N calls of every interceptor for the agent self-observability meters. 1 times all calls.
+         */
+        public static int INTERCEPTOR_TIME_COST_SAMPLE_RATE = 1;
+
+        /**
+         * If true, the timed calls are also recorded into the {@code interceptor_time_cost} histogram of their plugin,
+         * besides the {@code tracing_context_performance} one, which doubles the histogram work of every timed call.
+         */
+        public static boolean INTERCEPTOR_TIME_COST_PER_PLUGIN = false;
+
+        /**
+         * If true, a meter is not reported when its value didn't change since the last report. A counter in the rate
+         * mode is skipped when it didn't increase.
+         */
+        public static boolean SKIP_UNCHANGED = false;
+
+        /**
+         * The max successive reports skipping an unchanged meter, after which it is reported again. Capped at {@code 60
+         * / REPORT_INTERVAL - 1}, so every meter is still reported once a minute, as the backend aggregates the meters
+         * by minute.
+         */
+        public static int MAX_SKIPPED_REPORTS = 15;
     }
 
     public static class Jvm {
@@ -310,6 +406,21 @@ public class Config {
          * The period in seconds of JVM metrics collection.
          */
         public static int METRICS_COLLECT_PERIOD = 1;
+        /**
+         * The period in seconds of counting the threads by state, rounded to a multiple of {@link
+         * #METRICS_COLLECT_PERIOD}. The JVM metrics collected in between report the last counts.
+         */
+        public static int THREAD_STATE_COLLECT_PERIOD = 1;
+        /**
+         * The period in seconds of sending the collected JVM metrics. The metrics collected in between are sent in one
+         * call.
+         */
+        public static int REPORT_PERIOD = 1;
+        /**
+         * The max JVM metrics sent in one call. More metrics, e.g. the ones buffered while the backend was
+         * unreachable, are split into several calls.
+         */
+        public static int MAX_METRICS_PER_REPORT = 60;
     }
 
     public static class Log {
@@ -351,6 +462,29 @@ public class Config {
          */
         public static int MAX_HISTORY_FILES = -1;
 
+        /**
+         * Write the log file by the {@link org.apache.skywalking.apm.agent.core.logging.core.ChannelFileWriter}, which
+         * encodes the logs into a direct buffer and flushes it by size or latency, instead of the stream based
+         * FileWriter flushing once per second.
+         */
+        public static boolean CHANNEL_WRITER = false;
+
+        /**
+         * The max number of the logs waiting for the channel writer. The logs beyond it are dropped and counted.
+         */
+        public static int QUEUE_SIZE = 1024;
+
+        /**
+         * The size in bytes of the buffer of the channel writer, which is written into the file once it is full.
+         */
+        public static int BUFFER_SIZE = 64 * 1024;
+
+        /**
+         * The max time in milliseconds a log waits in the buffer of the channel writer before being written into the
+         * file.
+         */
+        public static long MAX_FLUSH_LATENCY = 1000;
+
         /**
          * The log level. Default is debug.
          */
@@ -404,6 +538,31 @@ public class Config {
          */
         public static String EXCLUDE_PLUGINS = "";
 
+        /**
+         * The plugins whose instance method interceptors are inlined into the target methods by byte-buddy advice,
+         * instead of method delegation. Multiple plugins are separated by comma, `*` means all plugins.
+         */
+        public static String ADVICE_INTERCEPTION_PLUGINS = "";
+
+        /**
+         * If true, the delegate of every bootstrap interceptor is generated and injected into the bootstrap class loader
+         * when its JDK class is transformed, rather than all of them when the agent starts.
+         */
+        public static boolean BOOTSTRAP_DELEGATE_LAZY_INJECTION = false;
+
+        /**
+         * The folder caching the generated bootstrap delegates between the runs of the agent. The path is relative to
+         * agent.jar when it isn't absolute. Empty means no cache. The folder must be writable by the user of the JVM
+         * only, it isn't used when the group or the others can write it.
+         */
+        public static String BOOTSTRAP_DELEGATE_CACHE_PATH = "";
+
+        /**
+         * The max number of the names, such as operation names and peers, cached by every name cache of the plugins.
+         * The names beyond it are built for every call.
+         */
+        public static int NAME_CACHE_SIZE = 10000;
+
         /**
          * Mount the folders of the plugins. The folder path is relative to agent.jar.
          */
@@ -22,7 +22,6 @@ import java.io.Serializable;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Constants;
 import org.apache.skywalking.apm.util.StringUtil;
 
@@ -69,6 +68,10 @@ public class ContextCarrier implements Serializable {
      */
     @Getter(AccessLevel.PACKAGE)
     private CorrelationContext correlationContext = new CorrelationContext();
+    /**
+     * The cache of the encoded fields of the segment which injected this carrier, null if not injected by a tracing context.
+     */
+    private transient SW8HeaderCodec.EncodedFields encodedFields;
 
     /**
      * @return the list of items, which could exist in the current tracing context.
@@ -107,23 +110,13 @@ public class ContextCarrier implements Serializable {
     }
 
     /**
-     * Serialize this {@link ContextCarrier} to a {@link String}, with '|' split.
+     * Serialize this {@link ContextCarrier} to a {@link String}, with '-' split.
      *
      * @return the serialization string.
      */
     String serialize(HeaderVersion version) {
         if (this.isValid(version)) {
-            return StringUtil.join(
-                '-',
-                "1",
-                Base64.encode(this.getTraceId()),
-                Base64.encode(this.getTraceSegmentId()),
-                this.getSpanId() + "",
-                Base64.encode(this.getParentService()),
-                Base64.encode(this.getParentServiceInstance()),
-                Base64.encode(this.getParentEndpoint()),
-                Base64.encode(this.getAddressUsedAtClient())
-            );
+            return SW8HeaderCodec.encode(this, encodedFields);
         }
         return "";
     }
@@ -131,27 +124,17 @@ public class ContextCarrier implements Serializable {
     /**
      * Initialize fields with the given text.
      *
-     * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '|' split.
+     * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '-' split.
      */
     ContextCarrier deserialize(String text, HeaderVersion version) {
         if (text == null) {
             return this;
         }
         if (HeaderVersion.v3.equals(version)) {
-            String[] parts = text.split("-", 8);
-            if (parts.length == 8) {
-                try {
-                    // parts[0] is sample flag, always trace if header exists.
-                    this.traceId = Base64.decode2UTFString(parts[1]);
-                    this.traceSegmentId = Base64.decode2UTFString(parts[2]);
-                    this.spanId = Integer.parseInt(parts[3]);
-                    this.parentService = Base64.decode2UTFString(parts[4]);
-                    this.parentServiceInstance = Base64.decode2UTFString(parts[5]);
-                    this.parentEndpoint = Base64.decode2UTFString(parts[6]);
-                    this.addressUsedAtClient = Base64.decode2UTFString(parts[7]);
-                } catch (IllegalArgumentException ignored) {
+            try {
+                SW8HeaderCodec.decode(text, this);
+            } catch (IllegalArgumentException ignored) {
 
-                }
             }
         }
         return this;
@@ -24,8 +24,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
@@ -115,9 +113,7 @@ public class CorrelationContext {
             return "";
         }
 
-        return data.entrySet().stream()
-                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
-                   .collect(Collectors.joining(","));
+        return SW8HeaderCodec.encodeCorrelation(data);
     }
 
     /**
@@ -128,17 +124,7 @@ public class CorrelationContext {
             return;
         }
 
-        for (String perData : value.split(",")) {
-            // Only data with limited count of elements can be added
-            if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
-                break;
-            }
-            final String[] parts = perData.split(":");
-            if (parts.length != 2) {
-                continue;
-            }
-            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
-        }
+        SW8HeaderCodec.decodeCorrelation(value, data);
     }
 
     /**
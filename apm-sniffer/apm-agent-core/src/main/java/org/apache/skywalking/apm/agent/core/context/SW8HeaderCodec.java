@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * Encodes and decodes the sw8 and sw8-correlation headers in one pass, without the intermediate arrays and strings of
+ * split, join and {@link org.apache.skywalking.apm.agent.core.base64.Base64}. The headers are written into a reused per
+ * thread buffer. The base64 of the fields which don't change in a segment is cached by {@link EncodedFields}, and the
+ * decoded fields which repeat in the requests of the same callers are cached by their base64.
+ */
+final class SW8HeaderCodec {
+    private static final int TRACE_ID = 1;
+    private static final int TRACE_SEGMENT_ID = 2;
+    private static final int PARENT_SERVICE = 4;
+    private static final int PARENT_SERVICE_INSTANCE = 5;
+    private static final int PARENT_ENDPOINT = 6;
+    private static final int ADDRESS_USED_AT_CLIENT = 7;
+
+    private static final int FIELD_COUNT = 8;
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] ALPHABET_INDEX = new int[128];
+
+    private static final int DECODED_CACHE_SIZE = 512;
+    private static final int DECODED_CACHE_MAX_LENGTH = 256;
+    private static final Entry[] DECODED_CACHE = new Entry[DECODED_CACHE_SIZE];
+
+    /**
+     * The service and instance names are shared by all the segments.
+     */
+    private static final EncodedFields SHARED_FIELDS = new EncodedFields();
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    static {
+        Arrays.fill(ALPHABET_INDEX, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            ALPHABET_INDEX[ALPHABET[i]] = i;
+        }
+    }
+
+    private SW8HeaderCodec() {
+    }
+
+    /**
+     * @param fields the cache of the carrier's segment, null if the carrier isn't injected by a tracing context.
+     * @return the sw8 header of the valid carrier.
+     */
+    static String encode(ContextCarrier carrier, EncodedFields fields) {
+        final Buffer buffer = BUFFER.get().reset();
+        buffer.append('1').append('-');
+        buffer.appendBase64(fields, TRACE_ID, carrier.getTraceId()).append('-');
+        buffer.appendBase64(fields, TRACE_SEGMENT_ID, carrier.getTraceSegmentId()).append('-');
+        buffer.appendInt(carrier.getSpanId()).append('-');
+        buffer.appendBase64(SHARED_FIELDS, PARENT_SERVICE, carrier.getParentService()).append('-');
+        buffer.appendBase64(SHARED_FIELDS, PARENT_SERVICE_INSTANCE, carrier.getParentServiceInstance()).append('-');
+        buffer.appendBase64(fields, PARENT_ENDPOINT, carrier.getParentEndpoint()).append('-');
+        buffer.appendBase64(fields, ADDRESS_USED_AT_CLIENT, carrier.getAddressUsedAtClient());
+        return buffer.toString();
+    }
+
+    /**
+     * Set the fields of the carrier by the sw8 header, which has 8 parts split by '-'. Nothing is set if there are less
+     * parts, and the fields are set until the first malformed one.
+     *
+     * @throws IllegalArgumentException if a part isn't a valid base64 or span id.
+     */
+    static void decode(String text, ContextCarrier carrier) {
+        final int[] separators = BUFFER.get().separators;
+        int from = 0;
+        for (int i = 0; i < FIELD_COUNT - 1; i++) {
+            final int separator = text.indexOf('-', from);
+            if (separator < 0) {
+                return;
+            }
+            separators[i] = separator;
+            from = separator + 1;
+        }
+
+        // the first part is sample flag, always trace if header exists.
+        carrier.setTraceId(decodeBase64(text, separators[0] + 1, separators[1]));
+        carrier.setTraceSegmentId(decodeBase64(text, separators[1] + 1, separators[2]));
+        carrier.setSpanId(parseInt(text, separators[2] + 1, separators[3]));
+        carrier.setParentService(decodeCachedBase64(text, separators[3] + 1, separators[4]));
+        carrier.setParentServiceInstance(decodeCachedBase64(text, separators[4] + 1, separators[5]));
+        carrier.setParentEndpoint(decodeCachedBase64(text, separators[5] + 1, separators[6]));
+        carrier.setAddressUsedAtClient(decodeCachedBase64(text, separators[6] + 1, text.length()));
+    }
+
+    /**
+     * @return the sw8-correlation header, the base64 of the keys and values joined by ':' and ','
+     */
+    static String encodeCorrelation(Map<String, String> data) {
+        final Buffer buffer = BUFFER.get().reset();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (buffer.length > 0) {
+                buffer.append(',');
+            }
+            buffer.appendBase64(null, 0, entry.getKey()).append(':');
+            buffer.appendBase64(null, 0, entry.getValue());
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Put the entries of the sw8-correlation header into the data, until it has {@link
+     * Config.Correlation#ELEMENT_MAX_NUMBER} elements. An entry without exactly one key and one value is ignored.
+     *
+     * @throws IllegalArgumentException if a key or value isn't a valid base64.
+     */
+    static void decodeCorrelation(String text, Map<String, String> data) {
+        final int length = text.length();
+        int start = 0;
+        while (start < length) {
+            // Only data with limited count of elements can be added
+            if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
+                break;
+            }
+            int end = text.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            // trailing ':' are ignored, as String#split does
+            int valueEnd = end;
+            while (valueEnd > start && text.charAt(valueEnd - 1) == ':') {
+                valueEnd--;
+            }
+            final int separator = text.indexOf(':', start);
+            if (separator >= 0 && separator < valueEnd) {
+                final int nextSeparator = text.indexOf(':', separator + 1);
+                if (nextSeparator < 0 || nextSeparator >= valueEnd) {
+                    data.put(
+                        decodeCachedBase64(text, start, separator), decodeCachedBase64(text, separator + 1, valueEnd));
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    private static String decodeCachedBase64(String text, int start, int end) {
+        final int length = end - start;
+        if (length > DECODED_CACHE_MAX_LENGTH) {
+            return decodeBase64(text, start, end);
+        }
+        // hash the length and the chars of both ends only, the entry is matched by the whole
+        int hash = length;
+        for (int i = 0; i < 4 && i < length; i++) {
+            hash = 31 * (31 * hash + text.charAt(start + i)) + text.charAt(end - 1 - i);
+        }
+        final int index = (hash ^ hash >>> 16) & (DECODED_CACHE_SIZE - 1);
+
+        Entry entry = DECODED_CACHE[index];
+        if (entry != null && entry.key.length() == length && text.regionMatches(start, entry.key, 0, length)) {
+            return entry.value;
+        }
+        final String decoded = decodeBase64(text, start, end);
+        DECODED_CACHE[index] = new Entry(text.substring(start, end), decoded);
+        return decoded;
+    }
+
+    /**
+     * Decode the base64 as {@link java.util.Base64.Decoder} does, the padding is optional.
+     */
+    private static String decodeBase64(String text, int start, int end) {
+        int length = end - start;
+        int padding = 0;
+        while (length > 0 && padding < 2 && text.charAt(start + length - 1) == '=') {
+            length--;
+            padding++;
+        }
+        final int remainder = length % 4;
+        if (remainder == 1 || padding > 0 && padding != 4 - remainder) {
+            throw illegalBase64(text, start, end);
+        }
+
+        final byte[] bytes = BUFFER.get().ensureBytes(length / 4 * 3 + 2);
+        int count = 0;
+        final int quadsEnd = start + length - remainder;
+        int i = start;
+        for (; i < quadsEnd; i += 4) {
+            // an illegal character makes the bits negative
+            final int bits = alphabetIndex(text.charAt(i)) << 18 | alphabetIndex(text.charAt(i + 1)) << 12
+                | alphabetIndex(text.charAt(i + 2)) << 6 | alphabetIndex(text.charAt(i + 3));
+            if (bits < 0) {
+                throw illegalBase64(text, start, end);
+            }
+            bytes[count++] = (byte) (bits >> 16);
+            bytes[count++] = (byte) (bits >> 8);
+            bytes[count++] = (byte) bits;
+        }
+        if (remainder == 2) {
+            final int bits = alphabetIndex(text.charAt(i)) << 6 | alphabetIndex(text.charAt(i + 1));
+            if (bits < 0) {
+                throw illegalBase64(text, start, end);
+            }
+            bytes[count++] = (byte) (bits >> 4);
+        } else if (remainder == 3) {
+            final int bits = alphabetIndex(text.charAt(i)) << 12 | alphabetIndex(text.charAt(i + 1)) << 6
+                | alphabetIndex(text.charAt(i + 2));
+            if (bits < 0) {
+                throw illegalBase64(text, start, end);
+            }
+            bytes[count++] = (byte) (bits >> 10);
+            bytes[count++] = (byte) (bits >> 2);
+        }
+        return new String(bytes, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private static int alphabetIndex(char c) {
+        return c < 128 ? ALPHABET_INDEX[c] : -1;
+    }
+
+    private static IllegalArgumentException illegalBase64(String text, int start, int end) {
+        return new IllegalArgumentException("Illegal base64 " + text.substring(start, end));
+    }
+
+    /**
+     * Parse the int as {@link Integer#parseInt(String)} does.
+     */
+    private static int parseInt(String text, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        final char first = text.charAt(start);
+        final boolean negative = first == '-';
+        int i = negative || first == '+' ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + text.substring(start, end) + "\"");
+        }
+        // accumulate negatively, as the range of negative is larger
+        final int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            final int digit = Character.digit(text.charAt(i), 10);
+            if (digit < 0 || result < limit / 10 || result * 10 < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + text.substring(start, end) + "\"");
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * The cache of the base64 of the header fields, indexed by the position of the field in the sw8 header. The
+     * values are compared by equals, so a changed value, like a renamed endpoint, is encoded again.
+     */
+    static final class EncodedFields {
+        private final Entry[] entries = new Entry[FIELD_COUNT];
+
+        private String get(int field, String value) {
+            final Entry entry = entries[field];
+            return entry != null && entry.key.equals(value) ? entry.value : null;
+        }
+
+        private void put(int field, String value, String encoded) {
+            entries[field] = new Entry(value, encoded);
+        }
+    }
+
+    /**
+     * Immutable, so it could be shared between threads by the racy caches.
+     */
+    private static final class Entry {
+        private final String key;
+        private final String value;
+
+        private Entry(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Buffer {
+        private static final int INITIAL_SIZE = 512;
+        private static final int MAX_RETAINED_SIZE = 8192;
+
+        private final int[] separators = new int[FIELD_COUNT - 1];
+        private char[] chars = new char[INITIAL_SIZE];
+        private byte[] bytes = new byte[INITIAL_SIZE];
+        private int length;
+
+        private Buffer reset() {
+            if (chars.length > MAX_RETAINED_SIZE) {
+                chars = new char[INITIAL_SIZE];
+            }
+            length = 0;
+            return this;
+        }
+
+        private Buffer append(char c) {
+            ensureChars(1);
+            chars[length++] = c;
+            return this;
+        }
+
+        private Buffer append(String value) {
+            final int count = value.length();
+            ensureChars(count);
+            value.getChars(0, count, chars, length);
+            length += count;
+            return this;
+        }
+
+        /**
+         * Append the span id, which isn't negative in a valid carrier.
+         */
+        private Buffer appendInt(int value) {
+            ensureChars(10);
+            final int start = length;
+            do {
+                chars[length++] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            while (value > 0);
+            // the digits are appended from the lowest one
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                final char c = chars[i];
+                chars[i] = chars[j];
+                chars[j] = c;
+            }
+            return this;
+        }
+
+        /**
+         * Append the base64 of the value, from the cache of the fields if present.
+         */
+        private Buffer appendBase64(EncodedFields fields, int field, String value) {
+            if (fields != null) {
+                final String encoded = fields.get(field, value);
+                if (encoded != null) {
+                    return append(encoded);
+                }
+            }
+            final int start = length;
+            appendBase64(value);
+            if (fields != null) {
+                fields.put(field, value, new String(chars, start, length - start));
+            }
+            return this;
+        }
+
+        private void appendBase64(String value) {
+            final int count = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < count && ascii; i++) {
+                ascii = value.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                ensureChars((count + 2) / 3 * 4);
+                int i = 0;
+                for (; i + 2 < count; i += 3) {
+                    appendTriple(value.charAt(i) << 16 | value.charAt(i + 1) << 8 | value.charAt(i + 2));
+                }
+                appendTail(count - i, count - i == 0 ? 0 : value.charAt(i), count - i == 2 ? value.charAt(i + 1) : 0);
+            } else {
+                final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                final int size = utf8.length;
+                ensureChars((size + 2) / 3 * 4);
+                int i = 0;
+                for (; i + 2 < size; i += 3) {
+                    appendTriple((utf8[i] & 0xff) << 16 | (utf8[i + 1] & 0xff) << 8 | utf8[i + 2] & 0xff);
+                }
+                appendTail(size - i, size - i == 0 ? 0 : utf8[i] & 0xff, size - i == 2 ? utf8[i + 1] & 0xff : 0);
+            }
+        }
+
+        private void appendTriple(int bits) {
+            chars[length++] = ALPHABET[bits >>> 18 & 0x3f];
+            chars[length++] = ALPHABET[bits >>> 12 & 0x3f];
+            chars[length++] = ALPHABET[bits >>> 6 & 0x3f];
+            chars[length++] = ALPHABET[bits & 0x3f];
+        }
+
+        /**
+         * Append the last 1 or 2 bytes with the padding.
+         */
+        private void appendTail(int remaining, int first, int second) {
+            if (remaining == 0) {
+                return;
+            }
+            final int bits = first << 16 | second << 8;
+            chars[length++] = ALPHABET[bits >>> 18 & 0x3f];
+            chars[length++] = ALPHABET[bits >>> 12 & 0x3f];
+            chars[length++] = remaining == 2 ? ALPHABET[bits >>> 6 & 0x3f] : '=';
+            chars[length++] = '=';
+        }
+
+        private void ensureChars(int count) {
+            if (length + count > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+            }
+        }
+
+        private byte[] ensureBytes(int size) {
+            if (size > MAX_RETAINED_SIZE) {
+                // like the chars, don't keep the array of an oversized value in the thread
+                return new byte[size];
+            }
+            if (bytes.length < size) {
+                bytes = new byte[Math.max(size, INITIAL_SIZE)];
+            }
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -37,6 +37,8 @@ import org.apache.skywalking.apm.agent.core.context.trace.ExitTypeSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanArray;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanRecycler;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
@@ -74,11 +76,11 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link SpanArray} is the in-memory
+     * storage-structure. <p> I use {@link SpanArray#removeLast()}, {@link SpanArray#add(AbstractSpan)} and {@link
+     * SpanArray#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private final SpanArray<AbstractSpan> activeSpanStack;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -116,11 +118,17 @@ public class TracingContext implements AbstractTracerContext {
     //CDS watcher
     private final SpanLimitWatcher spanLimitWatcher;
 
+    /**
+     * The base64 of the fields injected into the carriers, created by the first injection.
+     */
+    private SW8HeaderCodec.EncodedFields encodedFields;
+
     /**
      * Initialize all fields with default value.
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
-        this.segment = new TraceSegment();
+        this.segment = new TraceSegment(spanLimitWatcher.getSpanLimit());
+        this.activeSpanStack = new SpanArray<>(spanLimitWatcher.getSpanLimit());
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -177,6 +185,10 @@ public class TracingContext implements AbstractTracerContext {
         carrier.setParentServiceInstance(Config.Agent.INSTANCE_NAME);
         carrier.setParentEndpoint(primaryEndpoint.getName());
         carrier.setAddressUsedAtClient(peer);
+        if (encodedFields == null) {
+            encodedFields = new SW8HeaderCodec.EncodedFields();
+        }
+        carrier.setEncodedFields(encodedFields);
 
         this.correlationContext.inject(carrier);
         this.extensionContext.inject(carrier);
@@ -290,7 +302,7 @@ public class TracingContext implements AbstractTracerContext {
             entrySpan = parentSpan;
             return entrySpan.start();
         } else {
-            entrySpan = new EntrySpan(
+            entrySpan = SpanRecycler.newEntrySpan(
                 spanIdGenerator++, parentSpanId,
                 operationName, owner
             );
@@ -313,7 +325,7 @@ public class TracingContext implements AbstractTracerContext {
         }
         AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-        AbstractTracingSpan span = new LocalSpan(spanIdGenerator++, parentSpanId, operationName, this);
+        AbstractTracingSpan span = SpanRecycler.newLocalSpan(spanIdGenerator++, parentSpanId, operationName, this);
         span.start();
         return push(span);
     }
@@ -343,7 +355,7 @@ public class TracingContext implements AbstractTracerContext {
             // Since 8.10.0
             remotePeer = StringUtil.isEmpty(CLUSTER) ? remotePeer : CLUSTER + "/" + remotePeer;
             final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-            exitSpan = new ExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer, owner);
+            exitSpan = SpanRecycler.newExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer, owner);
             push(exitSpan);
         }
         exitSpan.start();
@@ -554,7 +566,7 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        activeSpanStack.add(span);
         this.extensionContext.handle(span);
         return span;
     }
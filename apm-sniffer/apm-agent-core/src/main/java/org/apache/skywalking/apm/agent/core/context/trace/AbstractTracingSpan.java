@@ -66,7 +66,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      * The context to which the span belongs.
      * This should not be called when {@link #ignored} is true.
      */
-    protected final TracingContext owner;
+    protected TracingContext owner;
 
     /**
      * The start time of this Span.
@@ -139,7 +139,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
             }
         }
 
-        tags.add(new TagValuePair(tag, value));
+        tags.add(SpanRecycler.newTag(tag, value));
         return this;
     }
 
@@ -370,4 +370,39 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     public void forceIgnoring() {
         this.ignored = true;
     }
+
+    /**
+     * Initialize the recycled span as a new one, see {@link SpanRecycler}.
+     */
+    void reuse(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        this.operationName = operationName;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.owner = owner;
+    }
+
+    /**
+     * Release all the states of this span, and recycle its tags, before it is put back into the {@link SpanRecycler}.
+     */
+    void clear() {
+        if (tags != null) {
+            for (TagValuePair tag : tags) {
+                SpanRecycler.recycle(tag);
+            }
+            tags.clear();
+        }
+        operationName = null;
+        layer = null;
+        isInAsyncMode = false;
+        isAsyncStopped = false;
+        owner = null;
+        startTime = 0;
+        endTime = 0;
+        errorOccurred = false;
+        componentId = 0;
+        logs = null;
+        refs = null;
+        skipAnalysis = false;
+        ignored = false;
+    }
 }
@@ -104,6 +104,12 @@ public class EntrySpan extends StackBasedTracingSpan {
         return false;
     }
 
+    @Override
+    void clear() {
+        super.clear();
+        currentMaxDepth = 0;
+    }
+
     private void clearWhenRestart() {
         this.componentId = Constants.NULL_VALUE;
         this.layer = null;
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * SpanArray is the array-backed storage of the active span stack and of the finished spans of a segment. It works as a
+ * list and as a stack, without allocating a node per element like {@link java.util.LinkedList}, and it is still a
+ * {@link java.util.List} for the test tools reading the spans of a segment.
+ * <p>
+ * The capacity doubles when the array is full, but never grows over the span limit while the size is under it, so a
+ * segment reaching the limit does not keep a half-empty array.
+ * <p>
+ * Not thread safe, it follows the thread model of the owner tracing context.
+ */
+public class SpanArray<T extends AbstractSpan> extends AbstractList<T> implements RandomAccess {
+    private static final int DEFAULT_INITIAL_CAPACITY = 8;
+
+    private Object[] elements;
+    private int size;
+    private final int spanLimit;
+
+    /**
+     * @param spanLimit the max number of spans in a segment, see {@link org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher}
+     */
+    public SpanArray(int spanLimit) {
+        this.spanLimit = Math.max(spanLimit, 1);
+        this.elements = new Object[Math.min(DEFAULT_INITIAL_CAPACITY, this.spanLimit)];
+    }
+
+    /**
+     * Append the span at the end, which is the top of the stack.
+     */
+    @Override
+    public boolean add(T span) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[size++] = span;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * @return the last span, and remove it.
+     * @throws NoSuchElementException if it is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        T span = (T) elements[--size];
+        elements[size] = null;
+        modCount++;
+        return span;
+    }
+
+    /**
+     * @return the last span.
+     * @throws NoSuchElementException if it is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return (T) elements[size - 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all spans, and keep the array for reuse.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    private void grow() {
+        int capacity = elements.length << 1;
+        if (size < spanLimit && capacity > spanLimit) {
+            capacity = spanLimit;
+        }
+        elements = Arrays.copyOf(elements, capacity);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
+import org.apache.skywalking.apm.agent.core.context.util.RecyclablePool;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
+
+/**
+ * SpanRecycler creates the spans and tags of {@link TracingContext}, reusing the ones of the reported segments when
+ * {@link Config.Agent#SPAN_RECYCLE_ENABLE} is true.
+ * <p>
+ * The objects are recycled by {@link TraceSegment#recycle()}, which the reporter calls once the segment has been
+ * transformed. Any span reference kept by plugins after the segment finished would see the recycled span, so the
+ * recycle mode is off by default.
+ */
+public class SpanRecycler {
+    private static final int BATCH_SIZE = 64;
+    private static final int MAX_BATCHES = 128;
+
+    private static final RecyclablePool<EntrySpan> ENTRY_SPANS = new RecyclablePool<>(BATCH_SIZE, MAX_BATCHES);
+    private static final RecyclablePool<LocalSpan> LOCAL_SPANS = new RecyclablePool<>(BATCH_SIZE, MAX_BATCHES);
+    private static final RecyclablePool<ExitSpan> EXIT_SPANS = new RecyclablePool<>(BATCH_SIZE, MAX_BATCHES);
+    private static final RecyclablePool<TagValuePair> TAGS = new RecyclablePool<>(BATCH_SIZE, MAX_BATCHES);
+    private static final RecyclablePool<SpanArray<AbstractTracingSpan>> SEGMENT_SPANS = new RecyclablePool<>(
+        BATCH_SIZE, MAX_BATCHES);
+
+    private SpanRecycler() {
+    }
+
+    public static boolean isEnabled() {
+        return Config.Agent.SPAN_RECYCLE_ENABLE;
+    }
+
+    public static EntrySpan newEntrySpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        EntrySpan span = isEnabled() ? ENTRY_SPANS.take() : null;
+        if (span == null) {
+            return new EntrySpan(spanId, parentSpanId, operationName, owner);
+        }
+        span.reuse(spanId, parentSpanId, operationName, owner);
+        return span;
+    }
+
+    public static LocalSpan newLocalSpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        LocalSpan span = isEnabled() ? LOCAL_SPANS.take() : null;
+        if (span == null) {
+            return new LocalSpan(spanId, parentSpanId, operationName, owner);
+        }
+        span.reuse(spanId, parentSpanId, operationName, owner);
+        return span;
+    }
+
+    public static ExitSpan newExitSpan(int spanId,
+                                       int parentSpanId,
+                                       String operationName,
+                                       String peer,
+                                       TracingContext owner) {
+        ExitSpan span = isEnabled() ? EXIT_SPANS.take() : null;
+        if (span == null) {
+            return new ExitSpan(spanId, parentSpanId, operationName, peer, owner);
+        }
+        span.reuse(spanId, parentSpanId, operationName, owner);
+        span.peer = peer;
+        return span;
+    }
+
+    static TagValuePair newTag(AbstractTag<?> tag, String value) {
+        TagValuePair pair = isEnabled() ? TAGS.take() : null;
+        if (pair == null) {
+            return new TagValuePair(tag, value);
+        }
+        pair.setKey(tag);
+        pair.setValue(value);
+        return pair;
+    }
+
+    static SpanArray<AbstractTracingSpan> newSegmentSpans(int spanLimit) {
+        SpanArray<AbstractTracingSpan> spans = isEnabled() ? SEGMENT_SPANS.take() : null;
+        if (spans == null) {
+            return new SpanArray<>(spanLimit);
+        }
+        return spans;
+    }
+
+    /**
+     * Clear the span and its tags, and put them back into the pools.
+     */
+    static void recycle(AbstractTracingSpan span) {
+        span.clear();
+        if (span instanceof EntrySpan) {
+            ENTRY_SPANS.recycle((EntrySpan) span);
+        } else if (span instanceof ExitSpan) {
+            EXIT_SPANS.recycle((ExitSpan) span);
+        } else if (span instanceof LocalSpan) {
+            LOCAL_SPANS.recycle((LocalSpan) span);
+        }
+    }
+
+    static void recycle(SpanArray<AbstractTracingSpan> spans) {
+        spans.clear();
+        SEGMENT_SPANS.recycle(spans);
+    }
+
+    static void recycle(TagValuePair pair) {
+        pair.setKey(null);
+        pair.setValue(null);
+        TAGS.recycle(pair);
+    }
+}
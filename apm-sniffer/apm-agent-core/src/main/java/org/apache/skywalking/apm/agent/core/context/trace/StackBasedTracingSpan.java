@@ -66,4 +66,11 @@ public abstract class StackBasedTracingSpan extends AbstractTracingSpan {
         this.peer = remotePeer;
         return this;
     }
+
+    @Override
+    void clear() {
+        super.clear();
+        stackDepth = 0;
+        peer = null;
+    }
 }
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
-import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
@@ -32,6 +30,11 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  * by multi {@link TraceSegment}s, because the distributed trace crosses multi-processes, multi-threads. <p>
  */
 public class TraceSegment {
+    /**
+     * The spans of all the recycled segments, always empty, as a recycled segment doesn't archive any span.
+     */
+    private static final SpanArray<AbstractTracingSpan> RECYCLED_SPANS = new SpanArray<>(1);
+
     /**
      * The id of this trace segment. Every segment has its unique-global-id.
      */
@@ -50,7 +53,7 @@ public class TraceSegment {
      * The spans belong to this trace segment. They all have finished. All active spans are hold and controlled by
      * "skywalking-api" module.
      */
-    private List<AbstractTracingSpan> spans;
+    private SpanArray<AbstractTracingSpan> spans;
 
     /**
      * The <code>relatedGlobalTraceId</code> represent the related trace. Most time it related only one
@@ -69,8 +72,15 @@ public class TraceSegment {
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
+        this(Config.Agent.SPAN_LIMIT_PER_SEGMENT);
+    }
+
+    /**
+     * Create a default/empty trace segment, whose span storage is sized from the given span limit.
+     */
+    public TraceSegment(int spanLimit) {
         this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this.spans = SpanRecycler.newSegmentSpans(spanLimit);
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
     }
@@ -100,6 +110,9 @@ public class TraceSegment {
      * TraceSegment} to archive it.
      */
     public void archive(AbstractTracingSpan finishedSpan) {
+        if (spans == RECYCLED_SPANS) {
+            return;
+        }
         spans.add(finishedSpan);
     }
 
@@ -126,8 +139,16 @@ public class TraceSegment {
         return relatedGlobalTraceId;
     }
 
+    SpanArray<AbstractTracingSpan> getSpans() {
+        return spans;
+    }
+
+    boolean isSizeLimited() {
+        return isSizeLimited;
+    }
+
     public boolean isSingleSpanSegment() {
-        return this.spans != null && this.spans.size() == 1;
+        return this.spans.size() == 1;
     }
 
     public boolean isIgnore() {
@@ -153,8 +174,8 @@ public class TraceSegment {
         // Don't serialize TraceSegmentReference
 
         // SpanObject
-        for (AbstractTracingSpan span : this.spans) {
-            traceSegmentBuilder.addSpans(span.transform());
+        for (int i = 0; i < this.spans.size(); i++) {
+            traceSegmentBuilder.addSpans(this.spans.get(i).transform());
         }
         traceSegmentBuilder.setService(Config.Agent.SERVICE_NAME);
         traceSegmentBuilder.setServiceInstance(Config.Agent.INSTANCE_NAME);
@@ -163,6 +184,22 @@ public class TraceSegment {
         return traceSegmentBuilder.build();
     }
 
+    /**
+     * Put the spans and their tags back into the {@link SpanRecycler}, if the recycle mode is enabled. This must only be
+     * called by the reporter, after the segment has been transformed, and the segment must not be used anymore.
+     */
+    public void recycle() {
+        if (!SpanRecycler.isEnabled() || spans == RECYCLED_SPANS) {
+            return;
+        }
+        for (int i = 0; i < spans.size(); i++) {
+            SpanRecycler.recycle(spans.get(i));
+        }
+        SpanRecycler.recycle(spans);
+        // the segment could still be logged or transformed, as an empty one
+        spans = RECYCLED_SPANS;
+    }
+
     @Override
     public String toString() {
         return "TraceSegment{" + "traceSegmentId='" + traceSegmentId + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
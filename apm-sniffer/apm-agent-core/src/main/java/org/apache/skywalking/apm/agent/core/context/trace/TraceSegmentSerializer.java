@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.Log;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+
+/**
+ * TraceSegmentSerializer writes a {@link TraceSegment} in the {@link SegmentObject} wire format directly, without
+ * building the {@link SegmentObject}, {@link SpanObject} and the other messages through the protobuf builders.
+ * <p>
+ * The output is byte-for-byte the same as {@code segment.transform().toByteArray()}: the fields are written in the
+ * field number order, and the default values are skipped, like the generated code does. The sizes are computed in a
+ * first pass, so the segment is written into one exact-size array. The array is not reused: the gRPC and Kafka
+ * reporters hand it to their transport, which holds it after the send returns, so a reused buffer would have to be
+ * copied into such an array anyway.
+ * <p>
+ * Not thread safe, the span size cache is reused across segments. Use one serializer per reporter thread.
+ */
+public class TraceSegmentSerializer {
+    private int[] spanSizes = new int[16];
+
+    /**
+     * @return the segment in the {@link SegmentObject} wire format
+     */
+    public byte[] serialize(TraceSegment segment) {
+        final String service = Config.Agent.SERVICE_NAME;
+        final String serviceInstance = Config.Agent.INSTANCE_NAME;
+        final byte[] bytes = new byte[computeSegmentSize(segment, service, serviceInstance)];
+        final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeSegment(output, segment, service, serviceInstance);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // The array is sized by the same rules, it never happens unless the segment changed during serializing.
+            throw new IllegalStateException("Serialize segment " + segment.getTraceSegmentId() + " fail.", e);
+        }
+        return bytes;
+    }
+
+    private int computeSegmentSize(TraceSegment segment, String service, String serviceInstance) {
+        final SpanArray<AbstractTracingSpan> spans = segment.getSpans();
+        if (spanSizes.length < spans.size()) {
+            spanSizes = new int[Math.max(spans.size(), spanSizes.length << 1)];
+        }
+        int size = computeStringSize(SegmentObject.TRACEID_FIELD_NUMBER, segment.getRelatedGlobalTrace().getId())
+            + computeStringSize(SegmentObject.TRACESEGMENTID_FIELD_NUMBER, segment.getTraceSegmentId());
+        for (int i = 0; i < spans.size(); i++) {
+            int spanSize = computeSpanSize(spans.get(i));
+            spanSizes[i] = spanSize;
+            size += computeMessageSize(SegmentObject.SPANS_FIELD_NUMBER, spanSize);
+        }
+        size += computeStringSize(SegmentObject.SERVICE_FIELD_NUMBER, service)
+            + computeStringSize(SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance);
+        if (segment.isSizeLimited()) {
+            size += CodedOutputStream.computeBoolSize(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+        return size;
+    }
+
+    private void writeSegment(CodedOutputStream output,
+                              TraceSegment segment,
+                              String service,
+                              String serviceInstance) throws IOException {
+        final SpanArray<AbstractTracingSpan> spans = segment.getSpans();
+        writeString(output, SegmentObject.TRACEID_FIELD_NUMBER, segment.getRelatedGlobalTrace().getId());
+        writeString(output, SegmentObject.TRACESEGMENTID_FIELD_NUMBER, segment.getTraceSegmentId());
+        for (int i = 0; i < spans.size(); i++) {
+            writeMessageHeader(output, SegmentObject.SPANS_FIELD_NUMBER, spanSizes[i]);
+            writeSpan(output, spans.get(i));
+        }
+        writeString(output, SegmentObject.SERVICE_FIELD_NUMBER, service);
+        writeString(output, SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance);
+        if (segment.isSizeLimited()) {
+            output.writeBool(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+    }
+
+    private static int computeSpanSize(AbstractTracingSpan span) {
+        int size = computeInt32Size(SpanObject.SPANID_FIELD_NUMBER, span.spanId)
+            + computeInt32Size(SpanObject.PARENTSPANID_FIELD_NUMBER, span.parentSpanId)
+            + computeInt64Size(SpanObject.STARTTIME_FIELD_NUMBER, span.startTime)
+            + computeInt64Size(SpanObject.ENDTIME_FIELD_NUMBER, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                size += computeMessageSize(SpanObject.REFS_FIELD_NUMBER, computeRefSize(ref));
+            }
+        }
+        size += computeStringSize(SpanObject.OPERATIONNAME_FIELD_NUMBER, span.operationName)
+            + computeStringSize(SpanObject.PEER_FIELD_NUMBER, peerOf(span))
+            + computeInt32Size(SpanObject.SPANTYPE_FIELD_NUMBER, spanTypeOf(span))
+            + computeInt32Size(SpanObject.SPANLAYER_FIELD_NUMBER, span.layer == null ? 0 : span.layer.getCode())
+            + computeInt32Size(SpanObject.COMPONENTID_FIELD_NUMBER, span.componentId);
+        if (span.errorOccurred) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                size += computeMessageSize(
+                    SpanObject.TAGS_FIELD_NUMBER, computeKeyValueSize(tag.getKey().key(), tag.getValue()));
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                size += computeMessageSize(SpanObject.LOGS_FIELD_NUMBER, computeLogSize(log));
+            }
+        }
+        if (span.skipAnalysis) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+        return size;
+    }
+
+    private static void writeSpan(CodedOutputStream output, AbstractTracingSpan span) throws IOException {
+        writeInt32(output, SpanObject.SPANID_FIELD_NUMBER, span.spanId);
+        writeInt32(output, SpanObject.PARENTSPANID_FIELD_NUMBER, span.parentSpanId);
+        writeInt64(output, SpanObject.STARTTIME_FIELD_NUMBER, span.startTime);
+        writeInt64(output, SpanObject.ENDTIME_FIELD_NUMBER, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                writeMessageHeader(output, SpanObject.REFS_FIELD_NUMBER, computeRefSize(ref));
+                writeRef(output, ref);
+            }
+        }
+        writeString(output, SpanObject.OPERATIONNAME_FIELD_NUMBER, span.operationName);
+        writeString(output, SpanObject.PEER_FIELD_NUMBER, peerOf(span));
+        writeInt32(output, SpanObject.SPANTYPE_FIELD_NUMBER, spanTypeOf(span));
+        writeInt32(output, SpanObject.SPANLAYER_FIELD_NUMBER, span.layer == null ? 0 : span.layer.getCode());
+        writeInt32(output, SpanObject.COMPONENTID_FIELD_NUMBER, span.componentId);
+        if (span.errorOccurred) {
+            output.writeBool(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                String key = tag.getKey().key();
+                writeMessageHeader(output, SpanObject.TAGS_FIELD_NUMBER, computeKeyValueSize(key, tag.getValue()));
+                writeKeyValue(output, key, tag.getValue());
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                writeMessageHeader(output, SpanObject.LOGS_FIELD_NUMBER, computeLogSize(log));
+                writeLog(output, log);
+            }
+        }
+        if (span.skipAnalysis) {
+            output.writeBool(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+    }
+
+    private static int computeRefSize(TraceSegmentRef ref) {
+        return computeInt32Size(SegmentReference.REFTYPE_FIELD_NUMBER, refTypeOf(ref))
+            + computeStringSize(SegmentReference.TRACEID_FIELD_NUMBER, ref.getTraceId())
+            + computeStringSize(SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, ref.getTraceSegmentId())
+            + computeInt32Size(SegmentReference.PARENTSPANID_FIELD_NUMBER, ref.getSpanId())
+            + computeStringSize(SegmentReference.PARENTSERVICE_FIELD_NUMBER, ref.getParentService())
+            + computeStringSize(SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, ref.getParentServiceInstance())
+            + computeStringSize(SegmentReference.PARENTENDPOINT_FIELD_NUMBER, ref.getParentEndpoint())
+            + computeStringSize(SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, ref.getAddressUsedAtClient());
+    }
+
+    private static void writeRef(CodedOutputStream output, TraceSegmentRef ref) throws IOException {
+        writeInt32(output, SegmentReference.REFTYPE_FIELD_NUMBER, refTypeOf(ref));
+        writeString(output, SegmentReference.TRACEID_FIELD_NUMBER, ref.getTraceId());
+        writeString(output, SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, ref.getTraceSegmentId());
+        writeInt32(output, SegmentReference.PARENTSPANID_FIELD_NUMBER, ref.getSpanId());
+        writeString(output, SegmentReference.PARENTSERVICE_FIELD_NUMBER, ref.getParentService());
+        writeString(output, SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, ref.getParentServiceInstance());
+        writeString(output, SegmentReference.PARENTENDPOINT_FIELD_NUMBER, ref.getParentEndpoint());
+        writeString(output, SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, ref.getAddressUsedAtClient());
+    }
+
+    private static int computeLogSize(LogDataEntity log) {
+        int size = computeInt64Size(Log.TIME_FIELD_NUMBER, log.getTimestamp());
+        List<KeyValuePair> data = log.getLogs();
+        for (int i = 0; i < data.size(); i++) {
+            KeyValuePair pair = data.get(i);
+            size += computeMessageSize(Log.DATA_FIELD_NUMBER, computeKeyValueSize(pair.getKey(), pair.getValue()));
+        }
+        return size;
+    }
+
+    private static void writeLog(CodedOutputStream output, LogDataEntity log) throws IOException {
+        writeInt64(output, Log.TIME_FIELD_NUMBER, log.getTimestamp());
+        List<KeyValuePair> data = log.getLogs();
+        for (int i = 0; i < data.size(); i++) {
+            KeyValuePair pair = data.get(i);
+            writeMessageHeader(output, Log.DATA_FIELD_NUMBER, computeKeyValueSize(pair.getKey(), pair.getValue()));
+            writeKeyValue(output, pair.getKey(), pair.getValue());
+        }
+    }
+
+    private static int computeKeyValueSize(String key, String value) {
+        return computeStringSize(KeyStringValuePair.KEY_FIELD_NUMBER, key)
+            + computeStringSize(KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
+
+    private static void writeKeyValue(CodedOutputStream output, String key, String value) throws IOException {
+        writeString(output, KeyStringValuePair.KEY_FIELD_NUMBER, key);
+        writeString(output, KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
+
+    private static String peerOf(AbstractTracingSpan span) {
+        return span instanceof StackBasedTracingSpan ? ((StackBasedTracingSpan) span).peer : null;
+    }
+
+    private static int spanTypeOf(AbstractTracingSpan span) {
+        if (span.isEntry()) {
+            return SpanType.Entry.getNumber();
+        } else if (span.isExit()) {
+            return SpanType.Exit.getNumber();
+        }
+        return SpanType.Local.getNumber();
+    }
+
+    private static int refTypeOf(TraceSegmentRef ref) {
+        return TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType())
+            ? RefType.CrossProcess.getNumber() : RefType.CrossThread.getNumber();
+    }
+
+    /*
+     * The helpers below skip the proto3 default values, as the generated messages do.
+     */
+
+    private static int computeStringSize(int fieldNumber, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    private static int computeInt32Size(int fieldNumber, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(fieldNumber, value);
+    }
+
+    private static void writeInt32(CodedOutputStream output, int fieldNumber, int value) throws IOException {
+        if (value != 0) {
+            output.writeInt32(fieldNumber, value);
+        }
+    }
+
+    private static int computeInt64Size(int fieldNumber, long value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt64Size(fieldNumber, value);
+    }
+
+    private static void writeInt64(CodedOutputStream output, int fieldNumber, long value) throws IOException {
+        if (value != 0) {
+            output.writeInt64(fieldNumber, value);
+        }
+    }
+
+    private static int computeMessageSize(int fieldNumber, int messageSize) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(messageSize)
+            + messageSize;
+    }
+
+    private static void writeMessageHeader(CodedOutputStream output,
+                                           int fieldNumber,
+                                           int messageSize) throws IOException {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(messageSize);
+    }
+}
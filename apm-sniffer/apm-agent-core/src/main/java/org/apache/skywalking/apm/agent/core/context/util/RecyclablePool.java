@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * RecyclablePool keeps the recycled objects in thread local batches, and exchanges the full batches between threads
+ * through a bounded shared queue.
+ * <p>
+ * Objects are usually taken by the application threads, and recycled by another thread, e.g. the reporter thread
+ * after the trace segment is sent. The shared queue is touched once per batch rather than once per object. When the
+ * queue is full, the recycled batch is dropped and collected by GC as usual.
+ */
+public class RecyclablePool<T> {
+    private final int batchSize;
+    private final ArrayBlockingQueue<Object[]> sharedBatches;
+    private final ThreadLocal<Batch> localBatch;
+
+    /**
+     * @param batchSize  the number of objects exchanged between threads at once.
+     * @param maxBatches the max number of full batches kept in the pool.
+     */
+    public RecyclablePool(int batchSize, int maxBatches) {
+        this.batchSize = batchSize;
+        this.sharedBatches = new ArrayBlockingQueue<>(maxBatches);
+        this.localBatch = ThreadLocal.withInitial(Batch::new);
+    }
+
+    /**
+     * @return a recycled object, or null if the pool is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T take() {
+        Batch batch = localBatch.get();
+        if (batch.size == 0) {
+            Object[] items = sharedBatches.poll();
+            if (items == null) {
+                return null;
+            }
+            batch.items = items;
+            batch.size = items.length;
+        }
+        int index = --batch.size;
+        Object item = batch.items[index];
+        batch.items[index] = null;
+        return (T) item;
+    }
+
+    /**
+     * Put the object back into the pool. The caller should have reset the object, and must not use it anymore.
+     */
+    public void recycle(T item) {
+        Batch batch = localBatch.get();
+        if (batch.items == null || batch.size == batch.items.length) {
+            if (batch.items != null) {
+                // Never block the recycling thread, drop the batch if the pool is full.
+                sharedBatches.offer(batch.items);
+            }
+            batch.items = new Object[batchSize];
+            batch.size = 0;
+        }
+        batch.items[batch.size++] = item;
+    }
+
+    private static class Batch {
+        private Object[] items;
+        private int size;
+    }
+}
@@ -55,6 +55,10 @@ public class TagValuePair {
         this.value = value;
     }
 
+    public void setKey(AbstractTag key) {
+        this.key = key;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o)
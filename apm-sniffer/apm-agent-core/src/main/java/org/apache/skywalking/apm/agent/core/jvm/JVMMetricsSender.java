@@ -19,7 +19,8 @@
 package org.apache.skywalking.apm.agent.core.jvm;
 
 import io.grpc.Channel;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
@@ -67,17 +68,21 @@ public class JVMMetricsSender implements BootService, Runnable, GRPCChannelListe
         }
     }
 
+    /**
+     * Sends the metrics collected since the last call, in collections of at most {@link
+     * Config.Jvm#MAX_METRICS_PER_REPORT} metrics. The metrics behind a failed call stay buffered for the next run.
+     */
     @Override
     public void run() {
         if (status == GRPCChannelStatus.CONNECTED) {
             try {
-                JVMMetricCollection.Builder builder = JVMMetricCollection.newBuilder();
-                LinkedList<JVMMetric> buffer = new LinkedList<>();
-                queue.drainTo(buffer);
-                if (buffer.size() > 0) {
+                List<JVMMetric> buffer = new ArrayList<>();
+                while (queue.drainTo(buffer, maxMetricsPerReport()) > 0) {
+                    JVMMetricCollection.Builder builder = JVMMetricCollection.newBuilder();
                     builder.addAllMetrics(buffer);
                     builder.setService(Config.Agent.SERVICE_NAME);
                     builder.setServiceInstance(Config.Agent.INSTANCE_NAME);
+                    buffer.clear();
                     Commands commands = stub.withDeadlineAfter(GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS)
                                             .collect(builder.build());
                     ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
@@ -89,6 +94,10 @@ public class JVMMetricsSender implements BootService, Runnable, GRPCChannelListe
         }
     }
 
+    protected static int maxMetricsPerReport() {
+        return Config.Jvm.MAX_METRICS_PER_REPORT > 0 ? Config.Jvm.MAX_METRICS_PER_REPORT : Integer.MAX_VALUE;
+    }
+
     @Override
     public void statusChanged(GRPCChannelStatus status) {
         if (GRPCChannelStatus.CONNECTED.equals(status)) {
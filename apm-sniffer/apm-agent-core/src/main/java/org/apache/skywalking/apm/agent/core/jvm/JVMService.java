@@ -18,12 +18,10 @@
 
 package org.apache.skywalking.apm.agent.core.jvm;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.jvm.clazz.ClassProvider;
@@ -35,6 +33,7 @@ import org.apache.skywalking.apm.agent.core.jvm.thread.ThreadProvider;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.network.language.agent.v3.JVMMetric;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
@@ -49,6 +48,10 @@ public class JVMService implements BootService, Runnable {
     private volatile ScheduledFuture<?> sendMetricFuture;
     private JVMMetricsSender sender;
     private volatile double cpuUsagePercent;
+    /**
+     * Reused by every collection, which never overlap as they run in one fixed rate task.
+     */
+    private final JVMMetric.Builder jvmBuilder = JVMMetric.newBuilder();
 
     @Override
     public void prepare() throws Throwable {
@@ -57,28 +60,25 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void boot() throws Throwable {
-        collectMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-produce"))
-                                       .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                           this,
-                                           new RunnableWithExceptionProtection.CallbackWhenException() {
-                                               @Override
-                                               public void handle(Throwable t) {
-                                                   LOGGER.error("JVMService produces metrics failure.", t);
-                                               }
-                                           }
-                                       ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
-        sendMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-consume"))
-                                    .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                        sender,
-                                        new RunnableWithExceptionProtection.CallbackWhenException() {
-                                            @Override
-                                            public void handle(Throwable t) {
-                                                LOGGER.error("JVMService consumes and upload failure.", t);
-                                            }
-                                        }
-                                    ), 0, 1, TimeUnit.SECONDS);
+        SchedulerService scheduler = ServiceManager.INSTANCE.findService(SchedulerService.class);
+        collectMetricFuture = scheduler.scheduleAtFixedRate("JVMService-produce", new RunnableWithExceptionProtection(
+            this,
+            new RunnableWithExceptionProtection.CallbackWhenException() {
+                @Override
+                public void handle(Throwable t) {
+                    LOGGER.error("JVMService produces metrics failure.", t);
+                }
+            }
+        ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
+        sendMetricFuture = scheduler.scheduleBlockingAtFixedRate("JVMService-consume", new RunnableWithExceptionProtection(
+            sender,
+            new RunnableWithExceptionProtection.CallbackWhenException() {
+                @Override
+                public void handle(Throwable t) {
+                    LOGGER.error("JVMService consumes and upload failure.", t);
+                }
+            }
+        ), 0, Config.Jvm.REPORT_PERIOD, TimeUnit.SECONDS);
     }
 
     @Override
@@ -96,7 +96,7 @@ public class JVMService implements BootService, Runnable {
     public void run() {
         long currentTimeMillis = System.currentTimeMillis();
         try {
-            JVMMetric.Builder jvmBuilder = JVMMetric.newBuilder();
+            jvmBuilder.clear();
             jvmBuilder.setTime(currentTimeMillis);
             jvmBuilder.setCpu(CPUProvider.INSTANCE.getCpuMetric());
             jvmBuilder.addAllMemory(MemoryProvider.INSTANCE.getMemoryMetricList());
@@ -22,7 +22,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.GC;
 import org.apache.skywalking.apm.network.language.agent.v3.GCPhase;
 
 import java.lang.management.GarbageCollectorMXBean;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class GCModule implements GCMetricAccessor {
@@ -33,46 +33,74 @@ public abstract class GCModule implements GCMetricAccessor {
     private long lastOGCCollectionTime = 0;
     private long lastYGCCollectionTime = 0;
 
+    /**
+     * The phase of every bean, in the order of the beans, and null for the collectors which aren't reported.
+     */
+    private GCPhase[] phases;
+    private final GC.Builder builder = GC.newBuilder();
+
     public GCModule(List<GarbageCollectorMXBean> beans) {
         this.beans = beans;
     }
 
+    /**
+     * The collection time only grows with the collection count, so the time is read only when some collections
+     * happened since the last call.
+     */
     @Override
     public List<GC> getGCList() {
-        List<GC> gcList = new LinkedList<GC>();
-        for (GarbageCollectorMXBean bean : beans) {
-            String name = bean.getName();
-            GCPhase phase;
+        if (phases == null) {
+            phases = resolvePhases();
+        }
+        List<GC> gcList = new ArrayList<GC>(2);
+        for (int i = 0; i < phases.length; i++) {
+            GCPhase phase = phases[i];
+            if (phase == null) {
+                continue;
+            }
+            GarbageCollectorMXBean bean = beans.get(i);
             long gcCount = 0;
             long gcTime = 0;
-            if (name.equals(getNewGCName())) {
-                phase = GCPhase.NEW;
-                long collectionCount = bean.getCollectionCount();
-                gcCount = collectionCount - lastYGCCount;
-                lastYGCCount = collectionCount;
-
-                long time = bean.getCollectionTime();
-                gcTime = time - lastYGCCollectionTime;
-                lastYGCCollectionTime = time;
-            } else if (name.equals(getOldGCName())) {
-                phase = GCPhase.OLD;
-                long collectionCount = bean.getCollectionCount();
-                gcCount = collectionCount - lastOGCCount;
-                lastOGCCount = collectionCount;
-
-                long time = bean.getCollectionTime();
-                gcTime = time - lastOGCCollectionTime;
-                lastOGCCollectionTime = time;
+            long collectionCount = bean.getCollectionCount();
+            if (phase == GCPhase.NEW) {
+                if (collectionCount != lastYGCCount) {
+                    gcCount = collectionCount - lastYGCCount;
+                    lastYGCCount = collectionCount;
+
+                    long time = bean.getCollectionTime();
+                    gcTime = time - lastYGCCollectionTime;
+                    lastYGCCollectionTime = time;
+                }
             } else {
-                continue;
+                if (collectionCount != lastOGCCount) {
+                    gcCount = collectionCount - lastOGCCount;
+                    lastOGCCount = collectionCount;
+
+                    long time = bean.getCollectionTime();
+                    gcTime = time - lastOGCCollectionTime;
+                    lastOGCCollectionTime = time;
+                }
             }
 
-            gcList.add(GC.newBuilder().setPhase(phase).setCount(gcCount).setTime(gcTime).build());
+            gcList.add(builder.setPhase(phase).setCount(gcCount).setTime(gcTime).build());
         }
 
         return gcList;
     }
 
+    private GCPhase[] resolvePhases() {
+        GCPhase[] resolved = new GCPhase[beans.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            String name = beans.get(i).getName();
+            if (name.equals(getNewGCName())) {
+                resolved[i] = GCPhase.NEW;
+            } else if (name.equals(getOldGCName())) {
+                resolved[i] = GCPhase.OLD;
+            }
+        }
+        return resolved;
+    }
+
     protected abstract String getOldGCName();
 
     protected abstract String getNewGCName();
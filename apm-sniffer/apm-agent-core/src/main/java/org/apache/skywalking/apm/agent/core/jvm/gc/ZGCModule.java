@@ -22,7 +22,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.GC;
 import org.apache.skywalking.apm.network.language.agent.v3.GCPhase;
 
 import java.lang.management.GarbageCollectorMXBean;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ZGCModule implements GCMetricAccessor {
@@ -30,6 +30,7 @@ public class ZGCModule implements GCMetricAccessor {
 
     private long lastNormalGCCount = 0;
     private long lastNormalGCTime = 0;
+    private final GC.Builder builder = GC.newBuilder();
 
     public ZGCModule(List<GarbageCollectorMXBean> beans) {
         this.beans = beans;
@@ -37,7 +38,7 @@ public class ZGCModule implements GCMetricAccessor {
 
     @Override
     public List<GC> getGCList() {
-        List<GC> gcList = new LinkedList<GC>();
+        List<GC> gcList = new ArrayList<GC>(beans.size());
         for (GarbageCollectorMXBean bean : beans) {
             String name = bean.getName();
             long gcCount = 0;
@@ -61,7 +62,7 @@ public class ZGCModule implements GCMetricAccessor {
             } else {
                 continue;
             }
-            gcList.add(GC.newBuilder().setPhase(GCPhase.NORMAL).setCount(gcCount).setTime(gcTime).build());
+            gcList.add(builder.setPhase(GCPhase.NORMAL).setCount(gcCount).setTime(gcTime).build());
         }
 
         return gcList;
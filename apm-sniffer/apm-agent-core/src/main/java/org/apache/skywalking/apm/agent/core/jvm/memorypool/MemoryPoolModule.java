@@ -20,13 +20,19 @@ package org.apache.skywalking.apm.agent.core.jvm.memorypool;
 
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.network.language.agent.v3.MemoryPool;
 import org.apache.skywalking.apm.network.language.agent.v3.PoolType;
 
 public abstract class MemoryPoolModule implements MemoryPoolMetricsAccessor {
     private List<MemoryPoolMXBean> beans;
+    /**
+     * The pool type of every bean, in the order of the beans, and null for the pools which aren't reported. The set of
+     * pools never changes, so the names are matched once rather than at every collection.
+     */
+    private PoolType[] types;
+    private final MemoryPool.Builder builder = MemoryPool.newBuilder();
 
     public MemoryPoolModule(List<MemoryPoolMXBean> beans) {
         this.beans = beans;
@@ -34,36 +40,46 @@ public abstract class MemoryPoolModule implements MemoryPoolMetricsAccessor {
 
     @Override
     public List<MemoryPool> getMemoryPoolMetricsList() {
-        List<MemoryPool> poolList = new LinkedList<MemoryPool>();
-        for (MemoryPoolMXBean bean : beans) {
-            String name = bean.getName();
-            PoolType type;
+        if (types == null) {
+            types = resolveTypes();
+        }
+        List<MemoryPool> poolList = new ArrayList<MemoryPool>(beans.size());
+        for (int i = 0; i < types.length; i++) {
+            PoolType type = types[i];
+            if (type == null) {
+                continue;
+            }
+
+            MemoryUsage usage = beans.get(i).getUsage();
+            poolList.add(builder.setType(type)
+                                .setInit(usage.getInit())
+                                .setMax(usage.getMax())
+                                .setCommitted(usage.getCommitted())
+                                .setUsed(usage.getUsed())
+                                .build());
+        }
+        return poolList;
+    }
+
+    private PoolType[] resolveTypes() {
+        PoolType[] resolved = new PoolType[beans.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            String name = beans.get(i).getName();
             if (contains(getCodeCacheNames(), name)) {
-                type = PoolType.CODE_CACHE_USAGE;
+                resolved[i] = PoolType.CODE_CACHE_USAGE;
             } else if (contains(getEdenNames(), name)) {
-                type = PoolType.NEWGEN_USAGE;
+                resolved[i] = PoolType.NEWGEN_USAGE;
             } else if (contains(getOldNames(), name)) {
-                type = PoolType.OLDGEN_USAGE;
+                resolved[i] = PoolType.OLDGEN_USAGE;
             } else if (contains(getSurvivorNames(), name)) {
-                type = PoolType.SURVIVOR_USAGE;
+                resolved[i] = PoolType.SURVIVOR_USAGE;
             } else if (contains(getMetaspaceNames(), name)) {
-                type = PoolType.METASPACE_USAGE;
+                resolved[i] = PoolType.METASPACE_USAGE;
             } else if (contains(getPermNames(), name)) {
-                type = PoolType.PERMGEN_USAGE;
-            } else {
-                continue;
+                resolved[i] = PoolType.PERMGEN_USAGE;
             }
-
-            MemoryUsage usage = bean.getUsage();
-            poolList.add(MemoryPool.newBuilder()
-                                   .setType(type)
-                                   .setInit(usage.getInit())
-                                   .setMax(usage.getMax())
-                                   .setCommitted(usage.getCommitted())
-                                   .setUsed(usage.getUsed())
-                                   .build());
         }
-        return poolList;
+        return resolved;
     }
 
     private boolean contains(String[] possibleNames, String name) {
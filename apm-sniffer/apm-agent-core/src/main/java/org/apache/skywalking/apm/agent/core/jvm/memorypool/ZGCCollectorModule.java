@@ -23,12 +23,13 @@ import org.apache.skywalking.apm.network.language.agent.v3.PoolType;
 
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ZGCCollectorModule implements MemoryPoolMetricsAccessor {
 
     private final List<MemoryPoolMXBean> beans;
+    private final MemoryPool.Builder builder = MemoryPool.newBuilder();
 
     public ZGCCollectorModule(List<MemoryPoolMXBean> beans) {
         this.beans = beans;
@@ -36,7 +37,7 @@ public class ZGCCollectorModule implements MemoryPoolMetricsAccessor {
 
     @Override
     public List<MemoryPool> getMemoryPoolMetricsList() {
-        List<MemoryPool> poolList = new LinkedList<>();
+        List<MemoryPool> poolList = new ArrayList<>(beans.size());
         for (MemoryPoolMXBean bean : beans) {
             String name = bean.getName();
             PoolType type;
@@ -57,8 +58,7 @@ public class ZGCCollectorModule implements MemoryPoolMetricsAccessor {
             }
 
             MemoryUsage usage = bean.getUsage();
-            poolList.add(MemoryPool.newBuilder()
-                    .setType(type)
+            poolList.add(builder.setType(type)
                     .setInit(usage.getInit())
                     .setMax(usage.getMax())
                     .setCommitted(usage.getCommitted())
@@ -19,60 +19,44 @@
 package org.apache.skywalking.apm.agent.core.jvm.thread;
 
 import java.lang.management.ManagementFactory;
-import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.network.language.agent.v3.Thread;
 
 public enum ThreadProvider {
     INSTANCE;
     private final ThreadMXBean threadMXBean;
+    private final ThreadStateCounter stateCounter;
+    private final Thread.Builder builder = Thread.newBuilder();
+    /**
+     * The collections left until the threads are counted by state again.
+     */
+    private int collectionsToStateCount;
 
     ThreadProvider() {
         this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.stateCounter = new ThreadStateCounter(threadMXBean);
     }
 
-    public Thread getThreadMetrics() {
-        int runnableStateThreadCount = 0;
-        int blockedStateThreadCount = 0;
-        int waitingStateThreadCount = 0;
-        int timedWaitingStateThreadCount = 0;
-
-        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), 0);
-        if (threadInfos != null) {
-            for (ThreadInfo threadInfo : threadInfos) {
-                if (threadInfo == null) {
-                    continue;
-                }
-                switch (threadInfo.getThreadState()) {
-                    case RUNNABLE:
-                        runnableStateThreadCount++;
-                        break;
-                    case BLOCKED:
-                        blockedStateThreadCount++;
-                        break;
-                    case WAITING:
-                        waitingStateThreadCount++;
-                        break;
-                    case TIMED_WAITING:
-                        timedWaitingStateThreadCount++;
-                        break;
-                    default:
-                        break;
-                    }
-            }
+    /**
+     * The live, daemon and peak counts are read on every call. Counting the threads by state costs a walk over all of
+     * them, so it only happens every {@link Config.Jvm#THREAD_STATE_COLLECT_PERIOD} seconds, and the calls in between
+     * report the last counts.
+     */
+    public synchronized Thread getThreadMetrics() {
+        if (--collectionsToStateCount < 0) {
+            stateCounter.count();
+            collectionsToStateCount = Config.Jvm.THREAD_STATE_COLLECT_PERIOD / Math.max(
+                1, Config.Jvm.METRICS_COLLECT_PERIOD) - 1;
         }
-
-        int threadCount = threadMXBean.getThreadCount();
-        int daemonThreadCount = threadMXBean.getDaemonThreadCount();
-        int peakThreadCount = threadMXBean.getPeakThreadCount();
-        return Thread.newBuilder().setLiveCount(threadCount)
-                .setDaemonCount(daemonThreadCount)
-                .setPeakCount(peakThreadCount)
-                .setRunnableStateThreadCount(runnableStateThreadCount)
-                .setBlockedStateThreadCount(blockedStateThreadCount)
-                .setWaitingStateThreadCount(waitingStateThreadCount)
-                .setTimedWaitingStateThreadCount(timedWaitingStateThreadCount)
-                .build();
+        return builder.setLiveCount(threadMXBean.getThreadCount())
+                      .setDaemonCount(threadMXBean.getDaemonThreadCount())
+                      .setPeakCount(threadMXBean.getPeakThreadCount())
+                      .setRunnableStateThreadCount(stateCounter.runnableCount)
+                      .setBlockedStateThreadCount(stateCounter.blockedCount)
+                      .setWaitingStateThreadCount(stateCounter.waitingCount)
+                      .setTimedWaitingStateThreadCount(stateCounter.timedWaitingCount)
+                      .build();
     }
 
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.jvm.thread;
+
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Counts the live threads by state. The threads are enumerated from the root thread group into a reused array and
+ * their states are read by {@link Thread#getState()}, which neither stops the JVM at a safepoint nor allocates a
+ * {@link ThreadInfo} per thread, as {@link ThreadMXBean#getThreadInfo(long[], int)} does. The thread MXBean is used
+ * when the thread groups can't be walked.
+ */
+class ThreadStateCounter {
+    private final ThreadMXBean threadMXBean;
+    private final ThreadGroup rootGroup;
+    private Thread[] threads = new Thread[64];
+    private boolean threadGroupAccessible = true;
+
+    int runnableCount;
+    int blockedCount;
+    int waitingCount;
+    int timedWaitingCount;
+
+    ThreadStateCounter(ThreadMXBean threadMXBean) {
+        this.threadMXBean = threadMXBean;
+        ThreadGroup group = Thread.currentThread().getThreadGroup();
+        while (group != null && group.getParent() != null) {
+            group = group.getParent();
+        }
+        this.rootGroup = group;
+    }
+
+    void count() {
+        if (threadGroupAccessible && rootGroup != null) {
+            try {
+                countByThreadGroup();
+                return;
+            } catch (SecurityException e) {
+                threadGroupAccessible = false;
+            }
+        }
+        countByThreadInfo();
+    }
+
+    void countByThreadGroup() {
+        int size;
+        // enumerate silently drops the threads which don't fit, so retry with a larger array until some room is left.
+        while ((size = rootGroup.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
+        }
+        reset();
+        for (int i = 0; i < size; i++) {
+            add(threads[i].getState());
+        }
+        // Don't keep the finished threads reachable until the next cycle.
+        Arrays.fill(threads, 0, size, null);
+    }
+
+    void countByThreadInfo() {
+        reset();
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), 0);
+        if (threadInfos != null) {
+            for (ThreadInfo threadInfo : threadInfos) {
+                if (threadInfo != null) {
+                    add(threadInfo.getThreadState());
+                }
+            }
+        }
+    }
+
+    private void reset() {
+        runnableCount = 0;
+        blockedCount = 0;
+        waitingCount = 0;
+        timedWaitingCount = 0;
+    }
+
+    private void add(Thread.State state) {
+        switch (state) {
+            case RUNNABLE:
+                runnableCount++;
+                break;
+            case BLOCKED:
+                blockedCount++;
+                break;
+            case WAITING:
+                waitingCount++;
+                break;
+            case TIMED_WAITING:
+                timedWaitingCount++;
+                break;
+            default:
+                break;
+        }
+    }
+}
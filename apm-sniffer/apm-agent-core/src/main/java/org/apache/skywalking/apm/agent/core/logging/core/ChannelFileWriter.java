@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The <code>ChannelFileWriter</code> is the async file output encoding the queued logs into a reused direct buffer,
+ * which is written into a {@link FileChannel} once it is full, or once its oldest log has waited {@link
+ * Config.Logging#MAX_FLUSH_LATENCY} milliseconds. A log not fitting into the rest of the buffer is written together
+ * with the buffered ones by one gathering write. The file is archived when the channel position is over {@link
+ * Config.Logging#MAX_FILE_SIZE}.
+ */
+public class ChannelFileWriter implements IWriter {
+    private static ChannelFileWriter INSTANCE;
+    private static final Object CREATE_LOCK = new Object();
+
+    private final ArrayBlockingQueue<String> logBuffer;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final long maxFlushLatencyNanos;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer encoded = ByteBuffer.allocate(4096);
+    private final ByteBuffer buffer;
+    private final ByteBuffer lineSeparator;
+    private final ByteBuffer[] bufferedOnly;
+    private final ByteBuffer[] gatheringBuffers = new ByteBuffer[3];
+    private FileChannel channel;
+    private long oldestBufferedTime;
+
+    public static ChannelFileWriter get() {
+        if (INSTANCE == null) {
+            synchronized (CREATE_LOCK) {
+                if (INSTANCE == null) {
+                    ChannelFileWriter writer = new ChannelFileWriter(
+                        Config.Logging.QUEUE_SIZE, Config.Logging.BUFFER_SIZE, Config.Logging.MAX_FLUSH_LATENCY);
+                    writer.start();
+                    INSTANCE = writer;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    ChannelFileWriter(int queueSize, int bufferSize, long maxFlushLatencyMillis) {
+        logBuffer = new ArrayBlockingQueue<String>(Math.max(1, queueSize));
+        maxFlushLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxFlushLatencyMillis));
+        // the same replacement as String#getBytes, used by the FileWriter
+        Charset charset = Charset.defaultCharset();
+        encoder = charset.newEncoder()
+                         .onMalformedInput(CodingErrorAction.REPLACE)
+                         .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        buffer = ByteBuffer.allocateDirect(Math.max(1024, bufferSize));
+        byte[] separator = Constants.LINE_SEPARATOR.getBytes(charset);
+        lineSeparator = ByteBuffer.allocateDirect(separator.length);
+        lineSeparator.put(separator).flip();
+        bufferedOnly = new ByteBuffer[] {buffer};
+    }
+
+    void start() {
+        Thread logFlusherThread = new Thread(new RunnableWithExceptionProtection(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        String log = nextLog();
+                        if (log == null) {
+                            flush();
+                        } else {
+                            append(log);
+                        }
+                    } catch (InterruptedException e) {
+                    }
+                }
+            }
+        }, new RunnableWithExceptionProtection.CallbackWhenException() {
+            @Override
+            public void handle(Throwable t) {
+            }
+        }), "SkywalkingAgent-LogChannelWriter");
+        logFlusherThread.setDaemon(true);
+        logFlusherThread.start();
+    }
+
+    /**
+     * @return the next queued log, or null once the buffered logs are due to be flushed.
+     */
+    private String nextLog() throws InterruptedException {
+        if (buffer.position() == 0) {
+            return logBuffer.take();
+        }
+        long waitNanos = oldestBufferedTime + maxFlushLatencyNanos - System.nanoTime();
+        return waitNanos > 0 ? logBuffer.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+    }
+
+    void append(String log) {
+        if (buffer.position() == 0) {
+            oldestBufferedTime = System.nanoTime();
+        }
+        ByteBuffer bytes = encode(log);
+        if (bytes == null) {
+            return;
+        }
+        if (buffer.remaining() >= bytes.remaining() + lineSeparator.remaining()) {
+            buffer.put(bytes).put(lineSeparator);
+            lineSeparator.rewind();
+            return;
+        }
+
+        buffer.flip();
+        gatheringBuffers[0] = buffer;
+        gatheringBuffers[1] = bytes;
+        gatheringBuffers[2] = lineSeparator;
+        writeToChannel(gatheringBuffers);
+        gatheringBuffers[1] = null;
+    }
+
+    /**
+     * The encoder loops over the chars of a heap buffer much faster than putting them one by one into the direct
+     * buffer, so the log is encoded into the reused heap buffer and copied in bulk. A log over that buffer is encoded
+     * into a new one.
+     *
+     * @return the encoded log, or null if it failed to be encoded.
+     */
+    private ByteBuffer encode(String log) {
+        CharBuffer chars = CharBuffer.wrap(log);
+        encoded.clear();
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, encoded, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(encoded);
+        }
+        if (!result.isOverflow()) {
+            encoded.flip();
+            return encoded;
+        }
+        try {
+            chars.rewind();
+            return encoder.encode(chars);
+        } catch (CharacterCodingException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    void flush() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeToChannel(bufferedOnly);
+    }
+
+    /**
+     * Write the buffers out, clear the log buffer and archive the file once it is over the max size.
+     */
+    private void writeToChannel(ByteBuffer[] buffers) {
+        try {
+            if (prepareChannel()) {
+                ByteBuffer last = buffers[buffers.length - 1];
+                do {
+                    channel.write(buffers);
+                }
+                while (last.hasRemaining());
+                if (channel.position() > Config.Logging.MAX_FILE_SIZE) {
+                    switchFile();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeChannel();
+        } finally {
+            buffer.clear();
+            lineSeparator.rewind();
+        }
+    }
+
+    private void switchFile() {
+        closeChannel();
+        LogFileArchiver.archive();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * @return true if the channel is opened.
+     */
+    private boolean prepareChannel() {
+        if (channel != null) {
+            return true;
+        }
+        File logFilePath = new File(Config.Logging.DIR);
+        if (!logFilePath.exists()) {
+            logFilePath.mkdirs();
+        } else if (!logFilePath.isDirectory()) {
+            System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
+        }
+        try {
+            channel = FileChannel.open(
+                new File(logFilePath, Config.Logging.FILE_NAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+            );
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return channel != null;
+    }
+
+    /**
+     * @return the number of the logs dropped as the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Write log to the queue, or drop it and count the drop when the queue is full.
+     *
+     * @param message to log
+     */
+    @Override
+    public void write(String message) {
+        if (!logBuffer.offer(message)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+}
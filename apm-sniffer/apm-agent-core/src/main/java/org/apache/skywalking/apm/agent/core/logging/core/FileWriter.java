@@ -25,17 +25,11 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FilenameFilter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 /**
  * The <code>FileWriter</code> support async file output, by using a queue as buffer.
@@ -46,7 +40,6 @@ public class FileWriter implements IWriter {
     private FileOutputStream fileOutputStream;
     private ArrayBlockingQueue logBuffer;
     private volatile int fileSize;
-    private Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
 
     public static FileWriter get() {
         if (INSTANCE == null) {
@@ -104,7 +97,7 @@ public class FileWriter implements IWriter {
     /**
      * @param message to be written into the file.
      */
-    private void writeToFile(String message) {
+    void writeToFile(String message) {
         if (prepareWriteStream()) {
             try {
                 fileOutputStream.write(message.getBytes());
@@ -136,60 +129,17 @@ public class FileWriter implements IWriter {
             forceExecute(new Callable() {
                 @Override
                 public Object call() throws Exception {
-                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
-                        .format(new Date())));
+                    fileOutputStream = null;
                     return null;
                 }
             });
             forceExecute(new Callable() {
                 @Override
                 public Object call() throws Exception {
-                    fileOutputStream = null;
+                    LogFileArchiver.archive();
                     return null;
                 }
             });
-
-            if (Config.Logging.MAX_HISTORY_FILES > 0) {
-                deleteExpiredFiles();
-            }
-        }
-    }
-
-    /**
-     * load history log file name array
-     *
-     * @return history log file name array
-     */
-    private String[] getHistoryFilePath() {
-        File path = new File(Config.Logging.DIR);
-        String[] pathArr = path.list(new FilenameFilter() {
-            @Override
-            public boolean accept(File dir, String name) {
-                return filenamePattern.matcher(name).matches();
-            }
-        });
-
-        return pathArr;
-    }
-
-    /**
-     * delete expired log files
-     */
-    private void deleteExpiredFiles() {
-        String[] historyFileArr = getHistoryFilePath();
-        if (historyFileArr != null && historyFileArr.length > Config.Logging.MAX_HISTORY_FILES) {
-
-            Arrays.sort(historyFileArr, new Comparator<String>() {
-                @Override
-                public int compare(String o1, String o2) {
-                    return o2.compareTo(o1);
-                }
-            });
-
-            for (int i = Config.Logging.MAX_HISTORY_FILES; i < historyFileArr.length; i++) {
-                File expiredFile = new File(Config.Logging.DIR, historyFileArr[i]);
-                expiredFile.delete();
-            }
         }
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+/**
+ * The rollover of the agent log file shared by the file writers: the closed file is renamed with its archive time,
+ * and the oldest archives beyond {@link Config.Logging#MAX_HISTORY_FILES} are deleted.
+ */
+final class LogFileArchiver {
+
+    private LogFileArchiver() {
+    }
+
+    /**
+     * Archive the current log file, which must have been closed by the writer.
+     */
+    static void archive() {
+        new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
+            .format(new Date())));
+        if (Config.Logging.MAX_HISTORY_FILES > 0) {
+            deleteExpiredFiles();
+        }
+    }
+
+    /**
+     * load history log file name array
+     *
+     * @return history log file name array
+     */
+    private static String[] getHistoryFilePath() {
+        final Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
+        File path = new File(Config.Logging.DIR);
+        return path.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return filenamePattern.matcher(name).matches();
+            }
+        });
+    }
+
+    /**
+     * delete expired log files
+     */
+    private static void deleteExpiredFiles() {
+        String[] historyFileArr = getHistoryFilePath();
+        if (historyFileArr != null && historyFileArr.length > Config.Logging.MAX_HISTORY_FILES) {
+
+            Arrays.sort(historyFileArr, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return o2.compareTo(o1);
+                }
+            });
+
+            for (int i = Config.Logging.MAX_HISTORY_FILES; i < historyFileArr.length; i++) {
+                File expiredFile = new File(Config.Logging.DIR, historyFileArr[i]);
+                expiredFile.delete();
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.List;
 import java.util.Objects;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.network.language.agent.v3.Label;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 
@@ -30,6 +31,13 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 public abstract class BaseMeter {
     protected final MeterId meterId;
 
+    /**
+     * The value of the last report and the successive reports skipped since, to skip the unchanged meter. Only
+     * accessed by the report task.
+     */
+    private Object lastReportedValue;
+    private int skippedReports;
+
     public BaseMeter(MeterId meterId) {
         this.meterId = meterId;
     }
@@ -59,6 +67,46 @@ public abstract class BaseMeter {
      */
     public abstract MeterData.Builder transform();
 
+    /**
+     * Get the value compared with the last report to find whether the meter changed
+     * @return null if the data should always be reported
+     */
+    protected Object reportedValue(MeterData.Builder data) {
+        return data.hasHistogram() ? data.getHistogram().getValuesList() : data.getSingleValue().getValue();
+    }
+
+    /**
+     * @return true if the data is the same as the last report, and the meter hasn't been skipped {@link
+     * #maxSkippedReports()} times in a row yet
+     */
+    final boolean skipUnchanged(MeterData.Builder data) {
+        final Object value = reportedValue(data);
+        if (value != null && value.equals(lastReportedValue) && skippedReports < maxSkippedReports()) {
+            skippedReports++;
+            return true;
+        }
+        lastReportedValue = value;
+        skippedReports = 0;
+        return false;
+    }
+
+    /**
+     * Forget the last reported value, as the report carrying it failed, so the meter is reported again next time.
+     */
+    final void resetReported() {
+        lastReportedValue = null;
+        skippedReports = 0;
+    }
+
+    /**
+     * @return {@link Config.Meter#MAX_SKIPPED_REPORTS}, capped to report the meter at least once a minute, otherwise
+     * the backend, aggregating the meters by minute, has no value of the meter in the skipped minutes.
+     */
+    static int maxSkippedReports() {
+        final int reportsPerMinute = 60 / Math.max(1, Config.Meter.REPORT_INTERVAL);
+        return Math.max(0, Math.min(Config.Meter.MAX_SKIPPED_REPORTS, reportsPerMinute - 1));
+    }
+
     /**
      * Transform all tags to gRPC message
      */
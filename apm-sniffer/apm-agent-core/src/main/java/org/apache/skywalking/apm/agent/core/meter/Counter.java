@@ -75,6 +75,19 @@ public class Counter extends BaseMeter {
         return builder;
     }
 
+    /**
+     * The rate mode reports the increase, which may be the same for every report while the counter moves, so it's
+     * only compared when it's zero.
+     */
+    @Override
+    protected Object reportedValue(MeterData.Builder data) {
+        final double value = data.getSingleValue().getValue();
+        if (Objects.equals(mode, CounterMode.RATE) && value != 0) {
+            return null;
+        }
+        return value;
+    }
+
     /**
      * Counter mode
      */
@@ -19,10 +19,8 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
@@ -32,9 +30,13 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
  * Histogram represents the distribution of data. It includes the buckets representing continuous ranges of values, with
  * the num of collected values in every specific range. The ranges could start from any value(default 0) to positive
  * infinitive. They can be set through the constructor and immutable after that.
+ * <p>
+ * The counts of all buckets are kept in a {@link StripedLongArray}, so the threads adding values at the same time don't
+ * fight for the same cache lines. They are merged only in {@link #transform()}.
  */
 public class Histogram extends BaseMeter {
     protected final Bucket[] buckets;
+    protected final StripedLongArray counts;
 
     /**
      * @param meterId as the unique id of this meter instance
@@ -43,24 +45,27 @@ public class Histogram extends BaseMeter {
     public Histogram(MeterId meterId, List<Double> steps) {
         super(meterId);
         this.buckets = initBuckets(steps);
+        this.counts = new StripedLongArray(buckets.length);
     }
 
     /**
      * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
      */
     public void addValue(double value) {
-        Bucket bucket = findBucket(value);
-        if (bucket == null) {
+        int index = findBucket(value);
+        if (index < 0) {
             return;
         }
 
-        bucket.increment(1L);
+        counts.increment(index);
     }
 
     /**
      * Using binary search the bucket
+     *
+     * @return the index of the bucket, or -1 if the value is less than the min value.
      */
-    private Bucket findBucket(double value) {
+    private int findBucket(double value) {
         int low = 0;
         int high = buckets.length - 1;
 
@@ -71,13 +76,13 @@ public class Histogram extends BaseMeter {
             else if (buckets[mid].bucket > value)
                 high = mid - 1;
             else
-                return buckets[mid];
+                return mid;
         }
 
         // because using min value as bucket, need using previous bucket
         low -= 1;
 
-        return low < buckets.length && low >= 0 ? buckets[low] : null;
+        return low < buckets.length && low >= 0 ? low : -1;
     }
 
     private Bucket[] initBuckets(List<Double> steps) {
@@ -89,8 +94,10 @@ public class Histogram extends BaseMeter {
         final MeterData.Builder builder = MeterData.newBuilder();
 
         // get all values
-        List<MeterBucketValue> values = Arrays.stream(buckets)
-                                              .map(Histogram.Bucket::transform).collect(Collectors.toList());
+        List<MeterBucketValue> values = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            values.add(buckets[i].transform(counts.sum(i)));
+        }
 
         return builder.setHistogram(MeterHistogram.newBuilder()
                                                   .setName(getName())
@@ -157,20 +164,15 @@ public class Histogram extends BaseMeter {
      */
     protected static class Bucket {
         protected double bucket;
-        protected AtomicLong count = new AtomicLong();
 
         public Bucket(double bucket) {
             this.bucket = bucket;
         }
 
-        public void increment(long count) {
-            this.count.addAndGet(count);
-        }
-
-        public MeterBucketValue transform() {
+        public MeterBucketValue transform(long count) {
             return MeterBucketValue.newBuilder()
                                    .setBucket(bucket)
-                                   .setCount(count.get())
+                                   .setCount(count)
                                    .build();
         }
 
@@ -22,8 +22,11 @@ import io.grpc.Channel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
@@ -65,7 +68,16 @@ public class MeterSender implements BootService, GRPCChannelListener {
         if (status == GRPCChannelStatus.CONNECTED) {
             StreamObserver<MeterData> reportStreamObserver = null;
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+            final AtomicBoolean failed = new AtomicBoolean();
             try {
+                // transform first, as no stream is opened when every meter is skipped
+                final List<MeterData> meterDataList = new ArrayList<>(meterMap.size());
+                transform(meterMap, meterDataList::add);
+                if (meterDataList.isEmpty()) {
+                    status.finished();
+                    return;
+                }
+
                 reportStreamObserver = meterReportServiceStub.withDeadlineAfter(
                     GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
                 ).collect(new StreamObserver<Commands>() {
@@ -75,6 +87,7 @@ public class MeterSender implements BootService, GRPCChannelListener {
 
                     @Override
                     public void onError(Throwable throwable) {
+                        failed.set(true);
                         status.finished();
                         if (LOGGER.isErrorEnable()) {
                             LOGGER.error(throwable, "Send meters to collector fail with a grpc internal exception.");
@@ -88,9 +101,11 @@ public class MeterSender implements BootService, GRPCChannelListener {
                     }
                 });
 
-                final StreamObserver<MeterData> reporter = reportStreamObserver;
-                transform(meterMap, meterData -> reporter.onNext(meterData));
+                for (MeterData meterData : meterDataList) {
+                    reportStreamObserver.onNext(meterData);
+                }
             } catch (Throwable e) {
+                failed.set(true);
                 if (!(e instanceof StatusRuntimeException)) {
                     LOGGER.error(e, "Report meters to backend fail.");
                     return;
@@ -106,6 +121,10 @@ public class MeterSender implements BootService, GRPCChannelListener {
                     reportStreamObserver.onCompleted();
                 }
                 status.wait4Finish();
+                if (failed.get()) {
+                    // the backend may have missed the values marked as reported, don't skip them next time
+                    meterMap.values().forEach(BaseMeter::resetReported);
+                }
             }
         }
     }
@@ -116,7 +135,7 @@ public class MeterSender implements BootService, GRPCChannelListener {
         boolean hasSendMachineInfo = false;
         for (BaseMeter meter : meterMap.values()) {
             final MeterData.Builder dataBuilder = meter.transform();
-            if (dataBuilder == null) {
+            if (dataBuilder == null || Config.Meter.SKIP_UNCHANGED && meter.skipUnchanged(dataBuilder)) {
                 continue;
             }
 
@@ -19,16 +19,15 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
@@ -65,6 +64,15 @@ public class MeterService implements BootService, Runnable {
         return data == null ? meter : (T) data;
     }
 
+    /**
+     * Remove the meter, so it is not reported any more. Another meter registered with the same id is kept.
+     */
+    public void unregister(BaseMeter meter) {
+        if (meter != null) {
+            meterMap.remove(meter.getId(), meter);
+        }
+    }
+
     @Override
     public void prepare() {
         sender = ServiceManager.INSTANCE.findService(MeterSender.class);
@@ -73,12 +81,12 @@ public class MeterService implements BootService, Runnable {
     @Override
     public void boot() {
         if (Config.Meter.ACTIVE) {
-            reportMeterFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("MeterReportService")
-            ).scheduleWithFixedDelay(new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("Report meters failure.", t)
-            ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
+            reportMeterFuture = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleBlockingWithFixedDelay(
+                "MeterReportService",
+                new RunnableWithExceptionProtection(
+                    this,
+                    t -> LOGGER.error("Report meters failure.", t)
+                ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
         }
     }
 
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed length array of long counters, striped by thread in the spirit of {@link
+ * java.util.concurrent.atomic.LongAdder}. Every stripe is a padded row holding all the counters, so the threads mapped
+ * to different stripes never write the same cache line, and a histogram costs one row per stripe rather than one
+ * adder per bucket.
+ * <p>
+ * It starts with one stripe, which costs the same as an {@link AtomicLongArray} when there is no contention. Every
+ * failed CAS doubles the stripes, up to the number of CPUs. The rows are never dropped, so the counts added before a
+ * growth are kept. The sums are merged only when read, and are only exact when no update is in progress, which is good
+ * enough for the periodic report.
+ * <p>
+ * A thread picks its stripe by a probe of its own, seeded by its id. Like the probe of {@link
+ * java.util.concurrent.atomic.LongAdder}, it is rehashed on every failed CAS, so two threads colliding on one stripe
+ * move apart rather than staying together for their whole life.
+ */
+public class StripedLongArray {
+    /**
+     * 8 unused longs, a cache line, ahead of and behind the counters of a row.
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPES = maxStripes();
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The stripe probe of the current thread, only read once the array has more than one stripe.
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+        () -> new int[] {initialProbe(Thread.currentThread().getId())});
+
+    private final int length;
+    private volatile AtomicLongArray[] stripes;
+
+    public StripedLongArray(int length) {
+        this.length = length;
+        this.stripes = new AtomicLongArray[] {newRow()};
+    }
+
+    public void increment(int index) {
+        add(index, 1L);
+    }
+
+    public void add(int index, long delta) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+        final int offset = index + PADDING;
+        AtomicLongArray[] rows = stripes;
+        int[] probe = rows.length == 1 ? null : PROBE.get();
+        AtomicLongArray row = rows[probe == null ? 0 : stripeOf(probe[0], rows.length)];
+        long value = row.get(offset);
+        if (row.compareAndSet(offset, value, value + delta)) {
+            return;
+        }
+        if (rows.length < MAX_STRIPES) {
+            grow(rows);
+            rows = stripes;
+        }
+        if (rows.length > 1) {
+            if (probe == null) {
+                probe = PROBE.get();
+            }
+            // Move to another stripe, for this add and the following ones of the thread.
+            probe[0] = rehash(probe[0]);
+            row = rows[stripeOf(probe[0], rows.length)];
+        }
+        row.getAndAdd(offset, delta);
+    }
+
+    /**
+     * @return the sum of the counter at the index in all stripes.
+     */
+    public long sum(int index) {
+        final int offset = index + PADDING;
+        long sum = 0;
+        for (AtomicLongArray row : stripes) {
+            sum += row.get(offset);
+        }
+        return sum;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private synchronized void grow(AtomicLongArray[] expected) {
+        if (stripes != expected || expected.length >= MAX_STRIPES) {
+            // Grown by another thread already.
+            return;
+        }
+        AtomicLongArray[] rows = Arrays.copyOf(expected, expected.length * 2);
+        for (int i = expected.length; i < rows.length; i++) {
+            rows[i] = newRow();
+        }
+        stripes = rows;
+    }
+
+    private AtomicLongArray newRow() {
+        return new AtomicLongArray(length + PADDING * 2);
+    }
+
+    /**
+     * Take the low bits of the probe, so every growth splits the threads of a stripe by one more bit.
+     */
+    private static int stripeOf(int probe, int stripeCount) {
+        return probe & (stripeCount - 1);
+    }
+
+    /**
+     * The high bits of the Fibonacci hash of the thread id, so the consecutive ids start on different stripes. Never 0,
+     * which {@link #rehash(int)} would keep.
+     */
+    static int initialProbe(long threadId) {
+        int probe = (int) ((threadId * HASH_MULTIPLIER) >>> 32);
+        return probe == 0 ? 1 : probe;
+    }
+
+    /**
+     * Marsaglia xorshift, as {@link java.util.concurrent.ThreadLocalRandom} advances the probe of {@link
+     * java.util.concurrent.atomic.LongAdder}.
+     */
+    static int rehash(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+    private static int maxStripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Math.min(64, cpus <= 1 ? 1 : Integer.highestOneBit(cpus - 1) << 1);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.plugin;
 
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
@@ -173,6 +174,28 @@ public abstract class AbstractClassEnhancePluginDefine {
         return null;
     }
 
+    /**
+     * Whether the instance method interceptors of this plugin are inlined into the target methods by byte-buddy advice,
+     * instead of being called through method delegation. The interceptors work the same in both modes, the inlined one
+     * saves the per call delegation, the origin call {@code Callable} and the reflective method lookup.
+     * <p>
+     * Only the instance methods declared by the target class and without overriding arguments are inlined, the others
+     * and the bootstrap classes keep the delegation. Plugins are opted in by {@link Config.Plugin#ADVICE_INTERCEPTION_PLUGINS},
+     * or by overriding this method.
+     */
+    protected boolean isAdviceInterception() {
+        if (isBootstrapInstrumentation() || StringUtil.isEmpty(Config.Plugin.ADVICE_INTERCEPTION_PLUGINS)) {
+            return false;
+        }
+        for (String plugin : Config.Plugin.ADVICE_INTERCEPTION_PLUGINS.split(",")) {
+            String name = plugin.trim();
+            if ("*".equals(name) || name.equalsIgnoreCase(getPluginName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isBootstrapInstrumentation() {
         return false;
     }
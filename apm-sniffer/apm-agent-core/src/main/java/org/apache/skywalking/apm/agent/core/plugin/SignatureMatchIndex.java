@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * Index of the plugins enhancing classes by an {@link IndirectMatch}, built once from their match conditions.
+ * <p>
+ * The class names of {@link MultiClassNameMatch} are looked up in a map. {@link ClassAnnotationMatch} and {@link
+ * HierarchyMatch} are indexed by their first annotation or parent type, so the declared annotations and the type
+ * hierarchy of a class are read once for all plugins, and only the plugins indexed under one of those names are
+ * verified. Other kinds of {@link IndirectMatch}, including the ones defined by plugins, keep their own matching.
+ * <p>
+ * The matched plugins are always returned in their original order.
+ */
+class SignatureMatchIndex {
+    private final List<AbstractClassEnhancePluginDefine> defines;
+
+    private final Map<String, List<Integer>> byClassName = new HashMap<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Integer> prefixOwners = new ArrayList<>();
+    private final Map<String, List<Integer>> byAnnotation = new HashMap<>();
+    private final Map<String, List<Integer>> byParentType = new HashMap<>();
+    private final List<Integer> unindexed = new ArrayList<>();
+    /**
+     * The required annotations or parent types of the plugin at the same position, for verification.
+     */
+    private final Set<String>[] requiredNames;
+
+    @SuppressWarnings("unchecked")
+    SignatureMatchIndex(List<AbstractClassEnhancePluginDefine> defines) {
+        this.defines = defines;
+        this.requiredNames = new Set[defines.size()];
+        for (int i = 0; i < defines.size(); i++) {
+            IndirectMatch match = (IndirectMatch) defines.get(i).enhanceClass();
+            if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                    addTo(byClassName, className, i);
+                }
+            } else if (match instanceof PrefixMatch) {
+                for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                    prefixes.add(prefix);
+                    prefixOwners.add(i);
+                }
+            } else if (match instanceof ClassAnnotationMatch) {
+                String[] annotations = ((ClassAnnotationMatch) match).getAnnotations();
+                requiredNames[i] = new HashSet<>(Arrays.asList(annotations));
+                addTo(byAnnotation, annotations[0], i);
+            } else if (match instanceof HierarchyMatch) {
+                String[] parentTypes = ((HierarchyMatch) match).getParentTypes();
+                requiredNames[i] = new HashSet<>(Arrays.asList(parentTypes));
+                addTo(byParentType, parentTypes[0], i);
+            } else {
+                unindexed.add(i);
+            }
+        }
+    }
+
+    /**
+     * @return the plugins of which the match condition can't be indexed.
+     */
+    List<AbstractClassEnhancePluginDefine> getUnindexed() {
+        List<AbstractClassEnhancePluginDefine> result = new ArrayList<>(unindexed.size());
+        for (Integer i : unindexed) {
+            result.add(defines.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return true if any indexed plugin matches the type.
+     */
+    boolean matchesIndexed(TypeDescription typeDescription) {
+        return !matchIndexed(typeDescription).isEmpty();
+    }
+
+    /**
+     * @return all plugins matching the type, in their original order.
+     */
+    List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+        BitSet matched = matchIndexed(typeDescription);
+        for (Integer i : unindexed) {
+            if (((IndirectMatch) defines.get(i).enhanceClass()).isMatch(typeDescription)) {
+                matched.set(i);
+            }
+        }
+        if (matched.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<AbstractClassEnhancePluginDefine> result = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            result.add(defines.get(i));
+        }
+        return result;
+    }
+
+    private BitSet matchIndexed(TypeDescription typeDescription) {
+        BitSet matched = new BitSet(defines.size());
+        if (!byClassName.isEmpty()) {
+            List<Integer> owners = byClassName.get(typeDescription.getTypeName());
+            if (owners != null) {
+                owners.forEach(matched::set);
+            }
+        }
+        if (!prefixes.isEmpty()) {
+            String name = typeDescription.getName();
+            for (int i = 0; i < prefixes.size(); i++) {
+                if (name.startsWith(prefixes.get(i))) {
+                    matched.set(prefixOwners.get(i));
+                }
+            }
+        }
+        if (!byAnnotation.isEmpty()) {
+            Set<String> annotations = new HashSet<>();
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                annotations.add(annotation.getAnnotationType().getActualName());
+            }
+            verify(byAnnotation, annotations, matched);
+        }
+        if (!byParentType.isEmpty()) {
+            Set<String> parentTypes = new HashSet<>();
+            for (TypeDescription.Generic implInterface : typeDescription.getInterfaces()) {
+                collectHierarchy(implInterface, parentTypes);
+            }
+            if (typeDescription.getSuperClass() != null) {
+                collectHierarchy(typeDescription.getSuperClass(), parentTypes);
+            }
+            verify(byParentType, parentTypes, matched);
+        }
+        return matched;
+    }
+
+    private void verify(Map<String, List<Integer>> index, Set<String> names, BitSet matched) {
+        for (String name : names) {
+            List<Integer> owners = index.get(name);
+            if (owners == null) {
+                continue;
+            }
+            for (Integer i : owners) {
+                if (names.containsAll(requiredNames[i])) {
+                    matched.set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the raw names of the type, its interfaces and super classes, in the same way as {@link
+     * HierarchyMatch#isMatch(TypeDescription)} walks them.
+     */
+    private static void collectHierarchy(TypeDefinition type, Set<String> names) {
+        if (!names.add(type.asErasure().getTypeName())) {
+            return;
+        }
+        for (TypeDescription.Generic generic : type.getInterfaces()) {
+            collectHierarchy(generic, names);
+        }
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null && !type.getTypeName().equals("java.lang.Object")) {
+            collectHierarchy(superClass, names);
+        }
+    }
+
+    private static void addTo(Map<String, List<Integer>> index, String name, int i) {
+        index.computeIfAbsent(name, key -> new ArrayList<>(1)).add(i);
+    }
+}
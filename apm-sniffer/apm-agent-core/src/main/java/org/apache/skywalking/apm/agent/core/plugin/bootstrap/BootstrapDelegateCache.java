@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.bootstrap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Keeps the generated bootstrap delegate classes on disk, so the following runs of the agent read them rather than
+ * generating them again. Every file name carries the fingerprint of the template, the plugin and the interceptor the
+ * class was generated from, so a class generated by another version of the agent or the plugin is never read.
+ * <p>
+ * The cached classes are injected into the bootstrap class loader, so the folder must be writable by the user of the
+ * JVM only. It is created with the owner permissions only, and an existing folder, or file, writable by the group or
+ * the others is not used.
+ * <p>
+ * Every file starts with the SHA-256 digest of the class it holds, checked before the class is handed to the bootstrap
+ * class loader. It is a corruption check only, so a truncated or partially written file is generated again rather
+ * than loaded. It doesn't protect from anyone able to write the folder, who could replace the digest too.
+ */
+class BootstrapDelegateCache {
+    private static final ILog LOGGER = LogManager.getLogger(BootstrapDelegateCache.class);
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int DIGEST_LENGTH = 32;
+
+    private final File folder;
+
+    private BootstrapDelegateCache(File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @param path of the cache folder, relative to the agent folder when it isn't absolute
+     * @return null if the path is blank, the folder can't be created, or it is writable by the group or the others
+     */
+    static BootstrapDelegateCache of(String path) {
+        if (StringUtil.isBlank(path)) {
+            return null;
+        }
+        File folder = new File(path);
+        if (!folder.isAbsolute()) {
+            try {
+                folder = new File(AgentPackagePath.getPath(), path);
+            } catch (AgentPackageNotFoundException e) {
+                LOGGER.error(e, "Can't find the agent folder for the bootstrap delegate cache {}.", path);
+                return null;
+            }
+        }
+        if (!folder.isDirectory() && !createOwnerOnly(folder)) {
+            LOGGER.warn("Can't create the bootstrap delegate cache folder {}.", folder);
+            return null;
+        }
+        if (isWritableByOthers(folder.toPath())) {
+            LOGGER.warn(
+                "The bootstrap delegate cache folder {} is writable by the group or the others, it isn't used.", folder);
+            return null;
+        }
+        return new BootstrapDelegateCache(folder);
+    }
+
+    /**
+     * @return the cached class, or null if it isn't cached, is writable by the group or the others, or doesn't match
+     * its digest
+     */
+    byte[] load(String className, long fingerprint) {
+        File file = fileOf(className, fingerprint);
+        if (!file.isFile()) {
+            return null;
+        }
+        if (isWritableByOthers(file.toPath())) {
+            LOGGER.warn(
+                "The cached bootstrap delegate {} is writable by the group or the others, generate it again.", file);
+            file.delete();
+            return null;
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            LOGGER.warn(e, "Can't read the cached bootstrap delegate {}.", file);
+            return null;
+        }
+        byte[] classFile = content.length > DIGEST_LENGTH
+            ? Arrays.copyOfRange(content, DIGEST_LENGTH, content.length) : new byte[0];
+        if (classFile.length == 0
+            || !MessageDigest.isEqual(Arrays.copyOf(content, DIGEST_LENGTH), digest(classFile))) {
+            LOGGER.warn("The cached bootstrap delegate {} is corrupted, generate it again.", file);
+            file.delete();
+            return null;
+        }
+        return classFile;
+    }
+
+    /**
+     * Writes the class into a temporary file first and moves it to its name, so the agents of other processes sharing
+     * the folder never read a partial file. The temporary file is readable and writable by the owner only.
+     */
+    void save(String className, long fingerprint, byte[] classFile) {
+        File file = fileOf(className, fingerprint);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(folder.toPath(), className, ".tmp");
+            byte[] content = Arrays.copyOf(digest(classFile), DIGEST_LENGTH + classFile.length);
+            System.arraycopy(classFile, 0, content, DIGEST_LENGTH, classFile.length);
+            Files.write(temp, content);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn(e, "Can't cache the bootstrap delegate {}.", file);
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Creates the folder and its missing parents, the folder itself with the owner permissions only.
+     */
+    private static boolean createOwnerOnly(File folder) {
+        File parent = folder.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            return false;
+        }
+        if (!folder.mkdir()) {
+            return folder.isDirectory();
+        }
+        Path path = folder.toPath();
+        try {
+            if (Files.getFileAttributeView(path, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwx------"));
+                return true;
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "Can't restrict the permissions of the bootstrap delegate cache folder {}.", folder);
+            return false;
+        }
+        // Not a POSIX file system, such as Windows, only the owner flags are available.
+        return folder.setReadable(false, false) && folder.setReadable(true, true)
+            && folder.setWritable(false, false) && folder.setWritable(true, true)
+            && folder.setExecutable(false, false) && folder.setExecutable(true, true);
+    }
+
+    /**
+     * @return true if the POSIX permissions of the path let the group or the others write it. Always false on the
+     * file systems without POSIX permissions.
+     */
+    static boolean isWritableByOthers(Path path) {
+        if (Files.getFileAttributeView(path, PosixFileAttributeView.class) == null) {
+            return false;
+        }
+        try {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+            return permissions.contains(PosixFilePermission.GROUP_WRITE)
+                || permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static byte[] digest(byte[] classFile) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(classFile);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    File fileOf(String className, long fingerprint) {
+        return new File(folder, className + "-" + Long.toHexString(fingerprint) + ".class");
+    }
+}
@@ -22,10 +22,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.instrument.Instrumentation;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
@@ -33,6 +37,7 @@ import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassInjector;
 import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
@@ -47,6 +52,7 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethod
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
+import org.apache.skywalking.apm.agent.core.version.Version;
 
 import static net.bytebuddy.matcher.ElementMatchers.named;
 
@@ -87,18 +93,44 @@ public class BootstrapInstrumentBoost {
     private static String STATIC_METHOD_V2_DELEGATE_TEMPLATE = "org.apache.skywalking.apm.agent.core.plugin.bootstrap.template.v2.StaticMethodInterV2Template";
     private static String STATIC_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE = "org.apache.skywalking.apm.agent.core.plugin.bootstrap.template.v2.StaticMethodInterV2WithOverrideArgsTemplate";
 
+    private static final ClassFileLocator TEMPLATE_LOCATOR = ClassFileLocator.ForClassLoader.of(
+        BootstrapInstrumentBoost.class.getClassLoader());
+    private static final TypePool TEMPLATE_POOL = TypePool.Default.of(TEMPLATE_LOCATOR);
+
+    /**
+     * The delegates not injected yet, in the lazy injection mode.
+     */
+    private static final Map<String, Delegator> PENDING_DELEGATES = new ConcurrentHashMap<>();
+    private static volatile ClassInjector BOOTSTRAP_INJECTOR;
+    private static volatile BootstrapDelegateCache DELEGATE_CACHE;
+
     public static AgentBuilder inject(PluginFinder pluginFinder, Instrumentation instrumentation,
         AgentBuilder agentBuilder, JDK9ModuleExporter.EdgeClasses edgeClasses) throws PluginException {
-        Map<String, byte[]> classesTypeMap = new LinkedHashMap<>();
+        Map<String, Delegator> delegators = new LinkedHashMap<>();
 
-        if (!prepareJREInstrumentation(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentation(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
-        if (!prepareJREInstrumentationV2(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentationV2(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
+        Map<String, byte[]> classesTypeMap = new LinkedHashMap<>();
+        DELEGATE_CACHE = BootstrapDelegateCache.of(Config.Plugin.BOOTSTRAP_DELEGATE_CACHE_PATH);
+        if (Config.Plugin.BOOTSTRAP_DELEGATE_LAZY_INJECTION) {
+            /*
+             * The delegates are generated and injected by forInternalDelegateClass, when their target classes are
+             * transformed. They live in the same unnamed module of the bootstrap class loader as the ByteBuddy core
+             * classes, so the read edges opened for those cover the delegates too.
+             */
+            PENDING_DELEGATES.putAll(delegators);
+        } else {
+            for (Delegator delegator : delegators.values()) {
+                classesTypeMap.put(delegator.internalInterceptorName, delegateClassFile(delegator));
+            }
+        }
+
         for (String highPriorityClass : HIGH_PRIORITY_CLASSES) {
             loadHighPriorityClass(classesTypeMap, highPriorityClass);
         }
@@ -118,7 +150,8 @@ public class BootstrapInstrumentBoost {
          * ByteBuddy adapts the sun.misc.Unsafe and jdk.internal.misc.Unsafe automatically.
          */
         ClassInjector.UsingUnsafe.Factory factory = ClassInjector.UsingUnsafe.Factory.resolve(instrumentation);
-        factory.make(null, null).injectRaw(classesTypeMap);
+        BOOTSTRAP_INJECTOR = factory.make(null, null);
+        BOOTSTRAP_INJECTOR.injectRaw(classesTypeMap);
         agentBuilder = agentBuilder.with(new AgentBuilder.InjectionStrategy.UsingUnsafe.OfFactory(factory));
 
         return agentBuilder;
@@ -141,36 +174,39 @@ public class BootstrapInstrumentBoost {
      * @return generated delegate class
      */
     public static Class forInternalDelegateClass(String methodsInterceptor) {
+        String internalInterceptorName = internalDelegate(methodsInterceptor);
+        if (!PENDING_DELEGATES.isEmpty()) {
+            injectOnDemand(internalInterceptorName);
+        }
         try {
-            return Class.forName(internalDelegate(methodsInterceptor));
+            return Class.forName(internalInterceptorName);
         } catch (ClassNotFoundException e) {
             throw new PluginException(e.getMessage(), e);
         }
     }
 
     /**
-     * Generate dynamic delegate for ByteBuddy
+     * Find the dynamic delegates to generate for ByteBuddy
      *
-     * @param pluginFinder   gets the whole plugin list.
-     * @param classesTypeMap hosts the class binary.
+     * @param pluginFinder gets the whole plugin list.
+     * @param delegators   hosts the delegates to generate.
      * @return true if have JRE instrumentation requirement.
      * @throws PluginException when generate failure.
      */
     private static boolean prepareJREInstrumentation(PluginFinder pluginFinder,
-        Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+        Map<String, Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptPoints())) {
                 for (InstanceMethodsInterceptPoint point : define.getInstanceMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     }
@@ -179,8 +215,8 @@ public class BootstrapInstrumentBoost {
 
             if (Objects.nonNull(define.getConstructorsInterceptPoints())) {
                 for (ConstructorInterceptPoint point : define.getConstructorsInterceptPoints()) {
-                    generateDelegator(
-                        classesTypeMap, typePool, define.getPluginName(),
+                    registerDelegator(
+                        delegators, define.getPluginName(),
                         CONSTRUCTOR_DELEGATE_TEMPLATE, point.getConstructorInterceptor()
                     );
                 }
@@ -189,13 +225,13 @@ public class BootstrapInstrumentBoost {
             if (Objects.nonNull(define.getStaticMethodsInterceptPoints())) {
                 for (StaticMethodsInterceptPoint point : define.getStaticMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     }
@@ -206,20 +242,19 @@ public class BootstrapInstrumentBoost {
     }
 
     private static boolean prepareJREInstrumentationV2(PluginFinder pluginFinder,
-                                                       Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+                                                       Map<String, Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptV2Points())) {
                 for (InstanceMethodsInterceptV2Point point : define.getInstanceMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     }
@@ -229,13 +264,13 @@ public class BootstrapInstrumentBoost {
             if (Objects.nonNull(define.getStaticMethodsInterceptV2Points())) {
                 for (StaticMethodsInterceptV2Point point : define.getStaticMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        registerDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     }
@@ -245,39 +280,98 @@ public class BootstrapInstrumentBoost {
         return bootstrapClassMatchDefines.size() > 0;
     }
 
+    private static void registerDelegator(Map<String, Delegator> delegators, String pluginName,
+        String templateClassName, String methodsInterceptor) {
+        Delegator delegator = new Delegator(pluginName, templateClassName, methodsInterceptor);
+        delegators.put(delegator.internalInterceptorName, delegator);
+    }
+
+    /**
+     * Generate and inject the delegate into the bootstrap class loader, if it is pending.
+     */
+    private static void injectOnDemand(String internalInterceptorName) {
+        if (!PENDING_DELEGATES.containsKey(internalInterceptorName)) {
+            return;
+        }
+        synchronized (PENDING_DELEGATES) {
+            Delegator delegator = PENDING_DELEGATES.get(internalInterceptorName);
+            if (delegator == null) {
+                return;
+            }
+            BOOTSTRAP_INJECTOR.injectRaw(
+                Collections.singletonMap(internalInterceptorName, delegateClassFile(delegator)));
+            PENDING_DELEGATES.remove(internalInterceptorName);
+            LOGGER.debug("Bootstrap delegate {} is injected on demand.", internalInterceptorName);
+        }
+    }
+
+    /**
+     * Read the delegate from the cache, or generate it.
+     */
+    private static byte[] delegateClassFile(Delegator delegator) {
+        if (DELEGATE_CACHE == null) {
+            return generateDelegator(delegator);
+        }
+        long fingerprint = fingerprint(delegator);
+        byte[] classFile = DELEGATE_CACHE.load(delegator.internalInterceptorName, fingerprint);
+        if (classFile == null) {
+            classFile = generateDelegator(delegator);
+            DELEGATE_CACHE.save(delegator.internalInterceptorName, fingerprint, classFile);
+        }
+        return classFile;
+    }
+
     /**
      * Generate the delegator class based on given template class. This is preparation stage level code generation.
      * <p>
      * One key step to avoid class confliction between AppClassLoader and BootstrapClassLoader
      *
-     * @param classesTypeMap    hosts injected binary of generated class
-     * @param typePool          to generate new class
-     * @param templateClassName represents the class as template in this generation process. The templates are
-     *                          pre-defined in SkyWalking agent core.
+     * @param delegator represents the template class in this generation process, the plugin and the interceptor.
+     *                  The templates are pre-defined in SkyWalking agent core.
+     * @return the binary of the generated class
      */
-    private static void generateDelegator(Map<String, byte[]> classesTypeMap, TypePool typePool,
-        String pluginName, String templateClassName, String methodsInterceptor) {
-        String internalInterceptorName = internalDelegate(methodsInterceptor);
+    private static byte[] generateDelegator(Delegator delegator) {
         try {
-            TypeDescription templateTypeDescription = typePool.describe(templateClassName).resolve();
+            TypeDescription templateTypeDescription = TEMPLATE_POOL.describe(delegator.templateClassName).resolve();
 
-            DynamicType.Unloaded interceptorType = new ByteBuddy().redefine(templateTypeDescription, ClassFileLocator.ForClassLoader
-                .of(BootstrapInstrumentBoost.class.getClassLoader()))
-                                                                  .name(internalInterceptorName)
+            DynamicType.Unloaded interceptorType = new ByteBuddy().redefine(templateTypeDescription, TEMPLATE_LOCATOR)
+                                                                  .name(delegator.internalInterceptorName)
                                                                   .field(named("PLUGIN_NAME"))
-                                                                  .value(pluginName)
+                                                                  .value(delegator.pluginName)
                                                                   .field(named("TARGET_INTERCEPTOR"))
-                                                                  .value(methodsInterceptor)
+                                                                  .value(delegator.methodsInterceptor)
                                                                   .make();
 
-            classesTypeMap.put(internalInterceptorName, interceptorType.getBytes());
-
             InstrumentDebuggingClass.INSTANCE.log(interceptorType);
+
+            return interceptorType.getBytes();
         } catch (Exception e) {
             throw new PluginException("Generate Dynamic plugin failure", e);
         }
     }
 
+    /**
+     * The fingerprint of everything the delegate is generated from.
+     */
+    private static long fingerprint(Delegator delegator) throws PluginException {
+        CRC32 crc = new CRC32();
+        try {
+            crc.update(TEMPLATE_LOCATOR.locate(delegator.templateClassName).resolve());
+        } catch (IOException e) {
+            throw new PluginException(e.getMessage(), e);
+        }
+        for (String value : new String[] {
+            delegator.pluginName,
+            delegator.methodsInterceptor,
+            // The agent version, as the version of the shaded ByteBuddy isn't kept.
+            Version.CURRENT.toString()
+        }) {
+            crc.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        return crc.getValue();
+    }
+
     /**
      * The class loaded by this method means it only should be loaded once in Bootstrap classloader, when bootstrap
      * instrumentation active by any plugin
@@ -314,4 +408,18 @@ public class BootstrapInstrumentBoost {
 
         loadedTypeMap.put(className, enhancedInstanceClassFile);
     }
+
+    private static class Delegator {
+        private final String pluginName;
+        private final String templateClassName;
+        private final String methodsInterceptor;
+        private final String internalInterceptorName;
+
+        private Delegator(String pluginName, String templateClassName, String methodsInterceptor) {
+            this.pluginName = pluginName;
+            this.templateClassName = templateClassName;
+            this.methodsInterceptor = methodsInterceptor;
+            this.internalInterceptorName = internalDelegate(methodsInterceptor);
+        }
+    }
 }
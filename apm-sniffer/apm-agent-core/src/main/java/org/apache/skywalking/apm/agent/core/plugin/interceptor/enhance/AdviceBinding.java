@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorSo11y;
+
+/**
+ * The state of one method instrumented by the inlined advice. The reflective {@link Method} and its parameter types
+ * are resolved at the first call, and reused afterwards, so no call pays for the lookup or the array copy.
+ */
+public abstract class AdviceBinding {
+    protected static final String INTERCEPTOR_TYPE = "inst";
+
+    protected final InterceptorSo11y so11y;
+    protected final String methodName;
+    private final String[] parameterTypeNames;
+    private Class<?>[] parameterTypes;
+    private volatile Method method;
+
+    protected AdviceBinding(String pluginName, MethodDescription instrumentedMethod) {
+        this.so11y = InterceptorSo11y.of(pluginName, INTERCEPTOR_TYPE);
+        this.methodName = instrumentedMethod.getName();
+        this.parameterTypeNames = new String[instrumentedMethod.getParameters().size()];
+        int i = 0;
+        for (TypeDescription parameterType : instrumentedMethod.getParameters().asTypeList().asErasures()) {
+            parameterTypeNames[i++] = parameterType.getName();
+        }
+    }
+
+    /**
+     * @param clazz the class declaring the instrumented method.
+     */
+    protected Method method(Class<?> clazz) {
+        Method resolved = method;
+        if (resolved == null) {
+            resolved = lookup(clazz);
+            parameterTypes = resolved.getParameterTypes();
+            method = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * @return the parameter types of the instrumented method, only available after {@link #method(Class)}. The array
+     * is shared by all calls, the interceptors only read it.
+     */
+    protected Class<?>[] parameterTypes() {
+        return parameterTypes;
+    }
+
+    private Method lookup(Class<?> clazz) {
+        for (Method declared : clazz.getDeclaredMethods()) {
+            if (!declared.getName().equals(methodName) || declared.getParameterCount() != parameterTypeNames.length) {
+                continue;
+            }
+            Class<?>[] types = declared.getParameterTypes();
+            boolean matched = true;
+            for (int i = 0; i < types.length && matched; i++) {
+                matched = types[i].getName().equals(parameterTypeNames[i]);
+            }
+            if (matched) {
+                return declared;
+            }
+        }
+        throw new IllegalStateException("Can't find method " + methodName + " in " + clazz.getName());
+    }
+}
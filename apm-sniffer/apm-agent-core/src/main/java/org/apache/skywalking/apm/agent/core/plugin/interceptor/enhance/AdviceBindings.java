@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.LoadedTypeInitializer;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.collection.ArrayAccess;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PUBLIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_SYNTHETIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * The {@link AdviceBinding}s of one intercept point in one instrumented class. The inlined advice code can't hold any
+ * reference, so the bindings are kept in a static field of the instrumented class, set when the class is loaded, the
+ * same way as the interceptor of a {@link net.bytebuddy.implementation.MethodDelegation}. Every instrumented method
+ * reads its binding from that field by an index constant, which is just an array read. The bindings live as long as
+ * the instrumented class, and don't keep its class loader alive.
+ */
+public class AdviceBindings implements LoadedTypeInitializer {
+    private static final String FIELD_NAME_SUFFIX = "$bindings";
+
+    private final String fieldName;
+    private final List<Object> bindings = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * @param delegateFieldName the delegate field of the same intercept point, which names the field of the bindings.
+     */
+    public AdviceBindings(String delegateFieldName) {
+        this.fieldName = delegateFieldName + FIELD_NAME_SUFFIX;
+    }
+
+    /**
+     * Define the static field of the bindings in the instrumented class.
+     */
+    public DynamicType.Builder<?> define(DynamicType.Builder<?> builder) {
+        return builder.defineField(fieldName, Object[].class, ACC_PUBLIC | ACC_STATIC | ACC_VOLATILE | ACC_SYNTHETIC)
+                      .initializer(this);
+    }
+
+    /**
+     * @param bindingFactory creates the binding of an instrumented method, called once per method.
+     * @return the advice builder which binds the {@link Binding} parameters.
+     */
+    public Advice.WithCustomMapping withBindings(Function<MethodDescription, Object> bindingFactory) {
+        return Advice.withCustomMapping().bind(Binding.class, new BindingMapping(bindingFactory));
+    }
+
+    @Override
+    public void onLoad(Class<?> type) {
+        try {
+            Field field = type.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(null, bindings.toArray());
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't set the advice bindings of " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public boolean isAlive() {
+        return true;
+    }
+
+    /**
+     * Reads the binding of each instrumented method from the field. The enter and exit advice of one method share the
+     * same binding.
+     */
+    private class BindingMapping implements Advice.OffsetMapping {
+        private final Function<MethodDescription, Object> bindingFactory;
+
+        private BindingMapping(Function<MethodDescription, Object> bindingFactory) {
+            this.bindingFactory = bindingFactory;
+        }
+
+        @Override
+        public Target resolve(TypeDescription instrumentedType, MethodDescription instrumentedMethod,
+            Assigner assigner, Advice.ArgumentHandler argumentHandler, Sort sort) {
+            String key = instrumentedMethod.getInternalName() + instrumentedMethod.getDescriptor();
+            Integer index = indexes.get(key);
+            if (index == null) {
+                index = bindings.size();
+                bindings.add(bindingFactory.apply(instrumentedMethod));
+                indexes.put(key, index);
+            }
+            FieldDescription field = instrumentedType.getDeclaredFields().filter(named(fieldName)).getOnly();
+            return new Target.ForStackManipulation(new StackManipulation.Compound(
+                FieldAccess.forField(field).read(),
+                IntegerConstant.forValue(index),
+                ArrayAccess.REFERENCE.load()
+            ));
+        }
+    }
+}
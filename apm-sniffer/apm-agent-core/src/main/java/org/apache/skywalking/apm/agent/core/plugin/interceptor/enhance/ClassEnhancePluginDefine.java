@@ -45,6 +45,9 @@ import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
 import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isNative;
 import static net.bytebuddy.matcher.ElementMatchers.isStatic;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
@@ -164,6 +167,16 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
+                    } else if (isAdviceInterception()) {
+                        // Advice could only be inlined into the methods with code of this class, the inherited ones
+                        // are overridden and delegated as usual.
+                        AdviceBindings adviceBindings = new AdviceBindings(delegateNamingResolver.resolve(instanceMethodsInterceptPoint));
+                        newClassBuilder = adviceBindings.define(newClassBuilder)
+                                                         .method(junction.and(not(isDeclaredBy(typeDescription)).or(isAbstract()).or(isNative())))
+                                                         .intercept(MethodDelegation.withDefaultConfiguration()
+                                                                                    .to(new InstMethodsInter(getPluginName(), interceptor, classLoader), delegateNamingResolver.resolve(instanceMethodsInterceptPoint)))
+                                                         .visit(InstMethodsAdviceBinding.advice(getPluginName(), interceptor, classLoader, adviceBindings)
+                                                                                    .on(junction.and(isDeclaredBy(typeDescription)).and(not(isAbstract())).and(not(isNative()))));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
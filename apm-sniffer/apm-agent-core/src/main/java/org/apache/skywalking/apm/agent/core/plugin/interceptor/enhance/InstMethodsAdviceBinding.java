@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+
+/**
+ * The {@link InstMethodsInter} counterpart of the inlined advice. It keeps the same hook order and the same error
+ * handling, so an {@link InstanceMethodsAroundInterceptor} works the same in both modes.
+ */
+public class InstMethodsAdviceBinding extends AdviceBinding {
+    private static final ILog LOGGER = LogManager.getLogger(InstMethodsAdviceBinding.class);
+
+    private final InstanceMethodsAroundInterceptor interceptor;
+
+    InstMethodsAdviceBinding(String pluginName, InstanceMethodsAroundInterceptor interceptor,
+        MethodDescription instrumentedMethod) {
+        super(pluginName, instrumentedMethod);
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * @param bindings the bindings of the intercept point, defined in the instrumented class.
+     * @return the advice to inline the hooks of the interceptor into the instrumented methods.
+     */
+    public static Advice advice(String pluginName, String instanceMethodsAroundInterceptorClassName,
+        ClassLoader classLoader, AdviceBindings bindings) {
+        InstanceMethodsAroundInterceptor interceptor;
+        try {
+            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+        } catch (Throwable t) {
+            throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
+        }
+        return bindings.withBindings(method -> new InstMethodsAdviceBinding(pluginName, interceptor, method))
+                             .to(InstMethodsAdvice.class);
+    }
+
+    /**
+     * @return the time cost of the interceptor, or -1 if the call is out of the time cost sample.
+     */
+    public long before(Class<?> clazz, Object obj, Object[] allArguments, MethodInterceptResult result) {
+        boolean timed = so11y.sample();
+        long startTime = timed ? System.nanoTime() : 0L;
+        try {
+            Method method = method(clazz);
+            interceptor.beforeMethod((EnhancedInstance) obj, method, allArguments, parameterTypes(), result);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), methodName);
+            so11y.error();
+        }
+        return timed ? System.nanoTime() - startTime : -1L;
+    }
+
+    /**
+     * @param ret    the return value of the instrumented method, ignored if the method is skipped by the interceptor.
+     * @param thrown the exception thrown by the instrumented method, or null.
+     * @return the actual return value, ignored if the instrumented method threw the exception.
+     */
+    public Object after(Class<?> clazz, Object obj, Object[] allArguments, Object ret, Throwable thrown,
+        MethodInterceptResult result, long interceptorTimeCost) {
+        long startTime = interceptorTimeCost >= 0 ? System.nanoTime() : 0L;
+        EnhancedInstance targetObject = (EnhancedInstance) obj;
+        if (thrown != null) {
+            ret = null;
+            try {
+                interceptor.handleMethodException(targetObject, method(clazz), allArguments, parameterTypes(), thrown);
+            } catch (Throwable t) {
+                LOGGER.error(t, "class[{}] handle method[{}] exception failure", obj.getClass(), methodName);
+                so11y.error();
+            }
+        } else if (!result.isContinue()) {
+            ret = result._ret();
+        }
+        try {
+            ret = interceptor.afterMethod(targetObject, method(clazz), allArguments, parameterTypes(), ret);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), methodName);
+            so11y.error();
+        }
+        if (interceptorTimeCost >= 0) {
+            so11y.duration(interceptorTimeCost + System.nanoTime() - startTime);
+        }
+        return ret;
+    }
+}
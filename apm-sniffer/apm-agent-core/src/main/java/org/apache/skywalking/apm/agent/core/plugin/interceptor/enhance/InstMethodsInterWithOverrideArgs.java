@@ -28,7 +28,7 @@ import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
-import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorSo11y;
 
 /**
  * The actual byte-buddy's interceptor to intercept class instance methods. In this class, it provides a bridge between
@@ -39,7 +39,7 @@ public class InstMethodsInterWithOverrideArgs {
 
     private static final String INTERCEPTOR_TYPE = "inst";
 
-    private String pluginName;
+    private final InterceptorSo11y so11y;
     /**
      * An {@link InstanceMethodsAroundInterceptor} This name should only stay in {@link String}, the real {@link Class}
      * type will trigger classloader failure. If you want to know more, please check on books about Classloader or
@@ -51,7 +51,7 @@ public class InstMethodsInterWithOverrideArgs {
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
     public InstMethodsInterWithOverrideArgs(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
-        this.pluginName = pluginName;
+        this.so11y = InterceptorSo11y.of(pluginName, INTERCEPTOR_TYPE);
         try {
             interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
         } catch (Throwable t) {
@@ -75,16 +75,19 @@ public class InstMethodsInterWithOverrideArgs {
         @Morph OverrideCallable zuper) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        boolean timed = so11y.sample();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = timed ? System.nanoTime() : 0L;
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
-            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            so11y.error();
+        }
+        if (timed) {
+            interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -94,26 +97,32 @@ public class InstMethodsInterWithOverrideArgs {
                 ret = zuper.call(allArguments);
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = timed ? System.nanoTime() : 0L;
             try {
                 interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
-                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+                so11y.error();
+            }
+            if (timed) {
+                interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = timed ? System.nanoTime() : 0L;
             try {
                 ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
-                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+                so11y.error();
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            if (timed) {
+                interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            }
+        }
+        if (timed) {
+            so11y.duration(interceptorTimeCost);
         }
-        AgentSo11y.durationOfInterceptor(interceptorTimeCost);
         return ret;
     }
 }
@@ -26,7 +26,7 @@ import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
-import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorSo11y;
 
 /**
  * The actual byte-buddy's interceptor to intercept class static methods. In this class, it provides a bridge between
@@ -37,7 +37,7 @@ public class StaticMethodsInterWithOverrideArgs {
 
     private static final String INTERCEPTOR_TYPE = "static";
 
-    private String pluginName;
+    private final InterceptorSo11y so11y;
     /**
      * A class full name, and instanceof {@link StaticMethodsAroundInterceptor} This name should only stay in {@link
      * String}, the real {@link Class} type will trigger classloader failure. If you want to know more, please check on
@@ -52,7 +52,7 @@ public class StaticMethodsInterWithOverrideArgs {
      * @param staticMethodsAroundInterceptorClassName class full name.
      */
     public StaticMethodsInterWithOverrideArgs(String pluginName, String staticMethodsAroundInterceptorClassName) {
-        this.pluginName = pluginName;
+        this.so11y = InterceptorSo11y.of(pluginName, INTERCEPTOR_TYPE);
         this.staticMethodsAroundInterceptorClassName = staticMethodsAroundInterceptorClassName;
     }
 
@@ -73,16 +73,19 @@ public class StaticMethodsInterWithOverrideArgs {
         StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName, clazz
             .getClassLoader());
 
+        boolean timed = so11y.sample();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = timed ? System.nanoTime() : 0L;
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
-            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            so11y.error();
+        }
+        if (timed) {
+            interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -92,26 +95,32 @@ public class StaticMethodsInterWithOverrideArgs {
                 ret = zuper.call(allArguments);
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = timed ? System.nanoTime() : 0L;
             try {
                 interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
-                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+                so11y.error();
+            }
+            if (timed) {
+                interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = timed ? System.nanoTime() : 0L;
             try {
                 ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
-                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+                so11y.error();
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            if (timed) {
+                interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            }
+        }
+        if (timed) {
+            so11y.duration(interceptorTimeCost);
         }
-        AgentSo11y.durationOfInterceptor(interceptorTimeCost);
 
         return ret;
     }
@@ -35,6 +35,7 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterc
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.EnhanceException;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.AdviceBindings;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ConstructorInter;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
@@ -47,6 +48,9 @@ import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
 import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isNative;
 import static net.bytebuddy.matcher.ElementMatchers.isStatic;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
@@ -190,6 +194,16 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
+                    } else if (isAdviceInterception()) {
+                        // Advice could only be inlined into the methods with code of this class, the inherited ones
+                        // are overridden and delegated as usual.
+                        AdviceBindings adviceBindings = new AdviceBindings(fieldNamingResolver.resolve(instanceMethodsInterceptV2Point));
+                        newClassBuilder = adviceBindings.define(newClassBuilder)
+                                                         .method(junction.and(not(isDeclaredBy(typeDescription)).or(isAbstract()).or(isNative())))
+                                                         .intercept(MethodDelegation.withDefaultConfiguration()
+                                                                                    .to(new InstMethodsInterV2(getPluginName(), interceptor, classLoader), fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)))
+                                                         .visit(InstMethodsAdviceBindingV2.advice(getPluginName(), interceptor, classLoader, adviceBindings)
+                                                                                    .on(junction.and(isDeclaredBy(typeDescription)).and(not(isAbstract())).and(not(isNative()))));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.Binding;
+
+/**
+ * The advice inlined into the instance methods enhanced in the advice mode by {@link ClassEnhancePluginDefineV2}. The
+ * code here is copied into the target methods, all the work is done by the {@link InstMethodsAdviceBindingV2}.
+ */
+public class InstMethodsAdviceV2 {
+    /**
+     * @return true to skip the origin method, when the interceptor defines the return value.
+     */
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static boolean enter(@Binding Object binding,
+                                @Advice.Origin Class<?> clazz,
+                                @Advice.This Object obj,
+                                @Advice.AllArguments Object[] allArguments,
+                                @Advice.Local("arguments") Object[] arguments,
+                                @Advice.Local("context") MethodInvocationContext context,
+                                @Advice.Local("timeCost") long timeCost) {
+        arguments = allArguments;
+        context = new MethodInvocationContext();
+        timeCost = ((InstMethodsAdviceBindingV2) binding).before(clazz, obj, arguments, context);
+        return !context.isContinue();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(@Binding Object binding,
+                            @Advice.Origin Class<?> clazz,
+                            @Advice.This Object obj,
+                            @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object ret,
+                            @Advice.Thrown Throwable thrown,
+                            @Advice.Local("arguments") Object[] arguments,
+                            @Advice.Local("context") MethodInvocationContext context,
+                            @Advice.Local("timeCost") long timeCost) {
+        Object actual = ((InstMethodsAdviceBindingV2) binding).after(
+            clazz, obj, arguments, ret, thrown, context, timeCost);
+        // The exception is rethrown, and a null can't be written back to a primitive return value.
+        if (thrown == null) {
+            ret = actual;
+        }
+    }
+}
@@ -18,16 +18,20 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -60,7 +64,11 @@ public class AgentClassLoader extends ClassLoader {
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
+    /**
+     * The jars containing each entry, in the classpath order. It is built once when the jars are scanned, so a lookup
+     * never probes the jars one by one.
+     */
+    private volatile Map<String, List<Jar>> entryIndex;
     private ReentrantLock jarScanLock = new ReentrantLock();
 
     public static AgentClassLoader getDefault() {
@@ -89,25 +97,23 @@ public class AgentClassLoader extends ClassLoader {
         Config.Plugin.MOUNT.forEach(mountFolder -> classpath.add(new File(agentDictionary, mountFolder)));
     }
 
+    AgentClassLoader(ClassLoader parent, List<File> classpath) {
+        super(parent);
+        this.classpath = classpath;
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
+        for (Jar jar : findJars(path)) {
             JarEntry entry = jar.jarFile.getJarEntry(path);
             if (entry == null) {
                 continue;
             }
             try {
-                URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
                 byte[] data;
-                try (final BufferedInputStream is = new BufferedInputStream(
-                    classFileUrl.openStream()); final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                    int ch;
-                    while ((ch = is.read()) != -1) {
-                        baos.write(ch);
-                    }
-                    data = baos.toByteArray();
+                try (InputStream is = jar.jarFile.getInputStream(entry)) {
+                    data = readAll(is, entry.getSize());
                 }
                 return processLoadedClass(defineClass(name, data, 0, data.length));
             } catch (IOException e) {
@@ -119,14 +125,10 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException ignored) {
-                }
+        for (Jar jar : findJars(name)) {
+            try {
+                return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
+            } catch (MalformedURLException ignored) {
             }
         }
         return null;
@@ -135,12 +137,8 @@ public class AgentClassLoader extends ClassLoader {
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
         List<URL> allResources = new LinkedList<>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
-            }
+        for (Jar jar : findJars(name)) {
+            allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
         }
 
         final Iterator<URL> iterator = allResources.iterator();
@@ -157,6 +155,34 @@ public class AgentClassLoader extends ClassLoader {
         };
     }
 
+    /**
+     * Read the whole entry with bulk reads. The size from the jar directory sizes the buffer exactly, so the bytes are
+     * copied once.
+     *
+     * @param size the uncompressed size of the entry, or -1 if it is unknown.
+     */
+    static byte[] readAll(InputStream is, long size) throws IOException {
+        if (size >= 0 && size <= Integer.MAX_VALUE) {
+            byte[] data = new byte[(int) size];
+            int offset = 0;
+            while (offset < data.length) {
+                int read = is.read(data, offset, data.length - offset);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of the entry, read " + offset + " of " + size + " bytes");
+                }
+                offset += read;
+            }
+            return data;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            baos.write(buffer, 0, read);
+        }
+        return baos.toByteArray();
+    }
+
     private Class<?> processLoadedClass(Class<?> loadedClass) {
         final PluginConfig pluginConfig = loadedClass.getAnnotation(PluginConfig.class);
         if (pluginConfig != null) {
@@ -169,19 +195,38 @@ public class AgentClassLoader extends ClassLoader {
         return loadedClass;
     }
 
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
+    private List<Jar> findJars(String entryName) {
+        List<Jar> jars = getEntryIndex().get(entryName);
+        return jars == null ? Collections.emptyList() : jars;
+    }
+
+    private Map<String, List<Jar>> getEntryIndex() {
+        if (entryIndex == null) {
             jarScanLock.lock();
             try {
-                if (allJars == null) {
-                    allJars = doGetJars();
+                if (entryIndex == null) {
+                    entryIndex = buildEntryIndex(doGetJars());
                 }
             } finally {
                 jarScanLock.unlock();
             }
         }
 
-        return allJars;
+        return entryIndex;
+    }
+
+    /**
+     * The central directory of every jar is already read when it is opened, so walking the entries costs no IO.
+     */
+    private static Map<String, List<Jar>> buildEntryIndex(List<Jar> jars) {
+        Map<String, List<Jar>> index = new HashMap<>();
+        for (Jar jar : jars) {
+            Enumeration<JarEntry> entries = jar.jarFile.entries();
+            while (entries.hasMoreElements()) {
+                index.computeIfAbsent(entries.nextElement().getName(), key -> new ArrayList<>(1)).add(jar);
+            }
+        }
+        return index;
     }
 
     private LinkedList<Jar> doGetJars() {
@@ -24,13 +24,11 @@ import io.grpc.StatusRuntimeException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -39,6 +37,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.profile.v3.ProfileTaskCommandQuery;
 import org.apache.skywalking.apm.network.language.profile.v3.ProfileTaskFinishReport;
@@ -122,18 +121,17 @@ public class ProfileTaskChannelService implements BootService, Runnable, GRPCCha
 
         if (Config.Profile.ACTIVE) {
             // query task list
-            getTaskListFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("ProfileGetTaskService")
-            ).scheduleWithFixedDelay(
+            SchedulerService scheduler = ServiceManager.INSTANCE.findService(SchedulerService.class);
+            getTaskListFuture = scheduler.scheduleBlockingWithFixedDelay(
+                "ProfileGetTaskService",
                 new RunnableWithExceptionProtection(
                     this,
                     t -> LOGGER.error("Query profile task list failure.", t)
                 ), 0, Config.Collector.GET_PROFILE_TASK_INTERVAL, TimeUnit.SECONDS
             );
 
-            sendSnapshotFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("ProfileSendSnapshotService")
-            ).scheduleWithFixedDelay(
+            sendSnapshotFuture = scheduler.scheduleBlockingWithFixedDelay(
+                "ProfileSendSnapshotService",
                 new RunnableWithExceptionProtection(
                     () -> {
                         List<TracingThreadSnapshot> buffer = new ArrayList<>(Config.Profile.SNAPSHOT_TRANSPORT_BUFFER_SIZE);
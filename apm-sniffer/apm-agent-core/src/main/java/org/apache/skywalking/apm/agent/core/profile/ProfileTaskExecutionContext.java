@@ -46,6 +46,9 @@ public class ProfileTaskExecutionContext {
     // total started profiling tracing context count
     private final AtomicInteger totalStartedProfilingCount = new AtomicInteger(0);
 
+    // frames and stacks dumped by this task
+    private final StackFrameDictionary stackFrameDictionary = new StackFrameDictionary();
+
     public ProfileTaskExecutionContext(ProfileTask task) {
         this.task = task;
         profilingSegmentSlots = new AtomicReferenceArray<>(Config.Profile.MAX_PARALLEL * (Config.Profile.MAX_ACCEPT_SUB_PARALLEL + 1));
@@ -159,6 +162,10 @@ public class ProfileTaskExecutionContext {
         return task;
     }
 
+    StackFrameDictionary stackFrameDictionary() {
+        return stackFrameDictionary;
+    }
+
     public AtomicReferenceArray<ThreadProfiler> threadProfilerSlots() {
         return profilingSegmentSlots;
     }
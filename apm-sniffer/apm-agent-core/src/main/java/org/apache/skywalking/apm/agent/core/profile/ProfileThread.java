@@ -19,9 +19,15 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
@@ -31,16 +37,36 @@ public class ProfileThread implements Runnable {
 
     private static final ILog LOGGER = LogManager.getLogger(ProfileThread.class);
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final StackTraceElement[] EMPTY_STACK = new StackTraceElement[0];
+
     // profiling task context
     private final ProfileTaskExecutionContext taskExecutionContext;
 
+    private final ThreadMXBean threadMXBean;
+
     private final ProfileTaskExecutionService profileTaskExecutionService;
     private final ProfileTaskChannelService profileTaskChannelService;
 
+    // profilers waiting for the batch dump of current period
+    private final List<ThreadProfiler> batchProfilers = new ArrayList<>();
+
     public ProfileThread(ProfileTaskExecutionContext taskExecutionContext) {
+        this(
+            taskExecutionContext, THREAD_MX_BEAN,
+            ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class),
+            ServiceManager.INSTANCE.findService(ProfileTaskChannelService.class)
+        );
+    }
+
+    ProfileThread(ProfileTaskExecutionContext taskExecutionContext,
+                  ThreadMXBean threadMXBean,
+                  ProfileTaskExecutionService profileTaskExecutionService,
+                  ProfileTaskChannelService profileTaskChannelService) {
         this.taskExecutionContext = taskExecutionContext;
-        profileTaskExecutionService = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
-        profileTaskChannelService = ServiceManager.INSTANCE.findService(ProfileTaskChannelService.class);
+        this.threadMXBean = threadMXBean;
+        this.profileTaskExecutionService = profileTaskExecutionService;
+        this.profileTaskChannelService = profileTaskChannelService;
     }
 
     @Override
@@ -89,18 +115,21 @@ public class ProfileThread implements Runnable {
                         break;
 
                     case PROFILING:
-                        // dump stack
-                        TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
-                        if (snapshot != null) {
-                            profileTaskChannelService.addProfilingSnapshot(snapshot);
+                        if (Config.Profile.BATCH_DUMP) {
+                            // dump stack with all the profiling threads
+                            batchProfilers.add(currentProfiler);
                         } else {
-                            // tell execution context current tracing thread dump failed, stop it
-                            executionContext.stopTracingProfile(currentProfiler.tracingContext());
+                            // dump stack
+                            addSnapshot(executionContext, currentProfiler, currentProfiler.buildSnapshot());
                         }
                         break;
 
                 }
             }
+            if (!batchProfilers.isEmpty()) {
+                batchDump(executionContext, batchProfilers);
+                batchProfilers.clear();
+            }
 
             // sleep to next period
             // if out of period, sleep one period
@@ -110,4 +139,44 @@ public class ProfileThread implements Runnable {
         }
     }
 
+    /**
+     * dump the stacks of all the profiling threads by one {@link ThreadMXBean#getThreadInfo(long[], int)} call, which
+     * takes one safepoint for all of them instead of one per thread.
+     */
+    void batchDump(ProfileTaskExecutionContext executionContext, List<ThreadProfiler> profilers) {
+        final int profilerCount = profilers.size();
+        final long[] threadIds = new long[profilerCount];
+        for (int i = 0; i < profilerCount; i++) {
+            threadIds[i] = profilers.get(i).profilingThreadId();
+        }
+
+        final long dumpTime = System.currentTimeMillis();
+        ThreadInfo[] threadInfos;
+        try {
+            threadInfos = threadMXBean.getThreadInfo(threadIds, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        } catch (Exception e) {
+            // dump error ignore and make these profilers stop
+            LOGGER.warn(e, "Dump the profiling threads fail. taskId:{}", executionContext.getTask().getTaskId());
+            threadInfos = new ThreadInfo[profilerCount];
+        }
+
+        for (int i = 0; i < profilerCount; i++) {
+            final ThreadProfiler profiler = profilers.get(i);
+            // thread info is null when the thread has finished
+            final StackTraceElement[] stackTrace = threadInfos[i] != null ? threadInfos[i].getStackTrace() : EMPTY_STACK;
+            addSnapshot(executionContext, profiler, profiler.buildSnapshot(stackTrace, dumpTime));
+        }
+    }
+
+    private void addSnapshot(ProfileTaskExecutionContext executionContext,
+                             ThreadProfiler profiler,
+                             TracingThreadSnapshot snapshot) {
+        if (snapshot != null) {
+            profileTaskChannelService.addProfilingSnapshot(snapshot);
+        } else {
+            // tell execution context current tracing thread dump failed, stop it
+            executionContext.stopTracingProfile(profiler.tracingContext());
+        }
+    }
+
 }
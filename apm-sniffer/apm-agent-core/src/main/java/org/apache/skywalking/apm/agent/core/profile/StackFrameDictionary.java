@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+
+/**
+ * Interns the dumped frames and stacks of one profile task. A frame is converted to its code signature only once, and
+ * the snapshots of an unchanged stack, which is the common case of a slow request, share one built {@link ThreadStack}.
+ * Only accessed by the {@link ProfileThread} of the task, so it isn't thread safe.
+ */
+class StackFrameDictionary {
+    static final int MAX_FRAMES = 10000;
+    static final int MAX_STACKS = 1000;
+
+    private final Map<StackTraceElement, String> codeSignatures = new HashMap<>();
+    private final Map<List<String>, ThreadStack> stacks = new HashMap<>();
+
+    /**
+     * @param stackTrace the dumped stack, starts with the top frame
+     * @param depth      the count of the top frames to keep
+     * @return the stack in inverted order, because thread dump is start with bottom
+     */
+    ThreadStack intern(StackTraceElement[] stackTrace, int depth) {
+        final List<String> stackList = new ArrayList<>(depth);
+        for (int i = depth - 1; i >= 0; i--) {
+            stackList.add(codeSignature(stackTrace[i]));
+        }
+
+        ThreadStack stack = stacks.get(stackList);
+        if (stack == null) {
+            stack = ThreadStack.newBuilder().addAllCodeSignatures(stackList).build();
+            if (stacks.size() < MAX_STACKS) {
+                stacks.put(stackList, stack);
+            }
+        }
+        return stack;
+    }
+
+    private String codeSignature(StackTraceElement element) {
+        String codeSignature = codeSignatures.get(element);
+        if (codeSignature == null) {
+            codeSignature = buildStackElementCodeSignature(element);
+            if (codeSignatures.size() < MAX_FRAMES) {
+                codeSignatures.put(element, codeSignature);
+            }
+        }
+        return codeSignature;
+    }
+
+    /**
+     * build thread stack element code signature
+     *
+     * @return code sign: className.methodName:lineNumber
+     */
+    static String buildStackElementCodeSignature(StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+    }
+
+    int frameCount() {
+        return codeSignatures.size();
+    }
+
+    int stackCount() {
+        return stacks.size();
+    }
+}
@@ -19,10 +19,10 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import com.google.common.base.Objects;
-import java.util.ArrayList;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
 
 public class ThreadProfiler {
 
@@ -92,40 +92,40 @@ public class ThreadProfiler {
         StackTraceElement[] stackTrace;
         try {
             stackTrace = profilingThread.getStackTrace();
-
-            // stack depth is zero, means thread is already run finished
-            if (stackTrace.length == 0) {
-                return null;
-            }
         } catch (Exception e) {
             // dump error ignore and make this profiler stop
             return null;
         }
 
+        return buildSnapshot(stackTrace, currentTime);
+    }
+
+    /**
+     * build thread snapshot from the stack dumped together with the other profiling threads
+     *
+     * @param stackTrace the dumped stack of {@link #profilingThreadId()}, empty if the thread has finished
+     * @return snapshot, if null means dump snapshot error, should stop it
+     */
+    TracingThreadSnapshot buildSnapshot(StackTraceElement[] stackTrace, long dumpTime) {
+        if (!isProfilingContinuable()) {
+            return null;
+        }
+
+        // stack depth is zero, means thread is already run finished
+        if (stackTrace.length == 0) {
+            return null;
+        }
+
         // if is first dump, check is can start profiling
         if (dumpSequence == 0 && !executionContext.isStartProfileable()) {
             return null;
         }
 
         int dumpElementCount = Math.min(stackTrace.length, Config.Profile.DUMP_MAX_STACK_DEPTH);
-
-        // use inverted order, because thread dump is start with bottom
-        final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
-        for (int i = dumpElementCount - 1; i >= 0; i--) {
-            stackList.add(buildStackElementCodeSignature(stackTrace[i]));
-        }
+        ThreadStack stack = executionContext.stackFrameDictionary().intern(stackTrace, dumpElementCount);
 
         String taskId = executionContext.getTask().getTaskId();
-        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
-    }
-
-    /**
-     * build thread stack element code signature
-     *
-     * @return code sign: className.methodName:lineNumber
-     */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
-        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, dumpTime, stack);
     }
 
     /**
@@ -145,6 +145,10 @@ public class ThreadProfiler {
         return System.currentTimeMillis() - profilingStartTime < profilingMaxTimeMills;
     }
 
+    long profilingThreadId() {
+        return profilingThread.getId();
+    }
+
     public TracingContext tracingContext() {
         return tracingContext;
     }
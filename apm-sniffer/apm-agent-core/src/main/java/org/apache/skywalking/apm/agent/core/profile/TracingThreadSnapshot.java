@@ -31,18 +31,26 @@ public class TracingThreadSnapshot {
     // dump info
     private final int sequence;
     private final long time;
-    private final List<String> stackList;
+    private final ThreadStack stack;
 
     public TracingThreadSnapshot(String taskId,
                                  String traceSegmentId,
                                  int sequence,
                                  long time,
                                  List<String> stackList) {
+        this(taskId, traceSegmentId, sequence, time, ThreadStack.newBuilder().addAllCodeSignatures(stackList).build());
+    }
+
+    public TracingThreadSnapshot(String taskId,
+                                 String traceSegmentId,
+                                 int sequence,
+                                 long time,
+                                 ThreadStack stack) {
         this.taskId = taskId;
         this.traceSegmentId = traceSegmentId;
         this.sequence = sequence;
         this.time = time;
-        this.stackList = stackList;
+        this.stack = stack;
     }
 
     /**
@@ -58,12 +66,8 @@ public class TracingThreadSnapshot {
         builder.setTime(time);
         // snapshot dump sequence
         builder.setSequence(sequence);
-        // snapshot stack
-        final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
-        for (String codeSign : stackList) {
-            stackBuilder.addCodeSignatures(codeSign);
-        }
-        builder.setStack(stackBuilder);
+        // snapshot stack, shared by the snapshots of the same stack
+        builder.setStack(stack);
 
         return builder.build();
     }
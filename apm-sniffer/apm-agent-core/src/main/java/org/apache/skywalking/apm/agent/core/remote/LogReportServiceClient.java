@@ -19,11 +19,14 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.ClientCalls;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -43,15 +46,23 @@ import org.apache.skywalking.apm.network.logging.v3.LogReportServiceGrpc;
 @DefaultImplementor
 public class LogReportServiceClient implements BootService, GRPCChannelListener, IConsumer<LogData.Builder> {
     private static final ILog LOGGER = LogManager.getLogger(LogReportServiceClient.class);
+    /**
+     * The collect method of {@link LogReportServiceGrpc}, taking the LogData serialized by {@link SpillService}.
+     */
+    private static final MethodDescriptor<byte[], Commands> COLLECT_METHOD =
+        SerializedMessageMarshaller.serializedRequestOf(LogReportServiceGrpc.getCollectMethod());
 
     private volatile DataCarrier<LogData.Builder> carrier;
     private volatile GRPCChannelStatus status;
 
     private volatile LogReportServiceGrpc.LogReportServiceStub logReportServiceStub;
 
+    private volatile SpillService spillService;
+
     @Override
     public void prepare() throws Throwable {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+        spillService = ServiceManager.INSTANCE.findService(SpillService.class);
     }
 
     @Override
@@ -62,6 +73,9 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
                                     BufferStrategy.IF_POSSIBLE
         );
         carrier.consume(this, 1);
+        if (spillService != null) {
+            spillService.setReplayer(SpillService.Type.LOG, this::replay);
+        }
     }
 
     @Override
@@ -130,7 +144,57 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
             }
             logDataStreamObserver.onCompleted();
             status.wait4Finish();
+        } else if (spillService != null && spillService.isEnabled()) {
+            for (final LogData.Builder logData : dataList) {
+                // Every spilled log could be the first one of a replay stream.
+                logData.setService(Config.Agent.SERVICE_NAME);
+                spillService.spill(SpillService.Type.LOG, logData.build().toByteArray());
+            }
+        }
+    }
+
+    /**
+     * Send the spilled logs in a new stream, see {@link SpillService.Replayer}.
+     */
+    private boolean replay(final List<byte[]> logs) {
+        if (!GRPCChannelStatus.CONNECTED.equals(status)) {
+            return false;
+        }
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final AtomicBoolean failed = new AtomicBoolean();
+        final LogReportServiceGrpc.LogReportServiceStub stub = logReportServiceStub.withDeadlineAfter(
+            Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS);
+        StreamObserver<byte[]> logDataStreamObserver = ClientCalls.asyncClientStreamingCall(
+            stub.getChannel().newCall(COLLECT_METHOD, stub.getCallOptions()),
+            new StreamObserver<Commands>() {
+                @Override
+                public void onNext(final Commands commands) {
+
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    failed.set(true);
+                    status.finished();
+                    LOGGER.error(throwable, "Try to replay {} log data to collector, with unexpected exception.",
+                                 logs.size()
+                    );
+                    ServiceManager.INSTANCE
+                        .findService(GRPCChannelManager.class)
+                        .reportError(throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    status.finished();
+                }
+            });
+        for (final byte[] log : logs) {
+            logDataStreamObserver.onNext(log);
         }
+        logDataStreamObserver.onCompleted();
+        status.wait4Finish();
+        return !failed.get();
     }
 
     @Override
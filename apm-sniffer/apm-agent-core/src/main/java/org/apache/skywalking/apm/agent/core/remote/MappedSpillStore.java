@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.util.BufferCleaner;
+
+/**
+ * Append-only store of serialized messages, kept in memory-mapped chunk files under one directory.
+ * <p>
+ * A chunk file starts with the offset of its first unread record, followed by the records, each one as its length and
+ * its bytes. The chunk files are pre-sized and zero filled, so a zero length marks the end of the written records. The
+ * read offset is written back on {@link #commit()}, so the unread records of the previous run are picked up again after
+ * a restart.
+ * <p>
+ * When the total size goes over the limit, the oldest chunk is deleted with all its records, read or not.
+ * <p>
+ * The chunks are unmapped when they are deleted or the store is closed, so the deleted files don't keep their disk
+ * space until the GC. Nothing is appended after {@link #close()}.
+ */
+public class MappedSpillStore {
+    private static final ILog LOGGER = LogManager.getLogger(MappedSpillStore.class);
+    private static final String SUFFIX = ".spill";
+    private static final int HEADER_SIZE = 4;
+    private static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final File directory;
+    private final int chunkSize;
+    private final int maxChunks;
+    /**
+     * Oldest first, the last one is the one being written.
+     */
+    private final Deque<Chunk> chunks = new ArrayDeque<>();
+    private long nextSequence;
+    private Chunk writing;
+    /**
+     * Where the last {@link #peek(int, List)} stopped, applied by {@link #commit()}.
+     */
+    private Chunk peekedChunk;
+    private int peekedOffset;
+    private long evictedCounter;
+    private boolean closed;
+
+    public MappedSpillStore(File directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.chunkSize = (int) Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, maxSize / 8));
+        this.maxChunks = (int) Math.max(2, maxSize / chunkSize);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Fail to create the spill directory " + directory);
+        }
+        recover();
+    }
+
+    /**
+     * @return false if the message is larger than one chunk, which is never stored, or the store is closed.
+     */
+    public synchronized boolean append(byte[] message) throws IOException {
+        if (closed || message.length > chunkSize - HEADER_SIZE - 4) {
+            return false;
+        }
+        if (writing == null || writing.buffer.remaining() < 4 + message.length) {
+            writing = newChunk();
+        }
+        MappedByteBuffer buffer = writing.buffer;
+        int position = buffer.position();
+        buffer.position(position + 4);
+        buffer.put(message);
+        // Publish the length last, a torn record is then read as the end of the chunk.
+        buffer.putInt(position, message.length);
+        return true;
+    }
+
+    /**
+     * Read at most max unread records from the oldest. They stay unread until {@link #commit()}.
+     *
+     * @return the number of records added to the list.
+     */
+    public synchronized int peek(int max, List<byte[]> records) {
+        int count = 0;
+        peekedChunk = null;
+        for (Chunk chunk : chunks) {
+            ByteBuffer reader = chunk.buffer.duplicate();
+            int offset = chunk.readOffset;
+            int length;
+            while (count < max && (length = recordLength(chunk, offset)) > 0) {
+                byte[] record = new byte[length];
+                reader.position(offset + 4);
+                reader.get(record);
+                records.add(record);
+                offset += 4 + length;
+                count++;
+            }
+            peekedChunk = chunk;
+            peekedOffset = offset;
+            if (count == max) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mark the records returned by the last {@link #peek(int, List)} as read, and delete the chunks read to the end.
+     */
+    public synchronized void commit() {
+        if (peekedChunk == null) {
+            return;
+        }
+        if (!chunks.contains(peekedChunk)) {
+            // Evicted in the meantime, with the records peeked from it.
+            peekedChunk = null;
+            return;
+        }
+        Iterator<Chunk> iterator = chunks.iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (chunk == peekedChunk) {
+                break;
+            }
+            iterator.remove();
+            chunk.delete();
+        }
+        if (peekedChunk != writing && recordLength(peekedChunk, peekedOffset) == 0) {
+            chunks.remove(peekedChunk);
+            peekedChunk.delete();
+        } else {
+            peekedChunk.readOffset = peekedOffset;
+            peekedChunk.buffer.putInt(0, peekedOffset);
+        }
+        peekedChunk = null;
+    }
+
+    /**
+     * @return the number of chunks deleted before being read to the end, since the last call.
+     */
+    public synchronized long getAndResetEvictedCounter() {
+        long evicted = evictedCounter;
+        evictedCounter = 0;
+        return evicted;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        for (Chunk chunk : chunks) {
+            chunk.buffer.force();
+            chunk.unmap();
+        }
+        chunks.clear();
+        writing = null;
+        peekedChunk = null;
+    }
+
+    /**
+     * @return the length of the record at the offset, or 0 if there is no complete record there.
+     */
+    private int recordLength(Chunk chunk, int offset) {
+        int limit = chunk == writing ? chunk.buffer.position() : chunk.buffer.capacity();
+        if (offset + 4 > limit) {
+            return 0;
+        }
+        int length = chunk.buffer.getInt(offset);
+        return length <= 0 || offset + 4 + length > limit ? 0 : length;
+    }
+
+    private Chunk newChunk() throws IOException {
+        while (chunks.size() >= maxChunks) {
+            Chunk oldest = chunks.pollFirst();
+            oldest.delete();
+            evictedCounter++;
+        }
+        File file = new File(directory, String.format("%020d%s", nextSequence++, SUFFIX));
+        Chunk chunk = new Chunk(file, map(file, chunkSize), HEADER_SIZE);
+        chunk.buffer.putInt(0, HEADER_SIZE);
+        chunk.buffer.position(HEADER_SIZE);
+        chunks.addLast(chunk);
+        return chunk;
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        // The names are zero padded sequences, the lexical order is the writing order.
+        Arrays.sort(files);
+        for (File file : files) {
+            try {
+                nextSequence = Math.max(
+                    nextSequence, Long.parseLong(file.getName().substring(0, file.getName().length() - SUFFIX.length())) + 1);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (file.length() <= HEADER_SIZE || file.length() > Integer.MAX_VALUE) {
+                deleteFile(file);
+                continue;
+            }
+            MappedByteBuffer buffer = map(file, (int) file.length());
+            int readOffset = buffer.getInt(0);
+            if (readOffset < HEADER_SIZE || readOffset > buffer.capacity()) {
+                readOffset = HEADER_SIZE;
+            }
+            // Never append to a recovered chunk, it only waits to be read.
+            chunks.addLast(new Chunk(file, buffer, readOffset));
+        }
+        while (chunks.size() > maxChunks) {
+            chunks.pollFirst().delete();
+            evictedCounter++;
+        }
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (!file.delete()) {
+            LOGGER.warn("Fail to delete the spill file {}.", file);
+        }
+    }
+
+    private static class Chunk {
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private int readOffset;
+
+        private Chunk(File file, MappedByteBuffer buffer, int readOffset) {
+            this.file = file;
+            this.buffer = buffer;
+            this.readOffset = readOffset;
+        }
+
+        private void unmap() {
+            BufferCleaner.clean(buffer);
+        }
+
+        private void delete() {
+            unmap();
+            deleteFile(file);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.commands.CommandService;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * PersistentSegmentStream keeps one collect stream of {@link TraceSegmentReportServiceGrpc} open across the consumed
+ * batches, instead of opening a stream per batch and waiting for the backend to complete it.
+ * <p>
+ * A segment is only written when the stream is ready, following the gRPC flow control. The stream is rotated,
+ * which means completed and replaced by a new one before the next segment, when it fails, when the backend completes it,
+ * after {@link Config.Collector#SEGMENT_STREAM_MAX_BYTES} bytes or {@link Config.Collector#SEGMENT_STREAM_MAX_DURATION}
+ * seconds, and when the channel status changes.
+ * <p>
+ * All methods except {@link #reset()} must be called by the single consumer thread.
+ */
+public class PersistentSegmentStream {
+    private static final ILog LOGGER = LogManager.getLogger(PersistentSegmentStream.class);
+
+    private final MethodDescriptor<byte[], Commands> method;
+    private final Object readyMonitor = new Object();
+    private volatile boolean resetRequested;
+    private Session current;
+
+    public PersistentSegmentStream(MethodDescriptor<byte[], Commands> method) {
+        this.method = method;
+    }
+
+    /**
+     * Prepare the stream for the next segment: open a new stream if the current one has been rotated, and wait until it
+     * is ready. It only reads the ready state when the stream is ready, so it is called before every segment, and the
+     * transport buffers at most one segment over its ready threshold.
+     *
+     * @return false if the stream is broken or not ready in {@link Config.Collector#GRPC_UPSTREAM_TIMEOUT} seconds.
+     */
+    public boolean awaitReady(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub) {
+        rotateIfNecessary();
+        if (current == null) {
+            current = open(serviceStub);
+        }
+        final Session session = current;
+        if (!awaitReady(session)) {
+            if (!session.broken) {
+                LOGGER.warn("Collector trace segment stream isn't ready in {} seconds, cancel it.",
+                            Config.Collector.GRPC_UPSTREAM_TIMEOUT
+                );
+                session.requestStream.cancel("Stream isn't ready", null);
+            }
+            current = null;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Send the serialized segment, once the stream is prepared by {@link
+     * #awaitReady(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub)}.
+     *
+     * @return false if the segment could not be sent, because the stream is broken.
+     */
+    public boolean send(byte[] segment) {
+        final Session session = current;
+        if (session == null || session.broken) {
+            current = null;
+            return false;
+        }
+        session.requestStream.onNext(segment);
+        session.sentBytes += segment.length;
+        return true;
+    }
+
+    /**
+     * Complete the current stream if it should be rotated, so an idle stream doesn't run into its deadline.
+     */
+    public void rotateIfNecessary() {
+        final Session session = current;
+        if (session == null) {
+            return;
+        }
+        if (resetRequested || session.broken
+            || session.sentBytes >= Config.Collector.SEGMENT_STREAM_MAX_BYTES
+            || System.currentTimeMillis() - session.openTime >= TimeUnit.SECONDS.toMillis(
+            Config.Collector.SEGMENT_STREAM_MAX_DURATION)) {
+            close();
+        }
+    }
+
+    /**
+     * Complete the current stream, if any.
+     */
+    public void close() {
+        resetRequested = false;
+        final Session session = current;
+        current = null;
+        if (session != null && !session.broken) {
+            session.requestStream.onCompleted();
+        }
+    }
+
+    /**
+     * Ask the consumer thread to rotate the stream, e.g. when the channel has been reconnected. Thread safe.
+     */
+    public void reset() {
+        resetRequested = true;
+    }
+
+    private Session open(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub) {
+        // The stream is completed by the rotation, the deadline only takes effect when the backend hangs.
+        final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
+            Config.Collector.SEGMENT_STREAM_MAX_DURATION + Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+        );
+        final Session session = new Session();
+        ClientCalls.asyncClientStreamingCall(stub.getChannel().newCall(method, stub.getCallOptions()), session);
+        return session;
+    }
+
+    private boolean awaitReady(Session session) {
+        if (session.requestStream.isReady()) {
+            return true;
+        }
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+            Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+        synchronized (readyMonitor) {
+            while (!session.broken && !session.requestStream.isReady()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    readyMonitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return !session.broken;
+    }
+
+    private void signal() {
+        synchronized (readyMonitor) {
+            readyMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * One collect stream. The callbacks only change the state of its own stream, so the errors of a rotated stream
+     * don't affect the current one.
+     */
+    private class Session implements ClientResponseObserver<byte[], Commands> {
+        private final long openTime = System.currentTimeMillis();
+        private ClientCallStreamObserver<byte[]> requestStream;
+        private long sentBytes;
+        private volatile boolean broken;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<byte[]> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(PersistentSegmentStream.this::signal);
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            broken = true;
+            signal();
+            if (LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            broken = true;
+            signal();
+        }
+    }
+}
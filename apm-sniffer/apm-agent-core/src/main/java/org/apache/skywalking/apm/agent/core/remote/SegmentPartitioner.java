@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.commons.datacarrier.partition.ProducerThreadPartitioner;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+
+/**
+ * The ways to dispatch the finished segments to the channels of {@link TraceSegmentServiceClient}.
+ */
+public enum SegmentPartitioner {
+    /**
+     * Segments of the same trace are consumed by the same consumer thread, in order. See {@link TraceIdPartitioner}.
+     */
+    TRACE {
+        @Override
+        IDataPartitioner<TraceSegment> create() {
+            return new TraceIdPartitioner();
+        }
+    },
+    /**
+     * Segments finished by the same thread go to the same channel.
+     */
+    PRODUCER_THREAD {
+        @Override
+        IDataPartitioner<TraceSegment> create() {
+            return new ProducerThreadPartitioner<>();
+        }
+    },
+    /**
+     * Channels are used in turn, with retries on the next channel when one is full.
+     */
+    ROLLING {
+        @Override
+        IDataPartitioner<TraceSegment> create() {
+            return new SimpleRollingPartitioner<>();
+        }
+    };
+
+    abstract IDataPartitioner<TraceSegment> create();
+}
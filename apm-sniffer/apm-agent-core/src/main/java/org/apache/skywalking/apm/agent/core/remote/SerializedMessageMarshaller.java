@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * SerializedMessageMarshaller sends a request message which has been serialized by the agent, such as a segment
+ * written by {@link org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentSerializer}, as it is.
+ * <p>
+ * It only works on the client side, the agent never parses these messages.
+ */
+public class SerializedMessageMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+    public static final SerializedMessageMarshaller INSTANCE = new SerializedMessageMarshaller();
+
+    /**
+     * @return a copy of the given method, whose request is the serialized bytes of the original request message.
+     */
+    public static <T> MethodDescriptor<byte[], T> serializedRequestOf(MethodDescriptor<?, T> method) {
+        return method.toBuilder(INSTANCE, method.getResponseMarshaller()).build();
+    }
+
+    @Override
+    public InputStream stream(byte[] value) {
+        return new SerializedMessageStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+        throw new UnsupportedOperationException("The serialized message is only sent by the agent.");
+    }
+
+    /**
+     * The known length lets gRPC frame the message without buffering it, and draining writes the array at once.
+     */
+    private static class SerializedMessageStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        SerializedMessageStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int length = count - pos;
+            target.write(buf, pos, length);
+            pos = count;
+            return length;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Keep the serialized data the reporters could not send to the collector in {@link MappedSpillStore}s, and hand them
+ * back to the reporters to replay, at most {@link Config.Collector#SPILL_REPLAY_RATE} messages per second of each type.
+ * <p>
+ * Disabled by default, {@link #spill(Type, byte[])} then returns false and the reporters drop the data as before.
+ * <p>
+ * The spill directory is locked by one process. The default one is under the agent package and keyed by the service
+ * name, so a restarted instance replays the data of the previous run, while the JVMs of other services sharing the agent
+ * package don't map the same files. When the directory is locked by another process, or can't be written, the spill
+ * is disabled.
+ */
+@DefaultImplementor
+public class SpillService implements BootService, Runnable {
+    private static final ILog LOGGER = LogManager.getLogger(SpillService.class);
+
+    public enum Type {
+        SEGMENT, LOG
+    }
+
+    /**
+     * Send the spilled messages of one type to the collector.
+     */
+    public interface Replayer {
+        /**
+         * @return true if the messages have been sent, false to keep them and retry later.
+         */
+        boolean replay(List<byte[]> messages);
+    }
+
+    /**
+     * Read by the reporter threads while the service is shut down, so a concurrent map.
+     */
+    private final Map<Type, MappedSpillStore> stores = new ConcurrentHashMap<>();
+    private final Map<Type, Replayer> replayers = new EnumMap<>(Type.class);
+    private volatile boolean started;
+    private volatile ScheduledFuture<?> replayFuture;
+    /**
+     * {@link Config.Collector#SPILL_DIR}, or the default directory of the service when it isn't set.
+     */
+    private File directory;
+    private FileLock directoryLock;
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public void boot() throws Throwable {
+        if (!Config.Collector.SPILL_ENABLE) {
+            return;
+        }
+        directory = StringUtil.isEmpty(Config.Collector.SPILL_DIR)
+            ? new File(new File(AgentPackagePath.getPath(), "spill"), toDirectoryName(Config.Agent.SERVICE_NAME))
+            : new File(Config.Collector.SPILL_DIR);
+        try {
+            directoryLock = lockDirectory(directory);
+            if (directoryLock == null) {
+                LOGGER.warn("Spill directory {} is used by another process, the spill is disabled.", directory);
+                return;
+            }
+            for (Type type : Type.values()) {
+                stores.put(type, new MappedSpillStore(
+                    new File(directory, type.name().toLowerCase()), Config.Collector.SPILL_MAX_SIZE));
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "Spill directory {} can't be used, the spill is disabled.", directory);
+            closeStores();
+            return;
+        }
+        started = true;
+        replayFuture = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleBlockingWithFixedDelay(
+            "SpillService",
+            new RunnableWithExceptionProtection(
+                this,
+                t -> LOGGER.error("Replay spilled data failure.", t)
+            ), 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void shutdown() {
+        if (replayFuture != null) {
+            replayFuture.cancel(true);
+        }
+        started = false;
+        closeStores();
+    }
+
+    private void closeStores() {
+        for (MappedSpillStore store : stores.values()) {
+            store.close();
+        }
+        stores.clear();
+        if (directoryLock != null) {
+            try {
+                directoryLock.channel().close();
+            } catch (IOException e) {
+                LOGGER.warn(e, "Fail to unlock the spill directory {}.", directory);
+            }
+            directoryLock = null;
+        }
+    }
+
+    /**
+     * Lock the spill directory for this process, the lock is released when its channel is closed.
+     *
+     * @return null if the directory is locked by another process, or by another store of this process.
+     * @throws IOException if the directory or the lock file can't be created, such as in a read-only agent package.
+     */
+    static FileLock lockDirectory(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Fail to create the spill directory " + directory);
+        }
+        FileChannel channel = new RandomAccessFile(new File(directory, "spill.lock"), "rw").getChannel();
+        FileLock lock = null;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ignored) {
+            // Locked in this JVM already.
+        } finally {
+            if (lock == null) {
+                channel.close();
+            }
+        }
+        return lock;
+    }
+
+    private static String toDirectoryName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._@-]", "_");
+    }
+
+    public boolean isEnabled() {
+        return started;
+    }
+
+    /**
+     * Set the replayer of the given type, called by the reporter when booting.
+     */
+    public synchronized void setReplayer(Type type, Replayer replayer) {
+        replayers.put(type, replayer);
+    }
+
+    /**
+     * Keep one serialized message until it can be replayed.
+     *
+     * @return false if the spill is disabled or shut down, or the message can't be kept.
+     */
+    public boolean spill(Type type, byte[] message) {
+        if (!started) {
+            return false;
+        }
+        // The stores are cleared by the shutdown, which could come after the started check.
+        MappedSpillStore store = stores.get(type);
+        if (store == null) {
+            return false;
+        }
+        try {
+            return store.append(message);
+        } catch (Throwable t) {
+            LOGGER.error(t, "Fail to spill {} data to disk.", type);
+            return false;
+        }
+    }
+
+    @Override
+    public void run() {
+        for (Type type : Type.values()) {
+            Replayer replayer;
+            synchronized (this) {
+                replayer = replayers.get(type);
+            }
+            MappedSpillStore store = stores.get(type);
+            if (store == null) {
+                return;
+            }
+            long evicted = store.getAndResetEvictedCounter();
+            if (evicted > 0) {
+                LOGGER.warn("{} spill files of {} data have been deleted before replay, cause by the size limit.",
+                            evicted, type
+                );
+            }
+            if (replayer == null) {
+                continue;
+            }
+            List<byte[]> messages = new ArrayList<>();
+            if (store.peek(Config.Collector.SPILL_REPLAY_RATE, messages) > 0 && replayer.replay(messages)) {
+                store.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+
+/**
+ * Partition the segments by the hash of their global trace id, so all segments of one trace go through the same
+ * channel, hence the same consumer, in the order they finished.
+ * <p>
+ * Retrying another channel when the chosen one is full would break that order, so there is no retry.
+ */
+public class TraceIdPartitioner implements IDataPartitioner<TraceSegment> {
+    @Override
+    public int partition(int total, TraceSegment segment) {
+        int hash = segment.getRelatedGlobalTrace().getId().hashCode();
+        // Mix the high bits in, the low bits of a String hash are weak for ids sharing a long prefix.
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % total;
+    }
+
+    @Override
+    public int maxRetryCount() {
+        return 1;
+    }
+}
@@ -19,10 +19,15 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.ClientCalls;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -31,13 +36,13 @@ import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentSerializer;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
@@ -47,26 +52,45 @@ import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONN
 @DefaultImplementor
 public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(TraceSegmentServiceClient.class);
+    /**
+     * The collect method of {@link TraceSegmentReportServiceGrpc}, taking the segments serialized by {@link
+     * TraceSegmentSerializer} rather than SegmentObject.
+     */
+    private static final MethodDescriptor<byte[], Commands> COLLECT_METHOD =
+        SerializedMessageMarshaller.serializedRequestOf(TraceSegmentReportServiceGrpc.getCollectMethod());
 
-    private long lastLogTime;
-    private long segmentUplinkedCounter;
-    private long segmentAbandonedCounter;
+    private volatile long lastLogTime;
+    private final AtomicLong segmentUplinkedCounter = new AtomicLong();
+    private final AtomicLong segmentAbandonedCounter = new AtomicLong();
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * The sending state of each consumer thread, as the consumer threads share this instance.
+     */
+    private final ThreadLocal<Uplink> uplink = ThreadLocal.withInitial(this::newUplink);
+    private final List<Uplink> uplinks = new CopyOnWriteArrayList<>();
+    private volatile SpillService spillService;
 
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+        spillService = ServiceManager.INSTANCE.findService(SpillService.class);
     }
 
     @Override
     public void boot() {
         lastLogTime = System.currentTimeMillis();
-        segmentUplinkedCounter = 0;
-        segmentAbandonedCounter = 0;
-        carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
-        carrier.consume(this, 1);
+        segmentUplinkedCounter.set(0);
+        segmentAbandonedCounter.set(0);
+        final int consumerSize = Math.max(1, Config.Collector.SEGMENT_CONSUMER_SIZE);
+        // Every consumer needs at least one channel of its own, otherwise some of them would have nothing to do.
+        carrier = new DataCarrier<>(Math.max(CHANNEL_SIZE, consumerSize), BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        carrier.setPartitioner(Config.Collector.SEGMENT_PARTITIONER.create());
+        carrier.consume(this, consumerSize);
+        if (spillService != null) {
+            spillService.setReplayer(SpillService.Type.SEGMENT, this::replay);
+        }
     }
 
     @Override
@@ -87,11 +111,40 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
+        final Uplink uplink = this.uplink.get();
+        if (CONNECTED.equals(status) && uplink.persistentStream != null) {
+            consumeByPersistentStream(uplink, data);
+        } else if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
-                Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            StreamObserver<byte[]> upstreamSegmentStreamObserver = newCollectStream(status, new AtomicBoolean());
+
+            try {
+                for (TraceSegment segment : data) {
+                    upstreamSegmentStreamObserver.onNext(uplink.serializer.serialize(segment));
+                    segment.recycle();
+                }
+            } catch (Throwable t) {
+                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+            }
+
+            upstreamSegmentStreamObserver.onCompleted();
+
+            status.wait4Finish();
+            segmentUplinkedCounter.addAndGet(data.size());
+        } else {
+            spillOrAbandon(uplink, data);
+        }
+
+        printUplinkStatus();
+    }
+
+    private StreamObserver<byte[]> newCollectStream(final GRPCStreamServiceStatus status, final AtomicBoolean failed) {
+        final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
+            Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+        );
+        return ClientCalls.asyncClientStreamingCall(
+            stub.getChannel().newCall(COLLECT_METHOD, stub.getCallOptions()),
+            new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -101,6 +154,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 @Override
                 public void onError(
                     Throwable throwable) {
+                    failed.set(true);
                     status.finished();
                     if (LOGGER.isErrorEnable()) {
                         LOGGER.error(
@@ -118,39 +172,78 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                     status.finished();
                 }
             });
+    }
 
-            try {
-                for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                }
-            } catch (Throwable t) {
-                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+    /**
+     * Keep the segments on disk through {@link SpillService} if it is enabled, otherwise they are abandoned.
+     */
+    private void spillOrAbandon(Uplink uplink, List<TraceSegment> segments) {
+        if (spillService == null || !spillService.isEnabled()) {
+            segmentAbandonedCounter.addAndGet(segments.size());
+            return;
+        }
+        for (TraceSegment segment : segments) {
+            if (!spillService.spill(SpillService.Type.SEGMENT, uplink.serializer.serialize(segment))) {
+                segmentAbandonedCounter.incrementAndGet();
             }
+            segment.recycle();
+        }
+    }
 
-            upstreamSegmentStreamObserver.onCompleted();
-
-            status.wait4Finish();
-            segmentUplinkedCounter += data.size();
-        } else {
-            segmentAbandonedCounter += data.size();
+    /**
+     * Send the spilled segments in a new stream, see {@link SpillService.Replayer}.
+     */
+    private boolean replay(List<byte[]> segments) {
+        if (!CONNECTED.equals(status)) {
+            return false;
+        }
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final AtomicBoolean failed = new AtomicBoolean();
+        StreamObserver<byte[]> upstreamSegmentStreamObserver = newCollectStream(status, failed);
+        for (byte[] segment : segments) {
+            upstreamSegmentStreamObserver.onNext(segment);
         }
+        upstreamSegmentStreamObserver.onCompleted();
+        status.wait4Finish();
+        if (!failed.get()) {
+            segmentUplinkedCounter.addAndGet(segments.size());
+        }
+        return !failed.get();
+    }
 
-        printUplinkStatus();
+    private void consumeByPersistentStream(Uplink uplink, List<TraceSegment> data) {
+        int sent = 0;
+        try {
+            for (TraceSegment segment : data) {
+                // Follow the flow control per segment, the consumer only parks when the stream isn't ready.
+                if (!uplink.persistentStream.awaitReady(serviceStub)
+                    || !uplink.persistentStream.send(uplink.serializer.serialize(segment))) {
+                    // The stream is stuck or broken, spill or abandon the rest of the batch rather than retry.
+                    break;
+                }
+                segment.recycle();
+                sent++;
+            }
+        } catch (Throwable t) {
+            LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+        }
+        segmentUplinkedCounter.addAndGet(sent);
+        if (sent < data.size()) {
+            spillOrAbandon(uplink, data.subList(sent, data.size()));
+        }
     }
 
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
             lastLogTime = currentTimeMillis;
-            if (segmentUplinkedCounter > 0) {
-                LOGGER.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
-                segmentUplinkedCounter = 0;
+            long uplinked = segmentUplinkedCounter.getAndSet(0);
+            if (uplinked > 0) {
+                LOGGER.debug("{} trace segments have been sent to collector.", uplinked);
             }
-            if (segmentAbandonedCounter > 0) {
-                LOGGER.debug(
-                    "{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
-                segmentAbandonedCounter = 0;
+            long abandoned = segmentAbandonedCounter.getAndSet(0);
+            if (abandoned > 0) {
+                LOGGER.debug("{} trace segments have been abandoned, cause by no available channel.", abandoned);
             }
         }
     }
@@ -162,7 +255,20 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void onExit() {
+        final Uplink uplink = this.uplink.get();
+        if (uplink.persistentStream != null) {
+            uplink.persistentStream.close();
+        }
+        uplinks.remove(uplink);
+        this.uplink.remove();
+    }
 
+    @Override
+    public void nothingToConsume() {
+        final Uplink uplink = this.uplink.get();
+        if (uplink.persistentStream != null) {
+            uplink.persistentStream.rotateIfNecessary();
+        }
     }
 
     @Override
@@ -183,6 +289,30 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             Channel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class).getChannel();
             serviceStub = TraceSegmentReportServiceGrpc.newStub(channel);
         }
+        for (Uplink uplink : uplinks) {
+            if (uplink.persistentStream != null) {
+                uplink.persistentStream.reset();
+            }
+        }
         this.status = status;
     }
+
+    private Uplink newUplink() {
+        Uplink uplink = new Uplink(
+            Config.Collector.SEGMENT_STREAM_PERSISTENT ? new PersistentSegmentStream(COLLECT_METHOD) : null);
+        uplinks.add(uplink);
+        return uplink;
+    }
+
+    /**
+     * The serializer and the stream of one consumer thread, neither of them is thread-safe.
+     */
+    private static class Uplink {
+        private final TraceSegmentSerializer serializer = new TraceSegmentSerializer();
+        private final PersistentSegmentStream persistentStream;
+
+        private Uplink(PersistentSegmentStream persistentStream) {
+            this.persistentStream = persistentStream;
+        }
+    }
 }
@@ -18,14 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.sampling;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
@@ -33,6 +30,7 @@ import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SamplingRateWat
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
@@ -51,7 +49,6 @@ public class SamplingService implements BootService {
     private volatile ScheduledFuture<?> scheduledFuture;
 
     private SamplingRateWatcher samplingRateWatcher;
-    private ScheduledExecutorService service;
 
     @Override
     public void prepare() {
@@ -59,8 +56,6 @@ public class SamplingService implements BootService {
 
     @Override
     public void boot() {
-        service = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("SamplingService"));
         samplingRateWatcher = new SamplingRateWatcher("agent.sample_n_per_3_secs", this);
         ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
                                .registerAgentConfigChangeWatcher(samplingRateWatcher);
@@ -109,6 +104,13 @@ public class SamplingService implements BootService {
         }
     }
 
+    /**
+     * @return the current value of {@link Config.Agent#SAMPLE_N_PER_3_SECS}, which could be changed dynamically.
+     */
+    protected int getSamplingRate() {
+        return samplingRateWatcher.getSamplingRate();
+    }
+
     private void resetSamplingFactor() {
         samplingFactorHolder = new AtomicInteger(0);
     }
@@ -121,8 +123,9 @@ public class SamplingService implements BootService {
             if (!on) {
                 on = true;
                 this.resetSamplingFactor();
-                scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                    this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
+                scheduledFuture = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+                    "SamplingService", new RunnableWithExceptionProtection(
+                        this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
                 LOGGER.debug(
                     "Agent sampling mechanism started. Sample {} traces in 3 seconds.",
                     samplingRateWatcher.getSamplingRate()
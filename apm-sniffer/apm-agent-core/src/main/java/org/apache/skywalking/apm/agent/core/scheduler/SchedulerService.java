@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.meter.Gauge;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+
+/**
+ * The agent-wide scheduler, running the periodical tasks of the kernel services and the plugins in a small pool of
+ * {@link Config.Agent#SCHEDULER_THREAD_SIZE} threads, instead of a thread per task.
+ * <p>
+ * As the tasks share the threads, a slow task delays the others. The tasks which could block for long, such as waiting
+ * for the backend, are scheduled by the {@code scheduleBlocking*} methods, and run in a second pool of {@link
+ * Config.Agent#SCHEDULER_BLOCKING_THREAD_SIZE} threads instead, so they only delay each other. Their calls are bounded
+ * by the gRPC deadlines the callers set. Each task is named, and the max delay of its runs since the last meter report
+ * is reported as the {@code scheduled_task_lag} gauge in milliseconds, tagged by the task name. Once all the periodical
+ * tasks of a name are cancelled, its gauge is unregistered.
+ * <p>
+ * The tasks should keep their own exception protection, as a periodical task throwing an exception is never run again.
+ */
+@DefaultImplementor
+public class SchedulerService implements BootService {
+    private final ScheduledThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor blockingExecutor;
+    private final Map<String, TaskLag> lags = new ConcurrentHashMap<>();
+
+    public SchedulerService() {
+        executor = newExecutor(Math.max(1, Config.Agent.SCHEDULER_THREAD_SIZE), "Scheduler");
+        blockingExecutor = newExecutor(Math.max(1, Config.Agent.SCHEDULER_BLOCKING_THREAD_SIZE), "BlockingScheduler");
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#scheduleAtFixedRate(Runnable, long, long, TimeUnit)
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String name, Runnable task, long initialDelay, long period,
+                                                  TimeUnit unit) {
+        return scheduleAtFixedRate(executor, name, task, initialDelay, period, unit);
+    }
+
+    /**
+     * Same as {@link #scheduleAtFixedRate(String, Runnable, long, long, TimeUnit)}, in the pool of the blocking tasks,
+     * for the task which could block for long.
+     */
+    public ScheduledFuture<?> scheduleBlockingAtFixedRate(String name, Runnable task, long initialDelay, long period,
+                                                          TimeUnit unit) {
+        return scheduleAtFixedRate(blockingExecutor, name, task, initialDelay, period, unit);
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#scheduleWithFixedDelay(Runnable, long, long, TimeUnit)
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable task, long initialDelay, long delay,
+                                                     TimeUnit unit) {
+        return scheduleWithFixedDelay(executor, name, task, initialDelay, delay, unit);
+    }
+
+    /**
+     * Same as {@link #scheduleWithFixedDelay(String, Runnable, long, long, TimeUnit)}, in the pool of the blocking
+     * tasks, for the task which could block for long.
+     */
+    public ScheduledFuture<?> scheduleBlockingWithFixedDelay(String name, Runnable task, long initialDelay, long delay,
+                                                             TimeUnit unit) {
+        return scheduleWithFixedDelay(blockingExecutor, name, task, initialDelay, delay, unit);
+    }
+
+    private ScheduledFuture<?> scheduleAtFixedRate(ScheduledThreadPoolExecutor executor, String name, Runnable task,
+                                                   long initialDelay, long period, TimeUnit unit) {
+        long start = System.nanoTime() + unit.toNanos(initialDelay);
+        long periodInNanos = unit.toNanos(period);
+        TaskLag lag = lagOf(name, true);
+        return new ReleaseOnCancelFuture(executor.scheduleAtFixedRate(new Runnable() {
+            private long expected = start;
+
+            @Override
+            public void run() {
+                lag.update(System.nanoTime() - expected);
+                expected += periodInNanos;
+                task.run();
+            }
+        }, initialDelay, period, unit), lag);
+    }
+
+    private ScheduledFuture<?> scheduleWithFixedDelay(ScheduledThreadPoolExecutor executor, String name, Runnable task,
+                                                      long initialDelay, long delay, TimeUnit unit) {
+        long start = System.nanoTime() + unit.toNanos(initialDelay);
+        long delayInNanos = unit.toNanos(delay);
+        TaskLag lag = lagOf(name, true);
+        return new ReleaseOnCancelFuture(executor.scheduleWithFixedDelay(new Runnable() {
+            private long expected = start;
+
+            @Override
+            public void run() {
+                lag.update(System.nanoTime() - expected);
+                try {
+                    task.run();
+                } finally {
+                    expected = System.nanoTime() + delayInNanos;
+                }
+            }
+        }, initialDelay, delay, unit), lag);
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#schedule(Runnable, long, TimeUnit)
+     */
+    public ScheduledFuture<?> schedule(String name, Runnable task, long delay, TimeUnit unit) {
+        long expected = System.nanoTime() + unit.toNanos(delay);
+        TaskLag lag = lagOf(name, false);
+        return executor.schedule(() -> {
+            lag.update(System.nanoTime() - expected);
+            task.run();
+        }, delay, unit);
+    }
+
+    private static ScheduledThreadPoolExecutor newExecutor(int threadSize, String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+            threadSize, new DefaultNamedThreadFactory(name));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * @param periodical true if the task holds the lag until cancelled. The one-shot tasks don't, their names are
+     *                   fixed in the code, so their lags are bounded.
+     */
+    private TaskLag lagOf(String name, boolean periodical) {
+        return lags.compute(name, (key, existing) -> {
+            TaskLag lag = existing == null ? new TaskLag(key) : existing;
+            if (periodical) {
+                lag.periodicalTasks++;
+            }
+            if (ServiceManager.INSTANCE.isBooted()) {
+                lag.register();
+            }
+            return lag;
+        });
+    }
+
+    /**
+     * Release the lag held by a cancelled periodical task, and drop the lag of the name when no periodical task is
+     * left.
+     */
+    private void release(TaskLag lag) {
+        lags.computeIfPresent(lag.name, (key, existing) -> {
+            if (existing != lag || --existing.periodicalTasks > 0) {
+                return existing;
+            }
+            existing.unregister();
+            return null;
+        });
+    }
+
+    /**
+     * @return the max lag of the task in nanoseconds since the last call, or -1 if the task is unknown.
+     */
+    long drainMaxLag(String name) {
+        TaskLag lag = lags.get(name);
+        return lag == null ? -1 : lag.drain();
+    }
+
+    @Override
+    public void prepare() throws Throwable {
+
+    }
+
+    @Override
+    public void boot() throws Throwable {
+
+    }
+
+    @Override
+    public void onComplete() throws Throwable {
+        // The meter service is ready now, register the lags of the tasks scheduled during the boot.
+        lags.values().forEach(TaskLag::register);
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        executor.shutdownNow();
+        blockingExecutor.shutdownNow();
+    }
+
+    /**
+     * Start first and shut down last, so other services could use the scheduler in any stage.
+     */
+    @Override
+    public int priority() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Releases the lag of the periodical task once it is cancelled.
+     */
+    private class ReleaseOnCancelFuture implements ScheduledFuture<Object> {
+        private final ScheduledFuture<?> future;
+        private final TaskLag lag;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnCancelFuture(ScheduledFuture<?> future, TaskLag lag) {
+            this.future = future;
+            this.lag = lag;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = future.cancel(mayInterruptIfRunning);
+            // A periodical task is done before cancelled only if it threw, still release it.
+            if (released.compareAndSet(false, true)) {
+                release(lag);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return future.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return future.compareTo(o);
+        }
+    }
+
+    private static class TaskLag {
+        private final String name;
+        private final AtomicLong maxLagInNanos = new AtomicLong();
+        /**
+         * Guarded by the {@code lags} map, only changed in its compute functions.
+         */
+        private int periodicalTasks;
+        private Gauge gauge;
+
+        private TaskLag(String name) {
+            this.name = name;
+        }
+
+        private void update(long lagInNanos) {
+            if (lagInNanos > maxLagInNanos.get()) {
+                maxLagInNanos.accumulateAndGet(lagInNanos, Math::max);
+            }
+        }
+
+        private long drain() {
+            return maxLagInNanos.getAndSet(0);
+        }
+
+        private synchronized void register() {
+            if (gauge != null) {
+                return;
+            }
+            gauge = MeterFactory.gauge("scheduled_task_lag", () -> drain() / 1_000_000d)
+                                .tag("task_name", name)
+                                .build();
+        }
+
+        private synchronized void unregister() {
+            if (gauge == null) {
+                return;
+            }
+            ServiceManager.INSTANCE.findService(MeterService.class).unregister(gauge);
+            gauge = null;
+        }
+    }
+}
@@ -36,7 +36,7 @@ public class AgentSo11y {
     private static final Map<String, Counter> ERROR_COUNTER_CACHE = new ConcurrentHashMap<>();
 
     // Steps of interceptor time cost histogram
-    private static final List<Double> TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
+    static final List<Double> TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
         1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
         1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
     );
@@ -157,6 +157,13 @@ public class AgentSo11y {
             // Skip when the services are not ready to avoid MeterService status is not initialized.
             return;
         }
+        recordInterceptorDuration(timeCostInNanos);
+    }
+
+    /**
+     * Record the time cost of an interceptor, once the services are booted.
+     */
+    static void recordInterceptorDuration(double timeCostInNanos) {
         if (INTERCEPTOR_TIME_COST == null) {
             INTERCEPTOR_TIME_COST = MeterFactory
                 .histogram("tracing_context_performance")
@@ -173,6 +180,11 @@ public class AgentSo11y {
             // Skip when the services are not ready to avoid MeterService status is not initialized.
             return;
         }
+        int typeIndex = PluginMeters.typeIndex(interType);
+        if (typeIndex >= 0) {
+            PluginMeters.of(pluginName).errorCounter(typeIndex).increment(1);
+            return;
+        }
         Counter counter = ERROR_COUNTER_CACHE.computeIfAbsent(pluginName + interType, key -> MeterFactory
             .counter("interceptor_error_counter")
             .tag("plugin_name", pluginName)
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The self-observability of one interceptor. It is resolved once when the interceptor is created, so the intercepted
+ * calls only touch the preallocated meters of the plugin.
+ * <p>
+ * The time cost is sampled, 1 in {@link Config.Meter#INTERCEPTOR_TIME_COST_SAMPLE_RATE} calls, and the calls out of
+ * the sample don't read the clock at all. The time cost of every plugin is only recorded when {@link
+ * Config.Meter#INTERCEPTOR_TIME_COST_PER_PLUGIN} is on. The errors are always counted.
+ */
+public class InterceptorSo11y {
+    /**
+     * Set by {@link ServiceManager} when the services are booted and cleared when they are shut down, so the sampled
+     * calls read one static flag instead of looking the boot status up.
+     */
+    private static volatile boolean BOOTED = false;
+
+    private final PluginMeters plugin;
+    private final String pluginName;
+    private final String interType;
+    private final int typeIndex;
+
+    private InterceptorSo11y(String pluginName, String interType) {
+        this.plugin = PluginMeters.of(pluginName);
+        this.pluginName = pluginName;
+        this.interType = interType;
+        this.typeIndex = PluginMeters.typeIndex(interType);
+    }
+
+    /**
+     * @param pluginName the name of the plugin defining the interceptor.
+     * @param interType  inst, static or constructor.
+     */
+    public static InterceptorSo11y of(String pluginName, String interType) {
+        return new InterceptorSo11y(pluginName, interType);
+    }
+
+    /**
+     * Called when the services are booted, the meters could be recorded since then.
+     */
+    public static void onBooted() {
+        BOOTED = true;
+    }
+
+    /**
+     * Called before the services are shut down, the meters are not recorded since then.
+     */
+    public static void onShutdown() {
+        BOOTED = false;
+    }
+
+    static boolean isBooted() {
+        return BOOTED;
+    }
+
+    /**
+     * @return true if the time cost of this call should be measured.
+     */
+    public boolean sample() {
+        int rate = Config.Meter.INTERCEPTOR_TIME_COST_SAMPLE_RATE;
+        return rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+
+    /**
+     * Record the time cost of a sampled call.
+     */
+    public void duration(long timeCostInNanos) {
+        if (!BOOTED) {
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        AgentSo11y.recordInterceptorDuration(timeCostInNanos);
+        if (Config.Meter.INTERCEPTOR_TIME_COST_PER_PLUGIN) {
+            plugin.timeCost().addValue(timeCostInNanos);
+        }
+    }
+
+    public void error() {
+        if (typeIndex < 0) {
+            AgentSo11y.errorOfPlugin(pluginName, interType);
+            return;
+        }
+        if (!BOOTED) {
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        plugin.errorCounter(typeIndex).increment(1);
+    }
+}
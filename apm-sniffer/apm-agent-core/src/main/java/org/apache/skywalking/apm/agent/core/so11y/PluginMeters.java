@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.Histogram;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+
+/**
+ * The self-observability meters of one plugin, shared by all its interceptors. The error counters are kept in a slot
+ * per interceptor type, so recording an error never builds a key or looks up a map.
+ */
+class PluginMeters {
+    static final String[] INTERCEPTOR_TYPES = {
+        "inst",
+        "static",
+        "constructor"
+    };
+
+    private static final Map<String, PluginMeters> PLUGINS = new ConcurrentHashMap<>();
+
+    private final String pluginName;
+    private final Counter[] errorCounters = new Counter[INTERCEPTOR_TYPES.length];
+    private volatile Histogram timeCost;
+
+    private PluginMeters(String pluginName) {
+        this.pluginName = pluginName;
+    }
+
+    static PluginMeters of(String pluginName) {
+        return PLUGINS.computeIfAbsent(pluginName, PluginMeters::new);
+    }
+
+    /**
+     * @return the slot of the interceptor type, or -1 if it is unknown.
+     */
+    static int typeIndex(String interType) {
+        for (int i = 0; i < INTERCEPTOR_TYPES.length; i++) {
+            if (INTERCEPTOR_TYPES[i].equals(interType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The meters are built at the first use. Concurrent builds are harmless, as the meter service keeps the first
+     * registered one of the same id.
+     */
+    Histogram timeCost() {
+        Histogram histogram = timeCost;
+        if (histogram == null) {
+            histogram = MeterFactory.histogram("interceptor_time_cost")
+                                    .tag("plugin_name", pluginName)
+                                    .steps(AgentSo11y.TIME_COST_HISTOGRAM_STEPS)
+                                    .build();
+            timeCost = histogram;
+        }
+        return histogram;
+    }
+
+    Counter errorCounter(int typeIndex) {
+        Counter counter = errorCounters[typeIndex];
+        if (counter == null) {
+            counter = MeterFactory.counter("interceptor_error_counter")
+                                  .tag("plugin_name", pluginName)
+                                  .tag("inter_type", INTERCEPTOR_TYPES[typeIndex])
+                                  .build();
+            errorCounters[typeIndex] = counter;
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The expression of {@link CustomizeExpression}, such as <code>arg[0].user.getName()</code> or
+ * <code>returnedObj.['key']</code>, parsed once into its root and the hops reading the value. A field or method hop
+ * keeps the method handle resolved for every receiver class in a {@link ClassValue}, so the evaluation doesn't look the
+ * members up by reflection, and reads the arguments without building a context map. The handles are kept by the
+ * receiver classes, and don't keep them, or their class loaders, alive.
+ */
+public final class CompiledExpression {
+    private static final ILog LOGGER = LogManager.getLogger(CompiledExpression.class);
+
+    private static final String RETURNED_OBJ = "returnedObj";
+    private static final String NULL = "null";
+    private static final int MAX_COMPILED = 1024;
+    private static final Map<String, CompiledExpression> COMPILED = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final String root;
+    private final int argumentIndex;
+    private final Hop[] hops;
+
+    /**
+     * @return the compiled expression, cached by the expression, up to {@link #MAX_COMPILED} expressions.
+     */
+    public static CompiledExpression compile(String expression) {
+        CompiledExpression compiled = COMPILED.get(expression);
+        if (compiled == null) {
+            if (COMPILED.size() >= MAX_COMPILED) {
+                return new CompiledExpression(expression);
+            }
+            compiled = COMPILED.computeIfAbsent(expression, CompiledExpression::new);
+        }
+        return compiled;
+    }
+
+    private CompiledExpression(String expression) {
+        this.expression = expression;
+        String[] es = expression.split("\\.");
+        root = es[0];
+        argumentIndex = parseArgumentIndex(root);
+        hops = new Hop[es.length - 1];
+        for (int i = 1; i < es.length; i++) {
+            hops[i - 1] = new Hop(es[i]);
+        }
+    }
+
+    /**
+     * @return the index of the <code>arg[index]</code> root, or -1 for the other roots.
+     */
+    private static int parseArgumentIndex(String root) {
+        if (root.startsWith("arg[") && root.endsWith("]")) {
+            String index = root.substring(4, root.length() - 1);
+            try {
+                int i = Integer.parseInt(index);
+                // the same key as the "arg[" + i + "]" of the evaluation context
+                return i >= 0 && String.valueOf(i).equals(index) ? i : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the expression reads the returned object.
+     */
+    public boolean isReturnedObj() {
+        return RETURNED_OBJ.equals(root);
+    }
+
+    /**
+     * @return the value of an <code>arg[index]</code> expression, or "null" if it has no value.
+     */
+    public String evaluate(Object[] allArguments) {
+        if (argumentIndex < 0 || allArguments == null || argumentIndex >= allArguments.length) {
+            return NULL;
+        }
+        return evaluateRoot(allArguments[argumentIndex]);
+    }
+
+    /**
+     * @return the value of a <code>returnedObj</code> expression, or "null" if it has no value.
+     */
+    public String evaluateReturnedObj(Object ret) {
+        return isReturnedObj() ? evaluateRoot(ret) : NULL;
+    }
+
+    String getRoot() {
+        return root;
+    }
+
+    String evaluateRoot(Object rootValue) {
+        if (rootValue == null) {
+            return NULL;
+        }
+        try {
+            Object o = rootValue;
+            for (Hop hop : hops) {
+                o = hop.read(o);
+                if (o == null) {
+                    return NULL;
+                }
+            }
+            return String.valueOf(o);
+        } catch (Throwable t) {
+            LOGGER.debug("parse expression error, expression is {}, exception is {}", expression, t.getMessage());
+        }
+        return NULL;
+    }
+
+    /**
+     * A part of the expression after the root, reading a map key, a list or array element, a field or the result of a
+     * no-argument method, by the type of the value it reads.
+     */
+    private static final class Hop {
+        private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodHandle NULL_READER = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+
+        private final String expression;
+        private final String mapKey;
+        private final int index;
+        private final String memberName;
+        private final boolean method;
+        /**
+         * The accessors of the receiver classes, resolved once per class.
+         */
+        private final ClassValue<MethodHandle> accessors = new ClassValue<MethodHandle>() {
+            @Override
+            protected MethodHandle computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+
+        private Hop(String expression) {
+            this.expression = expression;
+            this.mapKey = expression.replace("['", "").replace("']", "");
+            this.index = parseIndex(expression);
+            this.method = expression.contains("()");
+            this.memberName = method ? expression.replace("()", "") : expression;
+        }
+
+        private static int parseIndex(String expression) {
+            try {
+                return Integer.parseInt(expression.replace("[", "").replace("]", ""));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private Object read(Object o) throws Throwable {
+            if (o instanceof Map) {
+                return ((Map) o).get(mapKey);
+            } else if (o instanceof List) {
+                List l = (List) o;
+                return index >= 0 && l.size() > index ? l.get(index) : null;
+            } else if (o instanceof Object[]) {
+                Object[] array = (Object[]) o;
+                return index >= 0 && array.length > index ? array[index] : null;
+            }
+            Class<?> type = o.getClass();
+            if (type.isArray()) {
+                return index >= 0 && Array.getLength(o) > index ? Array.get(o, index) : null;
+            }
+            return (Object) accessors.get(type).invokeExact(o);
+        }
+
+        /**
+         * @return the handle reading the member of the type, or reading null if the member is not accessible.
+         */
+        private MethodHandle resolve(Class<?> type) {
+            try {
+                MethodHandle handle;
+                if (method) {
+                    Method m = type.getMethod(memberName);
+                    m.setAccessible(true);
+                    handle = MethodHandles.lookup().unreflect(m);
+                } else {
+                    Field f = type.getDeclaredField(memberName);
+                    f.setAccessible(true);
+                    handle = MethodHandles.lookup().unreflectGetter(f);
+                }
+                if (handle.type().parameterCount() == 0) {
+                    // a static member ignores the receiver
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(READER_TYPE);
+            } catch (Exception e) {
+                LOGGER.debug("matcher default error, expression is {}, class is {}, exception is {}", expression, type, e.getMessage());
+            }
+            return NULL_READER;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The cache of the names formatted by the plugins for every call, such as the operation names, URLs and peers of an RPC
+ * method, so the same strings aren't built again and again. The names are cached by their owner, an object living as
+ * long as the names, such as the URL of an RPC service or the descriptor of an RPC method, and by a key telling the
+ * names of the same owner apart, such as the method name and parameter types.
+ * <p>
+ * The owners are compared by identity and referenced weakly, so a cache doesn't keep the owners, or their class
+ * loaders, alive. The number of the cached names is bounded by {@link Config.Plugin#NAME_CACHE_SIZE}, the names beyond
+ * it are not cached.
+ */
+public class NameCache {
+    private final Map<Object, Map<Object, String>> owners = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    public NameCache() {
+        this(Config.Plugin.NAME_CACHE_SIZE);
+    }
+
+    public NameCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the name cached for the owner and key, or null if none.
+     */
+    public String get(Object owner, Object key) {
+        Map<Object, String> names = owners.get(new OwnerLookup(owner));
+        return names == null ? null : names.get(key);
+    }
+
+    /**
+     * Cache the name for the owner and key, unless the cache is full.
+     *
+     * @return the name cached for the owner and key, the given name if none was.
+     */
+    public String put(Object owner, Object key, String name) {
+        purgeCollectedOwners();
+        if (size.get() >= maxSize) {
+            return name;
+        }
+        Map<Object, String> names = owners.get(new OwnerLookup(owner));
+        if (names == null) {
+            names = new ConcurrentHashMap<>();
+            Map<Object, String> previous = owners.putIfAbsent(new OwnerReference(owner, collectedOwners), names);
+            if (previous != null) {
+                names = previous;
+            }
+        }
+        String previous = names.putIfAbsent(key, name);
+        if (previous != null) {
+            return previous;
+        }
+        size.incrementAndGet();
+        return name;
+    }
+
+    /**
+     * @return the number of the cached names.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void purgeCollectedOwners() {
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            Map<Object, String> names = owners.remove(reference);
+            if (names != null) {
+                size.addAndGet(-names.size());
+            }
+        }
+    }
+
+    /**
+     * The key of an owner in the cache, equal to the other references and the lookups of the same owner.
+     */
+    private static final class OwnerReference extends WeakReference<Object> {
+        private final int hash;
+
+        private OwnerReference(Object owner, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            hash = System.identityHashCode(owner);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OwnerReference)) {
+                return false;
+            }
+            Object owner = get();
+            return owner != null && owner == ((OwnerReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The key looking an owner up, without registering a reference for every lookup.
+     */
+    private static final class OwnerLookup {
+        private final Object owner;
+
+        private OwnerLookup(Object owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof OwnerReference && ((OwnerReference) o).get() == owner;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(owner);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AsyncProfilerDataUploaderTest {
+
+    @Test
+    public void testSendChunksWhenReady() {
+        byte[] bytes = new byte[10];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        FakeRequestStream requestStream = new FakeRequestStream();
+        AsyncProfilerDataUploader uploader = new AsyncProfilerDataUploader(
+            ByteBuffer.wrap(bytes), 4, new GRPCStreamServiceStatus(false));
+        uploader.beforeStart(requestStream);
+
+        requestStream.readyMessages = 1;
+        uploader.onNext(AsyncProfilerCollectionResponse.newBuilder().build());
+        Assert.assertEquals(1, requestStream.chunks.size());
+        Assert.assertEquals(0, requestStream.completed);
+
+        requestStream.readyMessages = 10;
+        requestStream.onReadyHandler.run();
+        Assert.assertEquals(3, requestStream.chunks.size());
+        Assert.assertEquals(1, requestStream.completed);
+
+        ByteBuffer uploaded = ByteBuffer.allocate(bytes.length);
+        for (AsyncProfilerData chunk : requestStream.chunks) {
+            uploaded.put(chunk.getContent().asReadOnlyByteBuffer());
+        }
+        Assert.assertArrayEquals(bytes, uploaded.array());
+
+        requestStream.onReadyHandler.run();
+        Assert.assertEquals(3, requestStream.chunks.size());
+        Assert.assertEquals(1, requestStream.completed);
+    }
+
+    @Test
+    public void testCompleteWhenOversize() {
+        FakeRequestStream requestStream = new FakeRequestStream();
+        AsyncProfilerDataUploader uploader = new AsyncProfilerDataUploader(
+            ByteBuffer.wrap(new byte[10]), 4, new GRPCStreamServiceStatus(false));
+        uploader.beforeStart(requestStream);
+
+        requestStream.readyMessages = 10;
+        uploader.onNext(AsyncProfilerCollectionResponse.newBuilder()
+                                                       .setType(AsyncProfilingStatus.TERMINATED_BY_OVERSIZE)
+                                                       .build());
+        requestStream.onReadyHandler.run();
+        Assert.assertEquals(0, requestStream.chunks.size());
+        Assert.assertEquals(1, requestStream.completed);
+    }
+
+    @Test
+    public void testStopSendingWhenReleased() {
+        FakeRequestStream requestStream = new FakeRequestStream();
+        AsyncProfilerDataUploader uploader = new AsyncProfilerDataUploader(
+            ByteBuffer.wrap(new byte[10]), 4, new GRPCStreamServiceStatus(false));
+        uploader.beforeStart(requestStream);
+
+        requestStream.readyMessages = 1;
+        uploader.onNext(AsyncProfilerCollectionResponse.newBuilder().build());
+        Assert.assertEquals(1, requestStream.chunks.size());
+
+        uploader.release();
+        requestStream.readyMessages = 10;
+        requestStream.onReadyHandler.run();
+        Assert.assertEquals(1, requestStream.chunks.size());
+        Assert.assertEquals(0, requestStream.completed);
+    }
+
+    private static class FakeRequestStream extends ClientCallStreamObserver<AsyncProfilerData> {
+        private final List<AsyncProfilerData> chunks = new ArrayList<>();
+        private Runnable onReadyHandler;
+        private int readyMessages;
+        private int completed;
+
+        @Override
+        public boolean isReady() {
+            return readyMessages > 0;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void onNext(AsyncProfilerData value) {
+            readyMessages--;
+            chunks.add(value);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed++;
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+    }
+}
@@ -18,11 +18,25 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentSerializer;
+import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
@@ -50,6 +64,70 @@ public class ContextManagerBenchmark {
         bh.consume(Map.class.isAssignableFrom(HashMap.class));
     }
 
+    /**
+     * Create a segment with an entry span, a local span and an exit span, then serialize it as the reporters do.
+     * Compare the allocation rate with and without {@link Config.Agent#SPAN_RECYCLE_ENABLE}.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void traceSegmentLifecycle(SegmentState state) {
+        TracingContext tracingContext = new TracingContext("/url", state.spanLimitWatcher);
+        AbstractSpan entrySpan = tracingContext.createEntrySpan("/url");
+        Tags.URL.set(entrySpan, "http://localhost:8080/url");
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+
+        AbstractSpan localSpan = tracingContext.createLocalSpan("/java-bean");
+        AbstractSpan exitSpan = tracingContext.createExitSpan("/mysql", "localhost:3306");
+        Tags.DB_TYPE.set(exitSpan, "sql");
+        Tags.DB_INSTANCE.set(exitSpan, "test");
+        Tags.DB_STATEMENT.set(exitSpan, "select * from test");
+        tracingContext.stopSpan(exitSpan);
+        tracingContext.stopSpan(localSpan);
+
+        tracingContext.stopSpan(entrySpan);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SegmentState implements TracingContextListener {
+        @Param({
+            "false",
+            "true"
+        })
+        private boolean recycle;
+
+        private final SpanLimitWatcher spanLimitWatcher = new SpanLimitWatcher("agent.span_limit_per_segment");
+
+        private final TraceSegmentSerializer serializer = new TraceSegmentSerializer();
+
+        private volatile byte[] lastSegment;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Config.Agent.KEEP_TRACING = true;
+            Config.Agent.SPAN_RECYCLE_ENABLE = recycle;
+            ServiceManager.INSTANCE.boot();
+            // No backend in the benchmark, serialize the segments in place of the reporter.
+            TracingContext.ListenerManager.remove(ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class));
+            TracingContext.ListenerManager.add(this);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            TracingContext.ListenerManager.remove(this);
+            ServiceManager.INSTANCE.shutdown();
+            Config.Agent.KEEP_TRACING = false;
+            Config.Agent.SPAN_RECYCLE_ENABLE = false;
+        }
+
+        @Override
+        public void afterFinished(TraceSegment traceSegment) {
+            lastSegment = serializer.serialize(traceSegment);
+            traceSegment.recycle();
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ContextManagerBenchmark.class.getSimpleName())
                 .addProfiler(GCProfiler.class)
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Round trip of the sw8 and sw8-correlation headers, injected at an exit span and extracted at the entry span of the
+ * next service, by the split/join and {@link Base64} codec replaced by {@link SW8HeaderCodec} and by {@link
+ * SW8HeaderCodec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PropagationHeaderBenchmark {
+    private final ContextCarrier carrier = new ContextCarrier();
+    private final SW8HeaderCodec.EncodedFields encodedFields = new SW8HeaderCodec.EncodedFields();
+    private final Map<String, String> correlation = new ConcurrentHashMap<>();
+
+    private final ContextCarrier extracted = new ContextCarrier();
+    private final Map<String, String> extractedCorrelation = new ConcurrentHashMap<>();
+
+    {
+        carrier.setTraceId("5bb8a0d2c9f24ad2a7f1e7f3d2c6e9a1.71.17001234567890001");
+        carrier.setTraceSegmentId("5bb8a0d2c9f24ad2a7f1e7f3d2c6e9a1.71.17001234567890002");
+        carrier.setSpanId(3);
+        carrier.setParentService("order-service");
+        carrier.setParentServiceInstance("2c1f0e8a7b6d4c3e9f1a2b3c4d5e6f70@10.0.12.34");
+        carrier.setParentEndpoint("POST:/api/v1/orders/{orderId}/items");
+        carrier.setAddressUsedAtClient("inventory-service.prod.svc:8080");
+        correlation.put("tenant", "acme");
+        correlation.put("region", "eu-west-1");
+    }
+
+    @Benchmark
+    public ContextCarrier legacyRoundTrip() {
+        final String sw8 = legacySerialize(carrier);
+        final String sw8Correlation = legacySerializeCorrelation(correlation);
+
+        legacyDeserialize(sw8, extracted);
+        legacyDeserializeCorrelation(sw8Correlation, extractedCorrelation);
+        return extracted;
+    }
+
+    @Benchmark
+    public ContextCarrier codecRoundTrip() {
+        final String sw8 = SW8HeaderCodec.encode(carrier, encodedFields);
+        final String sw8Correlation = SW8HeaderCodec.encodeCorrelation(correlation);
+
+        SW8HeaderCodec.decode(sw8, extracted);
+        SW8HeaderCodec.decodeCorrelation(sw8Correlation, extractedCorrelation);
+        return extracted;
+    }
+
+    /**
+     * The carrier isn't injected by a tracing context, so none of the fields is cached.
+     */
+    @Benchmark
+    public ContextCarrier codecRoundTripWithoutFieldCache() {
+        final String sw8 = SW8HeaderCodec.encode(carrier, null);
+        final String sw8Correlation = SW8HeaderCodec.encodeCorrelation(correlation);
+
+        SW8HeaderCodec.decode(sw8, extracted);
+        SW8HeaderCodec.decodeCorrelation(sw8Correlation, extractedCorrelation);
+        return extracted;
+    }
+
+    private static String legacySerialize(ContextCarrier carrier) {
+        return StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        );
+    }
+
+    private static void legacyDeserialize(String text, ContextCarrier carrier) {
+        String[] parts = text.split("-", 8);
+        if (parts.length == 8) {
+            carrier.setTraceId(Base64.decode2UTFString(parts[1]));
+            carrier.setTraceSegmentId(Base64.decode2UTFString(parts[2]));
+            carrier.setSpanId(Integer.parseInt(parts[3]));
+            carrier.setParentService(Base64.decode2UTFString(parts[4]));
+            carrier.setParentServiceInstance(Base64.decode2UTFString(parts[5]));
+            carrier.setParentEndpoint(Base64.decode2UTFString(parts[6]));
+            carrier.setAddressUsedAtClient(Base64.decode2UTFString(parts[7]));
+        }
+    }
+
+    private static String legacySerializeCorrelation(Map<String, String> data) {
+        return data.entrySet().stream()
+                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
+                   .collect(Collectors.joining(","));
+    }
+
+    private static void legacyDeserializeCorrelation(String value, Map<String, String> data) {
+        for (String perData : value.split(",")) {
+            final String[] parts = perData.split(":");
+            if (parts.length != 2) {
+                continue;
+            }
+            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PropagationHeaderBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                                  Mode  Cnt     Score     Error  Units
+     * PropagationHeaderBenchmark.codecRoundTrip                                  avgt    5   985.899 +- 718.687  ns/op
+     * PropagationHeaderBenchmark.codecRoundTrip:gc.alloc.rate.norm               avgt    5   640.585 +-   0.078   B/op
+     * PropagationHeaderBenchmark.codecRoundTripWithoutFieldCache                 avgt    5  1201.590 +- 211.599  ns/op
+     * PropagationHeaderBenchmark.codecRoundTripWithoutFieldCache:gc.alloc.rate.norm
+     *                                                                            avgt    5   640.592 +-   0.063   B/op
+     * PropagationHeaderBenchmark.legacyRoundTrip                                 avgt    5  2217.078 +- 509.567  ns/op
+     * PropagationHeaderBenchmark.legacyRoundTrip:gc.alloc.rate.norm              avgt    5  6221.571 +-   0.036   B/op
+     */
+}
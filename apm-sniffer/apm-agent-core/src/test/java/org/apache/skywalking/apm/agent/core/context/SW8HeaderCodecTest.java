@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SW8HeaderCodecTest {
+    private static final String HEADER = "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=";
+
+    private static ContextCarrier carrier(String endpoint, int spanId) {
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceId("3.4.5");
+        carrier.setTraceSegmentId("1.2.3");
+        carrier.setSpanId(spanId);
+        carrier.setParentService("service");
+        carrier.setParentServiceInstance("instance");
+        carrier.setParentEndpoint(endpoint);
+        carrier.setAddressUsedAtClient("127.0.0.1:8080");
+        return carrier;
+    }
+
+    @Test
+    public void testEncodeWithCachedFields() {
+        SW8HeaderCodec.EncodedFields fields = new SW8HeaderCodec.EncodedFields();
+        Assert.assertEquals(HEADER, SW8HeaderCodec.encode(carrier("/app", 4), fields));
+        Assert.assertEquals(HEADER, SW8HeaderCodec.encode(carrier("/app", 4), fields));
+        Assert.assertEquals(
+            "1-My40LjU=-MS4yLjM=-1234567890-c2VydmljZQ==-aW5zdGFuY2U=-L3BvcnRhbA==-MTI3LjAuMC4xOjgwODA=",
+            SW8HeaderCodec.encode(carrier("/portal", 1234567890), fields)
+        );
+        Assert.assertEquals(
+            "1-My40LjU=-MS4yLjM=-0-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            SW8HeaderCodec.encode(carrier("/app", 0), null)
+        );
+    }
+
+    @Test
+    public void testDecode() {
+        ContextCarrier carrier = new ContextCarrier();
+        for (int i = 0; i < 2; i++) {
+            SW8HeaderCodec.decode(HEADER, carrier);
+            Assert.assertEquals("3.4.5", carrier.getTraceId());
+            Assert.assertEquals("1.2.3", carrier.getTraceSegmentId());
+            Assert.assertEquals(4, carrier.getSpanId());
+            Assert.assertEquals("service", carrier.getParentService());
+            Assert.assertEquals("instance", carrier.getParentServiceInstance());
+            Assert.assertEquals("/app", carrier.getParentEndpoint());
+            Assert.assertEquals("127.0.0.1:8080", carrier.getAddressUsedAtClient());
+        }
+    }
+
+    @Test
+    public void testDecodeMalformedHeader() {
+        ContextCarrier carrier = new ContextCarrier();
+        SW8HeaderCodec.decode("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==", carrier);
+        Assert.assertNull(carrier.getTraceId());
+
+        carrier = new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-x-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            ContextCarrier.HeaderVersion.v3
+        );
+        Assert.assertEquals("1.2.3", carrier.getTraceSegmentId());
+        Assert.assertEquals(-1, carrier.getSpanId());
+        Assert.assertFalse(carrier.isValid());
+    }
+
+    @Test
+    public void testBase64AsJdk() {
+        Random random = new Random(7);
+        ContextCarrier carrier = new ContextCarrier();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                value.append(random.nextInt(4) == 0 ? (char) (0x80 + random.nextInt(0x3000)) : (char) (32 + random.nextInt(95)));
+            }
+            String text = value.toString();
+            String encoded = Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+
+            ContextCarrier source = carrier(text, i);
+            source.setTraceId(text);
+            String header = SW8HeaderCodec.encode(source, null);
+            Assert.assertEquals("1-" + encoded + "-MS4yLjM=-" + i + "-c2VydmljZQ==-aW5zdGFuY2U=-" + encoded
+                                    + "-MTI3LjAuMC4xOjgwODA=", header);
+
+            SW8HeaderCodec.decode(header, carrier);
+            Assert.assertEquals(text, carrier.getTraceId());
+            Assert.assertEquals(text, carrier.getParentEndpoint());
+
+            // the padding is optional
+            SW8HeaderCodec.decode(header.replace("=", ""), carrier);
+            Assert.assertEquals(text, carrier.getTraceId());
+        }
+    }
+
+    @Test
+    public void testDecodeOversizedValue() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+        String oversized = value.toString();
+        ContextCarrier carrier = new ContextCarrier();
+
+        SW8HeaderCodec.decode(SW8HeaderCodec.encode(carrier(oversized, 1), null), carrier);
+        Assert.assertEquals(oversized, carrier.getParentEndpoint());
+
+        // the buffer keeps decoding the next values after an oversized one
+        SW8HeaderCodec.decode(SW8HeaderCodec.encode(carrier("/small", 1), null), carrier);
+        Assert.assertEquals("/small", carrier.getParentEndpoint());
+    }
+
+    @Test
+    public void testRejectAsJdk() {
+        String[] values = {"a", "ab=", "abc==", "abcd=", "a===", "ab=c", "a*cd", "ab\u00e9d", "ab==ab==", "=", "abc=d"};
+        for (String value : values) {
+            try {
+                Base64.getDecoder().decode(value);
+                Assert.fail("JDK accepts " + value);
+            } catch (IllegalArgumentException expected) {
+            }
+            ContextCarrier carrier = new ContextCarrier();
+            try {
+                SW8HeaderCodec.decode("1-" + value + "-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4x", carrier);
+                Assert.fail("Codec accepts " + value);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testParseSpanIdAsJdk() {
+        String[] values = {"0", "+7", "2147483647", "2147483648", "-", "+", "", "1x", "99999999999"};
+        for (String value : values) {
+            Integer expected;
+            try {
+                expected = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                expected = null;
+            }
+            ContextCarrier carrier = new ContextCarrier();
+            try {
+                SW8HeaderCodec.decode("1-My40LjU=-MS4yLjM=-" + value + "-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4x", carrier);
+                Assert.assertEquals(expected, Integer.valueOf(carrier.getSpanId()));
+            } catch (NumberFormatException e) {
+                Assert.assertNull(value, expected);
+            }
+        }
+    }
+
+    @Test
+    public void testCorrelationAsSplit() {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("test1", "t1");
+        data.put("\u4e2d\u6587", "t2");
+        String encoded = SW8HeaderCodec.encodeCorrelation(data);
+        Assert.assertEquals("dGVzdDE=:dDE=,5Lit5paH:dDI=", encoded);
+        Assert.assertEquals("", SW8HeaderCodec.encodeCorrelation(new HashMap<>()));
+
+        String[] values = {encoded, "dGVzdDE=:dDE=:", "dGVzdDE=:", ":dDE=", "dGVzdDE=::", "a:b:c", ",,dGVzdDE=:dDE=,,", ":", "dGVzdDE=:dDE=,:,:dDI="};
+        for (String value : values) {
+            Map<String, String> expected = new HashMap<>();
+            for (String perData : value.split(",")) {
+                final String[] parts = perData.split(":");
+                if (parts.length == 2) {
+                    expected.put(decode(parts[0]), decode(parts[1]));
+                }
+            }
+            Map<String, String> decoded = new HashMap<>();
+            SW8HeaderCodec.decodeCorrelation(value, decoded);
+            Assert.assertEquals(value, expected, decoded);
+        }
+    }
+
+    private static String decode(String value) {
+        return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
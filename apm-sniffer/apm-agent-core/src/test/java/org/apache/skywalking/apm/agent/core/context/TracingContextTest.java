@@ -21,8 +21,12 @@ package org.apache.skywalking.apm.agent.core.context;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitTypeSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.util.SegmentHelper;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -80,4 +84,43 @@ public class TracingContextTest {
         }
     }
 
+    @Test
+    public void testSpanRecycle() {
+        final TraceSegment[] finished = {null};
+        TracingContextListener listener = traceSegment -> {
+            traceSegment.transform();
+            traceSegment.recycle();
+            finished[0] = traceSegment;
+        };
+        TracingContext.ListenerManager.add(listener);
+        Config.Agent.SPAN_RECYCLE_ENABLE = true;
+        try {
+            TracingContext tracingContext = new TracingContext("/url", spanLimitWatcher);
+            AbstractSpan span = tracingContext.createEntrySpan("/url");
+            Tags.URL.set(span, "/url");
+            AbstractSpan exitSpan = tracingContext.createExitSpan("/redis", "localhost");
+            tracingContext.stopSpan(exitSpan);
+            tracingContext.stopSpan(span);
+
+            Assert.assertNotNull(finished[0]);
+            Assert.assertTrue(SegmentHelper.getSpan(finished[0]).isEmpty());
+            Assert.assertFalse(finished[0].isSingleSpanSegment());
+            Assert.assertEquals(0, finished[0].transform().getSpansCount());
+            Assert.assertTrue(finished[0].toString().contains("spans=[]"));
+
+            tracingContext = new TracingContext("/url2", spanLimitWatcher);
+            AbstractSpan reusedSpan = tracingContext.createEntrySpan("/url2");
+            AbstractSpan reusedExitSpan = tracingContext.createExitSpan("/mysql", "localhost:3306");
+            Assert.assertSame(span, reusedSpan);
+            Assert.assertSame(exitSpan, reusedExitSpan);
+            Assert.assertEquals("/url2", reusedSpan.getOperationName());
+            Assert.assertEquals("localhost:3306", ((ExitTypeSpan) reusedExitSpan).getPeer());
+            Assert.assertTrue(((AbstractTracingSpan) reusedSpan).transform().getTagsList().isEmpty());
+            tracingContext.stopSpan(reusedExitSpan);
+            tracingContext.stopSpan(reusedSpan);
+        } finally {
+            Config.Agent.SPAN_RECYCLE_ENABLE = false;
+            TracingContext.ListenerManager.remove(listener);
+        }
+    }
 }
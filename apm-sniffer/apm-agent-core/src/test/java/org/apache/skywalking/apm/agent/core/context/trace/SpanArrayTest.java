@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.NoSuchElementException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpanArrayTest {
+
+    @Test
+    public void testStack() {
+        SpanArray<AbstractSpan> stack = new SpanArray<>(300);
+        Assert.assertTrue(stack.isEmpty());
+        for (int i = 0; i < 20; i++) {
+            stack.add(new LocalSpan(i, i - 1, "/span-" + i, null));
+        }
+        Assert.assertEquals(20, stack.size());
+        Assert.assertEquals(19, stack.getLast().getSpanId());
+        for (int i = 19; i >= 0; i--) {
+            Assert.assertEquals(i, stack.removeLast().getSpanId());
+        }
+        Assert.assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    public void testGrowOverSpanLimit() {
+        SpanArray<AbstractSpan> spans = new SpanArray<>(10);
+        for (int i = 0; i < 25; i++) {
+            spans.add(new LocalSpan(i, i - 1, "/span-" + i, null));
+        }
+        Assert.assertEquals(25, spans.size());
+        int expectedSpanId = 0;
+        for (AbstractSpan span : spans) {
+            Assert.assertEquals(expectedSpanId++, span.getSpanId());
+        }
+
+        spans.clear();
+        Assert.assertTrue(spans.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmpty() {
+        new SpanArray<>(10).removeLast();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.Collections;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.context.SW8CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
+import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(TracingSegmentRunner.class)
+public class TraceSegmentSerializerTest {
+
+    @SegmentStoragePoint
+    private SegmentStorage tracingData;
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private final TraceSegmentSerializer serializer = new TraceSegmentSerializer();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+        Config.Agent.SERVICE_NAME = "serializer-service";
+        Config.Agent.INSTANCE_NAME = "serializer-instance-\u4e2d\u6587";
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        Config.Agent.SERVICE_NAME = "";
+        Config.Agent.INSTANCE_NAME = "";
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testSingleSpanSegment() {
+        ContextManager.createLocalSpan("/local");
+        ContextManager.stopSpan();
+
+        assertSameAsTransform();
+    }
+
+    @Test
+    public void testFullSegment() {
+        ContextCarrier contextCarrier = new ContextCarrier();
+        CarrierItem next = contextCarrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (SW8CarrierItem.HEADER_NAME.equals(next.getHeadKey())) {
+                next.setHeadValue("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=");
+            }
+        }
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/entry", contextCarrier);
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.URL.set(entrySpan, "http://127.0.0.1:8080/entry?q=\u00e9\u4e2d\uD800");
+        Tags.HTTP_RESPONSE_STATUS_CODE.set(entrySpan, 500);
+        entrySpan.tag(Tags.ofKey("empty"), "");
+        entrySpan.errorOccurred();
+        SpanLayer.asHttp(entrySpan);
+
+        AbstractSpan localSpan = ContextManager.createLocalSpan("/local");
+        localSpan.log(System.currentTimeMillis(), Collections.singletonMap("event", "\uD83D\uDE00"));
+        localSpan.skipAnalysis();
+
+        ContextManager.createExitSpan("/exit", new ContextCarrier(), "127.0.0.1:3306");
+        ContextManager.activeSpan().log(new RuntimeException("exception"));
+        Tags.DB_STATEMENT.set(ContextManager.activeSpan(), new String(new char[300]).replace('\0', 'x'));
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+
+        assertSameAsTransform();
+    }
+
+    @Test
+    public void testCrossThreadRef() {
+        ContextManager.createLocalSpan("/parent");
+        ContextSnapshot snapshot = ContextManager.capture();
+        ContextManager.stopSpan();
+
+        ContextManager.createLocalSpan("/child");
+        ContextManager.continued(snapshot);
+        ContextManager.stopSpan();
+
+        Assert.assertEquals(2, tracingData.getTraceSegments().size());
+        for (TraceSegment segment : tracingData.getTraceSegments()) {
+            Assert.assertArrayEquals(segment.transform().toByteArray(), serializer.serialize(segment));
+        }
+    }
+
+    private void assertSameAsTransform() {
+        Assert.assertEquals(1, tracingData.getTraceSegments().size());
+        TraceSegment segment = tracingData.getTraceSegments().get(0);
+        Assert.assertArrayEquals(segment.transform().toByteArray(), serializer.serialize(segment));
+    }
+}
@@ -18,11 +18,19 @@
 
 package org.apache.skywalking.apm.agent.core.jvm.thread;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
@@ -40,6 +48,55 @@ public class ThreadProviderBenchmark {
         bh.consume(ThreadProvider.INSTANCE.getThreadMetrics());
     }
 
+    /**
+     * Keeps some parked threads alive, as the business threads of an application.
+     */
+    @State(Scope.Benchmark)
+    public static class ParkedThreads {
+        @Param({"100", "2000"})
+        public int threadCount;
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final ThreadStateCounter counter = new ThreadStateCounter(ManagementFactory.getThreadMXBean());
+
+        @Setup(Level.Trial)
+        public void start() {
+            for (int i = 0; i < threadCount; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                });
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            release.countDown();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 0)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    public void countByThreadInfo(ParkedThreads threads, Blackhole bh) {
+        threads.counter.countByThreadInfo();
+        bh.consume(threads.counter.waitingCount);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 0)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    public void countByThreadGroup(ParkedThreads threads, Blackhole bh) {
+        threads.counter.countByThreadGroup();
+        bh.consume(threads.counter.waitingCount);
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ThreadProviderBenchmark.class.getSimpleName())
                 .build();
@@ -61,4 +118,22 @@ public class ThreadProviderBenchmark {
      * Benchmark                                  Mode  Cnt       Score      Error  Units
      * ThreadProviderBenchmark.getThreadMetrics  thrpt   25  247393.607 ± 2493.640  ops/s
      */
-}
\ No newline at end of file
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Throughput, ops/time
+     *
+     * getThreadMetrics counts the threads by state at every call, as jvm.thread_state_collect_period is 1 by default.
+     *
+     * Benchmark                                   (threadCount)   Mode  Cnt        Score        Error  Units
+     * ThreadProviderBenchmark.countByThreadGroup            100  thrpt    5  1784916.092 +- 849454.316  ops/s
+     * ThreadProviderBenchmark.countByThreadGroup           2000  thrpt    5   133450.647 +-  15037.141  ops/s
+     * ThreadProviderBenchmark.countByThreadInfo             100  thrpt    5    21406.386 +-   1368.066  ops/s
+     * ThreadProviderBenchmark.countByThreadInfo            2000  thrpt    5      905.011 +-     81.337  ops/s
+     * ThreadProviderBenchmark.getThreadMetrics              N/A  thrpt    5  4932754.751 +- 1074495.016  ops/s
+     */
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.jvm.thread;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class ThreadStateCounterTest {
+
+    @Test
+    public void testCountByThreadGroupAndThreadInfo() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] waiting = new Thread[100];
+        for (int i = 0; i < waiting.length; i++) {
+            waiting[i] = new Thread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            waiting[i].start();
+        }
+        try {
+            for (Thread thread : waiting) {
+                while (thread.getState() != Thread.State.WAITING) {
+                    Thread.sleep(1);
+                }
+            }
+            ThreadStateCounter counter = new ThreadStateCounter(ManagementFactory.getThreadMXBean());
+
+            // More threads than the initial array, which must grow.
+            counter.countByThreadGroup();
+            assertTrue(counter.waitingCount >= waiting.length);
+            assertTrue(counter.runnableCount >= 1);
+
+            counter.countByThreadInfo();
+            assertTrue(counter.waitingCount >= waiting.length);
+            assertTrue(counter.runnableCount >= 1);
+        } finally {
+            release.countDown();
+        }
+    }
+}
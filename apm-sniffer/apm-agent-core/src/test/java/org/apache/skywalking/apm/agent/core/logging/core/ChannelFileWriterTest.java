@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChannelFileWriterTest {
+
+    @Before
+    public void setUp() throws IOException {
+        File directory = new File(System.getProperty("java.io.tmpdir", "/tmp"));
+        Config.Logging.DIR = directory.getCanonicalPath() + Constants.PATH_SEPARATOR + "log-test_" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        Config.Logging.MAX_FILE_SIZE = 300 * 1024 * 1024;
+        Config.Logging.MAX_HISTORY_FILES = -1;
+        deleteDir(new File(Config.Logging.DIR));
+        Config.Logging.DIR = "";
+    }
+
+    @Test
+    public void testFlushByLatency() throws Exception {
+        ChannelFileWriter writer = new ChannelFileWriter(16, 64 * 1024, 50);
+        writer.start();
+        writer.write("abcd");
+        writer.write("efgh");
+
+        assertEquals(Arrays.asList("abcd", "efgh"), waitForLines(2));
+    }
+
+    @Test
+    public void testWriteLogsOverBuffer() throws Exception {
+        ChannelFileWriter writer = new ChannelFileWriter(64, 1024, 60000);
+        writer.start();
+        char[] chars = new char[300];
+        Arrays.fill(chars, 'a');
+        String log = new String(chars);
+        chars = new char[3000];
+        Arrays.fill(chars, 'b');
+        String oversized = new String(chars);
+        for (int i = 0; i < 3; i++) {
+            writer.write(log);
+        }
+        // written with the buffered logs before the latency is reached
+        writer.write(oversized);
+
+        assertEquals(Arrays.asList(log, log, log, oversized), waitForLines(4));
+    }
+
+    @Test
+    public void testCountDroppedLogs() throws Exception {
+        ChannelFileWriter writer = new ChannelFileWriter(2, 1024, 10);
+        for (int i = 0; i < 5; i++) {
+            writer.write("log" + i);
+        }
+        assertEquals(3, writer.getDroppedCount());
+
+        writer.start();
+        assertEquals(Arrays.asList("log0", "log1"), waitForLines(2));
+    }
+
+    @Test
+    public void testSwitchFileOverMaxSize() throws Exception {
+        Config.Logging.MAX_FILE_SIZE = 10;
+        Config.Logging.MAX_HISTORY_FILES = 3;
+        ChannelFileWriter writer = new ChannelFileWriter(16, 1024, 10);
+        writer.start();
+        writer.write("abcdefghij");
+
+        File dir = new File(Config.Logging.DIR);
+        long deadline = System.currentTimeMillis() + 10000;
+        String[] archives;
+        do {
+            Thread.sleep(20);
+            archives = dir.list((d, name) -> name.startsWith(Config.Logging.FILE_NAME + "."));
+        }
+        while ((archives == null || archives.length == 0) && System.currentTimeMillis() < deadline);
+
+        assertEquals(1, archives.length);
+        assertTrue(new File(dir, archives[0]).length() > 10);
+    }
+
+    private static List<String> waitForLines(int count) throws Exception {
+        File file = new File(Config.Logging.DIR, Config.Logging.FILE_NAME);
+        long deadline = System.currentTimeMillis() + 10000;
+        List<String> lines = null;
+        while (System.currentTimeMillis() < deadline) {
+            if (file.exists()) {
+                lines = Files.readAllLines(file.toPath());
+                if (lines.size() >= count) {
+                    break;
+                }
+            }
+            Thread.sleep(20);
+        }
+        return lines;
+    }
+
+    private static void deleteDir(File dir) {
+        if (dir.isDirectory()) {
+            String[] children = dir.list();
+            for (int i = 0; i < children.length; i++) {
+                deleteDir(new File(dir, children[i]));
+            }
+        }
+        dir.delete();
+    }
+}
@@ -24,7 +24,16 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
 
 public class LoggingBenchmark {
@@ -58,6 +67,56 @@ public class LoggingBenchmark {
         PATTERN_LOGGER.info("Hello World");
     }
 
+    /**
+     * The writers of a pattern log, called as their flusher threads do, into a temporary log folder.
+     */
+    @State(Scope.Benchmark)
+    public static class Writers {
+        private File dir;
+        private String log;
+        private String logLine;
+        private FileWriter fileWriter;
+        private ChannelFileWriter channelFileWriter;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("logging-benchmark").toFile();
+            Config.Logging.DIR = dir.getAbsolutePath();
+            log = PATTERN_LOGGER.format(LogLevel.INFO, "Hello World", null);
+            logLine = log + Constants.LINE_SEPARATOR;
+            fileWriter = FileWriter.get();
+            channelFileWriter = new ChannelFileWriter(Config.Logging.QUEUE_SIZE, Config.Logging.BUFFER_SIZE, Config.Logging.MAX_FLUSH_LATENCY);
+        }
+
+        @TearDown
+        public void tearDown() {
+            channelFileWriter.flush();
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void fileWriter(Writers writers) {
+        writers.fileWriter.writeToFile(writers.logLine);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void channelFileWriter(Writers writers) {
+        writers.channelFileWriter.append(writers.log);
+    }
+
     public static void main(String[] args) throws Exception {
         org.openjdk.jmh.Main.main(args);
     }
@@ -93,4 +152,34 @@ public class LoggingBenchmark {
      * LoggingBenchmark.patternLogger:patternLogger·p0.9999  sample            589721.600           ns/op
      * LoggingBenchmark.patternLogger:patternLogger·p1.00    sample           1259520.000           ns/op
      */
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Timeout: 10 min per iteration
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Sampling time
+     *
+     * Benchmark                                                       Mode     Cnt         Score     Error  Units
+     * LoggingBenchmark.channelFileWriter                            sample  317146      1419.776 +- 436.778  ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.00    sample               229.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.50    sample               273.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.90    sample               500.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.95    sample               521.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.99    sample               723.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.999   sample             51994.368            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p0.9999  sample           4038656.000            ns/op
+     * LoggingBenchmark.channelFileWriter:channelFileWriter-p1.00    sample          16269312.000            ns/op
+     * LoggingBenchmark.fileWriter                                   sample  357474      1578.635 +- 309.764  ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.00                  sample               559.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.50                  sample               662.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.90                  sample              1108.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.95                  sample              1256.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.99                  sample              3616.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.999                 sample             32960.000            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p0.9999                sample           3051560.960            ns/op
+     * LoggingBenchmark.fileWriter:fileWriter-p1.00                  sample          10469376.000            ns/op
+     */
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Adding values into one histogram from many threads, like the interceptor time cost histogram of AgentSo11y, the
+ * striped {@link Histogram} vs the former one with an {@link AtomicLong} per bucket.
+ * <p>
+ * The stripes never grow past the number of CPUs, so the contention gain only shows on a multi-core host. On a single
+ * CPU both run the same within noise, with 1 to 16 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistogramBenchmark {
+    private static final List<Double> STEPS = Arrays.asList(
+        0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+        1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
+    );
+
+    private Histogram striped;
+    private AtomicHistogram atomic;
+
+    @Setup
+    public void setup() {
+        MeterId meterId = new MeterId("tracing_context_performance", MeterType.HISTOGRAM, null);
+        striped = new Histogram(meterId, STEPS);
+        atomic = new AtomicHistogram(STEPS);
+    }
+
+    @State(Scope.Thread)
+    public static class Values {
+        private long next = 7;
+
+        /**
+         * Mostly fast interceptors, a few slow ones.
+         */
+        double nextValue() {
+            next = next * 6364136223846793005L + 1442695040888963407L;
+            return (next >>> 40) % 20000;
+        }
+    }
+
+    @Benchmark
+    public void striped(Values values) {
+        striped.addValue(values.nextValue());
+    }
+
+    @Benchmark
+    public void atomic(Values values) {
+        atomic.addValue(values.nextValue());
+    }
+
+    /**
+     * The former implementation, one {@link AtomicLong} per bucket shared by all threads.
+     */
+    private static class AtomicHistogram {
+        private final double[] steps;
+        private final AtomicLong[] counts;
+
+        private AtomicHistogram(List<Double> steps) {
+            this.steps = steps.stream().mapToDouble(Double::doubleValue).toArray();
+            this.counts = new AtomicLong[steps.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new AtomicLong();
+            }
+        }
+
+        private void addValue(double value) {
+            int index = Arrays.binarySearch(steps, value);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0) {
+                counts[index].addAndGet(1L);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32, 64}) {
+            Options opt = new OptionsBuilder()
+                    .include(HistogramBenchmark.class.getName())
+                    .threads(threads)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(5))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(5))
+                    .forks(1)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+}
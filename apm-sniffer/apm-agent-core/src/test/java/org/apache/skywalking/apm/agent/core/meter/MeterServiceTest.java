@@ -49,6 +49,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 
@@ -160,6 +161,123 @@ public class MeterServiceTest {
         }
     }
 
+    @Test
+    public void testSkipUnchanged() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Meter.SKIP_UNCHANGED = true;
+        Config.Meter.MAX_SKIPPED_REPORTS = 2;
+        try {
+            final Counter counter = new Counter(
+                new MeterId("test_increment", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+                CounterMode.INCREMENT
+            );
+            final Counter rate = new Counter(
+                new MeterId("test_rate", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))), CounterMode.RATE);
+            registryService.register(counter);
+            registryService.register(rate);
+            counter.increment(1);
+            rate.increment(1);
+
+            assertReported("test_increment", "test_rate");
+            // the rate drops to 0 once
+            assertReported("test_rate");
+            assertReported();
+            // the unchanged counter is reported again after 2 skipped reports
+            assertReported("test_increment");
+
+            // the same increase of a rate counter is never skipped
+            rate.increment(3);
+            assertReported("test_rate");
+            rate.increment(3);
+            assertReported("test_rate");
+        } finally {
+            Config.Meter.SKIP_UNCHANGED = false;
+            Config.Meter.MAX_SKIPPED_REPORTS = 15;
+        }
+    }
+
+    @Test
+    public void testSkipUnchangedReportedEveryMinute() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Meter.SKIP_UNCHANGED = true;
+        Config.Meter.REPORT_INTERVAL = 30;
+        try {
+            final Counter counter = new Counter(
+                new MeterId("test_increment", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+                CounterMode.INCREMENT
+            );
+            registryService.register(counter);
+            counter.increment(1);
+
+            assertReported("test_increment");
+            // 2 reports a minute, so only 1 report is skipped in spite of the 15 max skipped reports
+            assertReported();
+            assertReported("test_increment");
+            assertReported();
+            assertReported("test_increment");
+        } finally {
+            Config.Meter.SKIP_UNCHANGED = false;
+            Config.Meter.REPORT_INTERVAL = 20;
+        }
+    }
+
+    @Test
+    public void testSkipUnchangedAfterFailedReport() {
+        grpcServerRule.getServiceRegistry().addService(new MeterReportServiceGrpc.MeterReportServiceImplBase() {
+            private boolean failed;
+
+            @Override
+            public StreamObserver<MeterData> collect(final StreamObserver<Commands> responseObserver) {
+                if (!failed) {
+                    // the first report is lost
+                    failed = true;
+                    responseObserver.onError(Status.INTERNAL.asRuntimeException());
+                    return new StreamObserver<MeterData>() {
+                        @Override
+                        public void onNext(MeterData value) {
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                        }
+                    };
+                }
+                return serviceImplBase.collect(responseObserver);
+            }
+        });
+        Config.Meter.SKIP_UNCHANGED = true;
+        try {
+            final Counter counter = new Counter(
+                new MeterId("test_increment", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+                CounterMode.INCREMENT
+            );
+            registryService.register(counter);
+            counter.increment(1);
+
+            assertReported();
+            // the unchanged counter isn't skipped, as the backend never received it
+            assertReported("test_increment");
+            assertReported();
+        } finally {
+            Config.Meter.SKIP_UNCHANGED = false;
+        }
+    }
+
+    private void assertReported(String... names) {
+        upstreamMeters.clear();
+        registryService.run();
+        final List<String> reported = new ArrayList<>();
+        for (MeterData meterData : upstreamMeters) {
+            reported.add(meterData.getSingleValue().getName());
+        }
+        reported.sort(String::compareTo);
+        assertThat(reported, is(Arrays.asList(names)));
+    }
+
     @Test
     public void testMeterSizeAndShutdown() throws Throwable {
         final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedLongArrayTest {
+
+    @Test
+    public void testAddAndSum() {
+        StripedLongArray array = new StripedLongArray(3);
+        array.increment(0);
+        array.add(2, 5);
+        array.add(2, -2);
+        Assert.assertEquals(1, array.sum(0));
+        Assert.assertEquals(0, array.sum(1));
+        Assert.assertEquals(3, array.sum(2));
+        Assert.assertEquals(3, array.length());
+        Assert.assertEquals(1, array.stripeCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        new StripedLongArray(3).increment(3);
+    }
+
+    @Test
+    public void testRehashSpreadsCollidedThreads() {
+        int probe = StripedLongArray.initialProbe(1);
+        Assert.assertNotEquals(0, probe);
+        // The stripes visited by the rehashed probe of one thread cover all of them.
+        boolean[] visited = new boolean[8];
+        for (int i = 0; i < 64; i++) {
+            probe = StripedLongArray.rehash(probe);
+            Assert.assertNotEquals(0, probe);
+            visited[probe & 7] = true;
+        }
+        for (boolean stripe : visited) {
+            Assert.assertTrue(stripe);
+        }
+    }
+
+    @Test
+    public void testConcurrentIncrement() throws InterruptedException {
+        final int threads = 8;
+        final int times = 100_000;
+        final StripedLongArray array = new StripedLongArray(4);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int index = t % 4;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < times; i++) {
+                    array.increment(index);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(2L * times, array.sum(i));
+        }
+        Assert.assertTrue(array.stripeCount() <= Math.max(1, Runtime.getRuntime().availableProcessors() * 2));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+
+/**
+ * Matching application classes against the signature plugins, as the agent does for every loaded class: the indexed
+ * {@link PluginFinder} vs evaluating every {@link IndirectMatch}, for the type matcher and for the find.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PluginFinderBenchmark {
+    @Param({
+        "100",
+        "300"
+    })
+    private int plugins;
+
+    private final TypeDescription[] types = {
+        TypeDescription.ForLoadedType.of(ArrayList.class),
+        TypeDescription.ForLoadedType.of(ConcurrentHashMap.class),
+        TypeDescription.ForLoadedType.of(PluginFinderBenchmark.class),
+        TypeDescription.ForLoadedType.of(Thread.class)
+    };
+
+    private List<AbstractClassEnhancePluginDefine> defines;
+    private PluginFinder finder;
+    private ElementMatcher<? super TypeDescription> indexedMatcher;
+    private ElementMatcher.Junction everyMatcher;
+
+    @Setup
+    public void setup() {
+        defines = new ArrayList<>();
+        for (int i = 0; i < plugins; i++) {
+            switch (i % 6) {
+                case 0:
+                case 1:
+                case 2:
+                    defines.add(define(byHierarchyMatch("org.example.plugin" + i + ".Handler")));
+                    break;
+                case 3:
+                    defines.add(define(byClassAnnotationMatch("org.example.plugin" + i + ".Controller")));
+                    break;
+                case 4:
+                    defines.add(define(nameStartsWith("org.example.plugin" + i + ".")));
+                    break;
+                default:
+                    defines.add(define(byMultiClassMatch("org.example.plugin" + i + ".Client")));
+            }
+        }
+        finder = new PluginFinder(defines);
+        indexedMatcher = finder.buildMatch();
+        for (AbstractClassEnhancePluginDefine define : defines) {
+            ElementMatcher.Junction junction = ((IndirectMatch) define.enhanceClass()).buildJunction();
+            everyMatcher = everyMatcher == null ? junction : everyMatcher.or(junction);
+        }
+    }
+
+    @Benchmark
+    public void indexedMatcher(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(indexedMatcher.matches(type));
+        }
+    }
+
+    @Benchmark
+    public void everyMatcher(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(everyMatcher.matches(type));
+        }
+    }
+
+    @Benchmark
+    public void indexedFind(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(finder.find(type));
+        }
+    }
+
+    @Benchmark
+    public void everyFind(Blackhole bh) {
+        for (TypeDescription type : types) {
+            List<AbstractClassEnhancePluginDefine> matched = new ArrayList<>();
+            for (AbstractClassEnhancePluginDefine define : defines) {
+                if (((IndirectMatch) define.enhanceClass()).isMatch(type)) {
+                    matched.add(define);
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    private static AbstractClassEnhancePluginDefine define(ClassMatch match) {
+        return new ClassInstanceMethodsEnhancePluginDefine() {
+            @Override
+            protected ClassMatch enhanceClass() {
+                return match;
+            }
+
+            @Override
+            public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+                return new ConstructorInterceptPoint[0];
+            }
+
+            @Override
+            public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+                return new InstanceMethodsInterceptPoint[0];
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginFinderBenchmark.class.getName()).build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * 4 types matched per op, none of the plugins matching. 1/2 hierarchy, 1/6 annotation, 1/6 prefix and 1/6 class
+     * name plugins.
+     *
+     * Benchmark                             (plugins)  Mode  Cnt       Score        Error  Units
+     * PluginFinderBenchmark.everyFind             100  avgt    5  202552.177 +- 62458.808  ns/op
+     * PluginFinderBenchmark.everyFind             300  avgt    5  527963.326 +- 29016.645  ns/op
+     * PluginFinderBenchmark.everyMatcher          100  avgt    5  198980.862 +- 73591.475  ns/op
+     * PluginFinderBenchmark.everyMatcher          300  avgt    5  584351.415 +- 89927.361  ns/op
+     * PluginFinderBenchmark.indexedFind           100  avgt    5    3275.657 +-    80.879  ns/op
+     * PluginFinderBenchmark.indexedFind           300  avgt    5    3480.979 +-   346.992  ns/op
+     * PluginFinderBenchmark.indexedMatcher        100  avgt    5    3300.994 +-   553.907  ns/op
+     * PluginFinderBenchmark.indexedMatcher        300  avgt    5    3628.996 +-   544.007  ns/op
+     */
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTestAnnotation;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private static final List<Class<?>> TYPES = Arrays.asList(
+        ArrayList.class, LinkedList.class, HashMap.class, ConcurrentHashMap.class, Object.class,
+        AnnotatedService.class, AnnotatedRepository.class, PlainService.class, RandomAccess.class
+    );
+
+    @Test
+    public void testSameResultAsEveryMatch() {
+        List<AbstractClassEnhancePluginDefine> signatureDefines = Arrays.asList(
+            define(byHierarchyMatch(List.class.getName())),
+            define(byHierarchyMatch(RandomAccess.class.getName(), Serializable.class.getName())),
+            define(byHierarchyMatch(AbstractList.class.getName(), Runnable.class.getName())),
+            define(byClassAnnotationMatch(MatchTestAnnotation.class.getName())),
+            define(byClassAnnotationMatch(MatchTestAnnotation.class.getName(), Deprecated.class.getName())),
+            define(nameStartsWith("java.util.Hash", "java.util.Linked")),
+            define(byMultiClassMatch(HashMap.class.getName(), PlainService.class.getName())),
+            define(byRegexMatch(".*Service")),
+            define(LogicalMatchOperation.and(
+                byRegexMatch(".*Repository"), byClassAnnotationMatch(MatchTestAnnotation.class.getName())))
+        );
+        AbstractClassEnhancePluginDefine byName = define(byName(ConcurrentHashMap.class.getName()));
+        List<AbstractClassEnhancePluginDefine> all = new ArrayList<>(signatureDefines);
+        all.add(byName);
+        PluginFinder finder = new PluginFinder(all);
+        ElementMatcher<? super TypeDescription> matcher = finder.buildMatch();
+
+        for (Class<?> type : TYPES) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            List<AbstractClassEnhancePluginDefine> expected = new ArrayList<>();
+            if (type == ConcurrentHashMap.class) {
+                expected.add(byName);
+            }
+            for (AbstractClassEnhancePluginDefine define : signatureDefines) {
+                if (((IndirectMatch) define.enhanceClass()).isMatch(typeDescription)) {
+                    expected.add(define);
+                }
+            }
+            Assert.assertEquals(type.getName(), expected, finder.find(typeDescription));
+            Assert.assertEquals(type.getName(), !type.isInterface() && !expected.isEmpty(),
+                                matcher.matches(typeDescription));
+        }
+    }
+
+    @Test
+    public void testHierarchyExcludesItself() {
+        AbstractClassEnhancePluginDefine define = define(byHierarchyMatch(ArrayList.class.getName()));
+        PluginFinder finder = new PluginFinder(Arrays.asList(define));
+        Assert.assertTrue(finder.find(TypeDescription.ForLoadedType.of(ArrayList.class)).isEmpty());
+    }
+
+    private static AbstractClassEnhancePluginDefine define(ClassMatch match) {
+        return new ClassInstanceMethodsEnhancePluginDefine() {
+            @Override
+            protected ClassMatch enhanceClass() {
+                return match;
+            }
+
+            @Override
+            public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+                return new ConstructorInterceptPoint[0];
+            }
+
+            @Override
+            public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+                return new InstanceMethodsInterceptPoint[0];
+            }
+        };
+    }
+
+    @MatchTestAnnotation
+    public static class AnnotatedService {
+    }
+
+    @MatchTestAnnotation
+    @Deprecated
+    public static class AnnotatedRepository {
+    }
+
+    public static class PlainService {
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.bootstrap;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BootstrapDelegateCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File cacheFolder = new File(folder.getRoot(), "bootstrap-cache");
+        BootstrapDelegateCache cache = BootstrapDelegateCache.of(cacheFolder.getAbsolutePath());
+        Assert.assertNotNull(cache);
+        Assert.assertTrue(cacheFolder.isDirectory());
+        Assert.assertFalse(BootstrapDelegateCache.isWritableByOthers(cacheFolder.toPath()));
+
+        String className = "demo.CallInterceptor_internal";
+        Assert.assertNull(cache.load(className, 1L));
+
+        byte[] classFile = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+        cache.save(className, 1L, classFile);
+        Assert.assertArrayEquals(classFile, cache.load(className, 1L));
+        // generated from another template, plugin or interceptor
+        Assert.assertNull(cache.load(className, 2L));
+        // no temporary file left
+        Assert.assertEquals(1, cacheFolder.list().length);
+    }
+
+    @Test
+    public void testCorruptedFile() throws Exception {
+        BootstrapDelegateCache cache = BootstrapDelegateCache.of(
+            new File(folder.getRoot(), "bootstrap-cache").getAbsolutePath());
+        String className = "demo.CallInterceptor_internal";
+        cache.save(className, 1L, new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+
+        File file = cache.fileOf(className, 1L);
+        byte[] content = Files.readAllBytes(file.toPath());
+        content[content.length - 1]++;
+        Files.write(file.toPath(), content);
+        Assert.assertNull(cache.load(className, 1L));
+        // removed, so it is generated and saved again
+        Assert.assertFalse(file.exists());
+
+        // truncated
+        cache.save(className, 1L, new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        Files.write(file.toPath(), Arrays.copyOf(content, 8));
+        Assert.assertNull(cache.load(className, 1L));
+    }
+
+    @Test
+    public void testWritableByOthers() throws Exception {
+        File cacheFolder = folder.newFolder("bootstrap-cache");
+        Assume.assumeNotNull(Files.getFileAttributeView(cacheFolder.toPath(), PosixFileAttributeView.class));
+
+        Files.setPosixFilePermissions(cacheFolder.toPath(), PosixFilePermissions.fromString("rwxrwxr-x"));
+        Assert.assertNull(BootstrapDelegateCache.of(cacheFolder.getAbsolutePath()));
+
+        Files.setPosixFilePermissions(cacheFolder.toPath(), PosixFilePermissions.fromString("rwx------"));
+        BootstrapDelegateCache cache = BootstrapDelegateCache.of(cacheFolder.getAbsolutePath());
+        Assert.assertNotNull(cache);
+        String className = "demo.CallInterceptor_internal";
+        cache.save(className, 1L, new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        File file = cache.fileOf(className, 1L);
+        Assert.assertFalse(BootstrapDelegateCache.isWritableByOthers(file.toPath()));
+
+        Files.setPosixFilePermissions(file.toPath(), PosixFilePermissions.fromString("rw-rw-rw-"));
+        Assert.assertNull(cache.load(className, 1L));
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testNoCache() {
+        Assert.assertNull(BootstrapDelegateCache.of(""));
+        Assert.assertNull(BootstrapDelegateCache.of(null));
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * The cost of one intercepted call, through the method delegation of {@link InstMethodsInter} vs the inlined advice,
+ * with an interceptor doing nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstMethodsAdviceBenchmark {
+    private Query origin;
+    private Query delegated;
+    private Query inlined;
+
+    @Setup
+    public void setup() throws Exception {
+        origin = new TargetQuery();
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "";
+        delegated = enhance();
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "*";
+        inlined = enhance();
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "";
+    }
+
+    @Benchmark
+    public int origin() {
+        return origin.execute("select 1", 1);
+    }
+
+    @Benchmark
+    public int delegation() {
+        return delegated.execute("select 1", 1);
+    }
+
+    @Benchmark
+    public int advice() {
+        return inlined.execute("select 1", 1);
+    }
+
+    private static Query enhance() throws Exception {
+        DynamicType.Builder<?> builder = new ByteBuddy().rebase(
+            TargetQuery.class, ClassFileLocator.ForClassLoader.of(TargetQuery.class.getClassLoader()));
+        builder = new QueryPluginDefine().define(
+            TypeDescription.ForLoadedType.of(TargetQuery.class), builder,
+            InstMethodsAdviceBenchmark.class.getClassLoader(), new EnhanceContext()
+        );
+        return (Query) builder.make()
+                              .load(InstMethodsAdviceBenchmark.class.getClassLoader(), ClassLoadingStrategy.Default.CHILD_FIRST)
+                              .getLoaded()
+                              .getDeclaredConstructor()
+                              .newInstance();
+    }
+
+    public interface Query {
+        int execute(String sql, int fetchSize);
+    }
+
+    public static class TargetQuery implements Query {
+        @Override
+        public int execute(String sql, int fetchSize) {
+            return sql.length() + fetchSize;
+        }
+    }
+
+    public static class NoopInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Object ret) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    public static class QueryPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return null;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("execute");
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return NoopInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(InstMethodsAdviceBenchmark.class.getName())
+                .addProfiler("gc")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(10))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(10))
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                  Mode  Cnt    Score    Error   Units
+     * InstMethodsAdviceBenchmark.advice                          avgt    5  149.966 +- 47.341   ns/op
+     * InstMethodsAdviceBenchmark.advice:gc.alloc.rate.norm       avgt    5    0.001             B/op
+     * InstMethodsAdviceBenchmark.delegation                      avgt    5  181.419 +- 28.434   ns/op
+     * InstMethodsAdviceBenchmark.delegation:gc.alloc.rate.norm   avgt    5  120.111 +-  0.007    B/op
+     * InstMethodsAdviceBenchmark.origin                          avgt    5    1.962 +-  0.760   ns/op
+     * InstMethodsAdviceBenchmark.origin:gc.alloc.rate.norm       avgt    5    0.001             B/op
+     */
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+
+public class InstMethodsAdviceTest {
+    public static final List<String> CALLS = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        CALLS.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "";
+    }
+
+    @Test
+    public void testAdviceInterception() throws Exception {
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "foo, Advice-Test";
+        Service service = enhance();
+        Assert.assertFalse(isDelegated(service.getClass(), "greet"));
+        verifyInterception(service);
+
+        // The bindings are kept by the enhanced class, one per inlined method.
+        Field bindings = Arrays.stream(service.getClass().getDeclaredFields())
+                               .filter(field -> field.getName().endsWith("$bindings"))
+                               .findFirst()
+                               .orElseThrow(AssertionError::new);
+        Assert.assertTrue(Modifier.isStatic(bindings.getModifiers()));
+        Assert.assertEquals(4, ((Object[]) bindings.get(null)).length);
+    }
+
+    @Test
+    public void testDelegationInterception() throws Exception {
+        Config.Plugin.ADVICE_INTERCEPTION_PLUGINS = "foo";
+        Service service = enhance();
+        Assert.assertTrue(isDelegated(service.getClass(), "greet"));
+        verifyInterception(service);
+    }
+
+    private void verifyInterception(Service service) {
+        Assert.assertEquals("hello skywalking!", service.greet("skywalking"));
+        Assert.assertEquals(
+            Arrays.asList("before:greet[class java.lang.String]", "body:greet", "after:greet:hello skywalking"), CALLS);
+
+        CALLS.clear();
+        Assert.assertEquals("skipped", service.greet("skip"));
+        Assert.assertEquals(Arrays.asList("before:greet[class java.lang.String]", "after:greet:skipped"), CALLS);
+
+        CALLS.clear();
+        Assert.assertEquals(4, service.add(1, 2));
+        Assert.assertEquals(Arrays.asList("before:add[int, int]", "body:add", "after:add:3"), CALLS);
+
+        CALLS.clear();
+        try {
+            service.fail();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+        Assert.assertEquals(Arrays.asList("before:fail[]", "body:fail", "exception:failed", "after:fail:null"), CALLS);
+
+        CALLS.clear();
+        try {
+            service.count();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // The origin exception, not a failure to return the null of afterMethod as an int.
+            Assert.assertEquals("count failed", e.getMessage());
+        }
+        Assert.assertEquals(
+            Arrays.asList("before:count[]", "body:count", "exception:count failed", "after:count:null"), CALLS);
+
+        CALLS.clear();
+        Assert.assertEquals("inherited", service.inherited());
+        Assert.assertEquals(Arrays.asList("before:inherited[]", "body:inherited", "after:inherited:inherited"), CALLS);
+
+        CALLS.clear();
+        service.greet("again");
+        Assert.assertEquals(3, CALLS.size());
+    }
+
+    private static Service enhance() throws Exception {
+        TypeDescription typeDescription = TypeDescription.ForLoadedType.of(TargetService.class);
+        DynamicType.Builder<?> builder = new ByteBuddy().rebase(
+            TargetService.class, ClassFileLocator.ForClassLoader.of(TargetService.class.getClassLoader()));
+        builder = new AdviceTestPluginDefine().define(
+            typeDescription, builder, InstMethodsAdviceTest.class.getClassLoader(), new EnhanceContext());
+        Class<?> enhanced = builder.make()
+                                   .load(InstMethodsAdviceTest.class.getClassLoader(), ClassLoadingStrategy.Default.CHILD_FIRST)
+                                   .getLoaded();
+        Assert.assertNotSame(TargetService.class, enhanced);
+        return (Service) enhanced.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * A delegated method is rebased, its origin code is moved to a new method.
+     */
+    private static boolean isDelegated(Class<?> clazz, String methodName) {
+        return Arrays.stream(clazz.getDeclaredMethods())
+                     .anyMatch(method -> method.getName().startsWith(methodName + "$original$"));
+    }
+
+    public interface Service {
+        String greet(String name);
+
+        int add(int a, int b);
+
+        void fail();
+
+        int count();
+
+        String inherited();
+    }
+
+    public static class BaseService {
+        public String inherited() {
+            CALLS.add("body:inherited");
+            return "inherited";
+        }
+    }
+
+    public static class TargetService extends BaseService implements Service {
+        @Override
+        public String greet(String name) {
+            CALLS.add("body:greet");
+            return "hello " + name;
+        }
+
+        @Override
+        public int add(int a, int b) {
+            CALLS.add("body:add");
+            return a + b;
+        }
+
+        @Override
+        public void fail() {
+            CALLS.add("body:fail");
+            throw new IllegalStateException("failed");
+        }
+
+        @Override
+        public int count() {
+            CALLS.add("body:count");
+            throw new IllegalStateException("count failed");
+        }
+    }
+
+    public static class RecordingInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, MethodInterceptResult result) {
+            CALLS.add("before:" + method.getName() + Arrays.toString(argumentsTypes));
+            if ("skip".equals(allArguments.length > 0 ? allArguments[0] : null)) {
+                result.defineReturnValue("skipped");
+            }
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Object ret) {
+            CALLS.add("after:" + method.getName() + ":" + ret);
+            if ("add".equals(method.getName())) {
+                return (Integer) ret + 1;
+            }
+            if ("greet".equals(method.getName()) && !"skipped".equals(ret)) {
+                return ret + "!";
+            }
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Throwable t) {
+            CALLS.add("exception:" + t.getMessage());
+        }
+    }
+
+    public static class AdviceTestPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        public AdviceTestPluginDefine() {
+            setPluginName("advice-test");
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return null;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return namedOneOf("greet", "add", "fail", "count").or(named("inherited"));
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return RecordingInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+}
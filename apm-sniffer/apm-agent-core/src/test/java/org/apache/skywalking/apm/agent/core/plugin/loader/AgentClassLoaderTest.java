@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AgentClassLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFindClass() throws Exception {
+        String path = Payload.class.getName().replace('.', '/') + ".class";
+        byte[] classBytes;
+        try (InputStream is = Payload.class.getClassLoader().getResourceAsStream(path)) {
+            classBytes = AgentClassLoader.readAll(is, -1);
+        }
+        File plugins = folder.newFolder("plugins");
+        writeJar(new File(plugins, "payload.jar"), path, classBytes);
+
+        AgentClassLoader loader = new AgentClassLoader(null, Collections.singletonList(plugins));
+        Class<?> loaded = loader.findClass(Payload.class.getName());
+        Assert.assertEquals(Payload.class.getName(), loaded.getName());
+        Assert.assertSame(loader, loaded.getClassLoader());
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testClassNotFound() throws Exception {
+        File plugins = folder.newFolder("plugins");
+        writeJar(new File(plugins, "empty.jar"), "readme.txt", new byte[0]);
+        new AgentClassLoader(null, Collections.singletonList(plugins)).findClass("org.example.Missing");
+    }
+
+    @Test
+    public void testFindResources() throws Exception {
+        File plugins = folder.newFolder("plugins");
+        File activations = folder.newFolder("activations");
+        writeJar(new File(plugins, "a.jar"), "skywalking-plugin.def", "a".getBytes(StandardCharsets.UTF_8));
+        writeJar(new File(activations, "b.jar"), "skywalking-plugin.def", "b".getBytes(StandardCharsets.UTF_8));
+
+        AgentClassLoader loader = new AgentClassLoader(null, Arrays.asList(plugins, activations));
+        List<URL> urls = Collections.list(loader.findResources("skywalking-plugin.def"));
+        Assert.assertEquals(2, urls.size());
+        Assert.assertTrue(urls.get(0).toString().endsWith("a.jar!/skywalking-plugin.def"));
+        Assert.assertTrue(urls.get(1).toString().endsWith("b.jar!/skywalking-plugin.def"));
+        Assert.assertEquals(urls.get(0), loader.findResource("skywalking-plugin.def"));
+        Assert.assertNull(loader.findResource("missing.def"));
+    }
+
+    @Test
+    public void testReadAll() throws IOException {
+        byte[] data = new byte[20000];
+        Arrays.fill(data, (byte) 7);
+        Assert.assertArrayEquals(data, AgentClassLoader.readAll(new ByteArrayInputStream(data), data.length));
+        Assert.assertArrayEquals(data, AgentClassLoader.readAll(new ByteArrayInputStream(data), -1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTruncated() throws IOException {
+        AgentClassLoader.readAll(new ByteArrayInputStream(new byte[10]), 20);
+    }
+
+    private static void writeJar(File file, String entryName, byte[] content) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file))) {
+            jar.putNextEntry(new JarEntry(entryName));
+            jar.write(content);
+            jar.closeEntry();
+        }
+    }
+
+    public static class Payload {
+    }
+}
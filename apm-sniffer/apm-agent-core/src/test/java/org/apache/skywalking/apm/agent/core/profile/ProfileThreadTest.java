@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfileThreadTest {
+
+    private ProfileTaskExecutionContext executionContext;
+    private ThreadMXBean threadMXBean;
+    private ProfileTaskChannelService channelService;
+    private ProfileThread profileThread;
+
+    @Before
+    public void setUp() {
+        ProfileTask task = new ProfileTask();
+        task.setTaskId("task");
+        task.setMaxSamplingCount(10);
+        executionContext = new ProfileTaskExecutionContext(task);
+        threadMXBean = mock(ThreadMXBean.class);
+        channelService = mock(ProfileTaskChannelService.class);
+        profileThread = new ProfileThread(
+            executionContext, threadMXBean, mock(ProfileTaskExecutionService.class), channelService);
+    }
+
+    private ThreadProfiler profiling(int slot, Thread thread) {
+        TracingContext tracingContext = mock(TracingContext.class);
+        when(tracingContext.getSegmentId()).thenReturn("segment-" + slot);
+        ThreadProfiler profiler = new ThreadProfiler(tracingContext, "segment-" + slot, thread, executionContext);
+        profiler.startProfilingIfNeed();
+        executionContext.threadProfilerSlots().set(slot, profiler);
+        return profiler;
+    }
+
+    private static ThreadInfo threadInfo() {
+        ThreadInfo threadInfo = mock(ThreadInfo.class);
+        when(threadInfo.getStackTrace()).thenReturn(new StackTraceElement[] {
+            new StackTraceElement("org.example.Service", "run", "Service.java", 10)
+        });
+        return threadInfo;
+    }
+
+    @Test
+    public void testDumpAllThreadsByOneCall() {
+        Thread first = new Thread(() -> { });
+        Thread finished = new Thread(() -> { });
+        Thread second = new Thread(() -> { });
+        List<ThreadProfiler> profilers = Arrays.asList(
+            profiling(0, first), profiling(1, finished), profiling(2, second));
+        // the thread info of a finished thread is null
+        when(threadMXBean.getThreadInfo(any(long[].class), anyInt()))
+            .thenReturn(new ThreadInfo[] {threadInfo(), null, threadInfo()});
+
+        profileThread.batchDump(executionContext, profilers);
+
+        verify(threadMXBean, times(1)).getThreadInfo(
+            aryEq(new long[] {first.getId(), finished.getId(), second.getId()}),
+            eq(Config.Profile.DUMP_MAX_STACK_DEPTH)
+        );
+        verify(channelService, times(2)).addProfilingSnapshot(any());
+        Assert.assertSame(profilers.get(0), executionContext.threadProfilerSlots().get(0));
+        // the profiler of the finished thread is stopped
+        Assert.assertNull(executionContext.threadProfilerSlots().get(1));
+        Assert.assertEquals(ProfileStatus.STOPPED, profilers.get(1).profilingStatus().get());
+        Assert.assertSame(profilers.get(2), executionContext.threadProfilerSlots().get(2));
+    }
+
+    @Test
+    public void testStopAllProfilersWhenDumpFails() {
+        List<ThreadProfiler> profilers = Arrays.asList(
+            profiling(0, new Thread(() -> { })), profiling(1, new Thread(() -> { })));
+        when(threadMXBean.getThreadInfo(any(long[].class), anyInt())).thenThrow(new SecurityException("denied"));
+
+        profileThread.batchDump(executionContext, profilers);
+
+        verify(channelService, never()).addProfilingSnapshot(any());
+        for (int slot = 0; slot < profilers.size(); slot++) {
+            Assert.assertNull(executionContext.threadProfilerSlots().get(slot));
+            Assert.assertEquals(ProfileStatus.STOPPED, profilers.get(slot).profilingStatus().get());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.Arrays;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackFrameDictionaryTest {
+
+    private static StackTraceElement frame(String method, int line) {
+        return new StackTraceElement("org.example.Service", method, "Service.java", line);
+    }
+
+    @Test
+    public void testInternInvertsAndLimitsTheStack() {
+        StackFrameDictionary dictionary = new StackFrameDictionary();
+        StackTraceElement[] stackTrace = {frame("query", 30), frame("handle", 20), frame("run", 10)};
+
+        ThreadStack stack = dictionary.intern(stackTrace, 2);
+
+        Assert.assertEquals(
+            Arrays.asList("org.example.Service.handle:20", "org.example.Service.query:30"),
+            stack.getCodeSignaturesList()
+        );
+    }
+
+    @Test
+    public void testSameStackIsShared() {
+        StackFrameDictionary dictionary = new StackFrameDictionary();
+        StackTraceElement[] first = {frame("query", 30), frame("run", 10)};
+        StackTraceElement[] second = {frame("query", 30), frame("run", 10)};
+        StackTraceElement[] other = {frame("query", 31), frame("run", 10)};
+
+        ThreadStack stack = dictionary.intern(first, first.length);
+        Assert.assertSame(stack, dictionary.intern(second, second.length));
+        Assert.assertNotSame(stack, dictionary.intern(other, other.length));
+        // the bottom frame is converted once for both stacks
+        Assert.assertSame(
+            stack.getCodeSignaturesList().get(0), dictionary.intern(other, other.length).getCodeSignaturesList().get(0));
+        Assert.assertEquals(3, dictionary.frameCount());
+        Assert.assertEquals(2, dictionary.stackCount());
+    }
+
+    @Test
+    public void testDictionaryIsBounded() {
+        StackFrameDictionary dictionary = new StackFrameDictionary();
+        for (int i = 0; i < StackFrameDictionary.MAX_FRAMES + 10; i++) {
+            StackTraceElement[] stackTrace = {frame("query", i)};
+            Assert.assertEquals(
+                "org.example.Service.query:" + i, dictionary.intern(stackTrace, 1).getCodeSignatures(0));
+        }
+        Assert.assertEquals(StackFrameDictionary.MAX_FRAMES, dictionary.frameCount());
+        Assert.assertEquals(StackFrameDictionary.MAX_STACKS, dictionary.stackCount());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedSpillStoreTest {
+    private static final long MAX_SIZE = 4 * 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPeekAndCommit() throws Exception {
+        MappedSpillStore store = new MappedSpillStore(folder.getRoot(), MAX_SIZE);
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.append(message(i)), is(true));
+        }
+
+        List<byte[]> records = new ArrayList<>();
+        assertThat(store.peek(3, records), is(3));
+        assertThat(text(records.get(2)), is("message-2"));
+
+        // Not committed, the same records are read again.
+        records.clear();
+        assertThat(store.peek(3, records), is(3));
+        assertThat(text(records.get(0)), is("message-0"));
+        store.commit();
+
+        records.clear();
+        assertThat(store.peek(10, records), is(2));
+        assertThat(text(records.get(0)), is("message-3"));
+        store.commit();
+
+        records.clear();
+        assertThat(store.peek(10, records), is(0));
+        store.close();
+    }
+
+    @Test
+    public void testEvictOldest() throws Exception {
+        MappedSpillStore store = new MappedSpillStore(folder.getRoot(), MAX_SIZE);
+        byte[] large = new byte[30 * 1024];
+        // Two records per chunk, four chunks at most.
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.append(large), is(true));
+        }
+        assertThat(store.getAndResetEvictedCounter(), is(1L));
+        assertThat(folder.getRoot().listFiles().length, is(4));
+
+        List<byte[]> records = new ArrayList<>();
+        assertThat(store.peek(100, records), is(8));
+        store.commit();
+        // Only the chunk being written is left.
+        assertThat(folder.getRoot().listFiles().length, is(1));
+
+        assertThat(store.append(new byte[64 * 1024]), is(false));
+        store.close();
+        // Nothing is appended to the unmapped chunks after closing.
+        assertThat(store.append(message(0)), is(false));
+    }
+
+    @Test
+    public void testRecover() throws Exception {
+        File directory = folder.getRoot();
+        MappedSpillStore store = new MappedSpillStore(directory, MAX_SIZE);
+        for (int i = 0; i < 4; i++) {
+            store.append(message(i));
+        }
+        List<byte[]> records = new ArrayList<>();
+        store.peek(1, records);
+        store.commit();
+        store.close();
+
+        store = new MappedSpillStore(directory, MAX_SIZE);
+        store.append(message(4));
+        records.clear();
+        assertThat(store.peek(10, records), is(4));
+        assertThat(text(records.get(0)), is("message-1"));
+        assertThat(text(records.get(3)), is("message-4"));
+        store.commit();
+        store.close();
+    }
+
+    private static byte[] message(int i) {
+        return ("message-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] record) {
+        return new String(record, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.nio.channels.FileLock;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SpillServiceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        Config.Collector.SPILL_ENABLE = false;
+        Config.Collector.SPILL_DIR = "";
+    }
+
+    @Test
+    public void testLockDirectory() throws Exception {
+        File directory = new File(folder.getRoot(), "service");
+        FileLock lock = SpillService.lockDirectory(directory);
+        assertThat(lock, notNullValue());
+        // The directory is not shared while it is locked.
+        assertThat(SpillService.lockDirectory(directory), nullValue());
+
+        lock.channel().close();
+        lock = SpillService.lockDirectory(directory);
+        assertThat(lock, notNullValue());
+        lock.channel().close();
+    }
+
+    @Test
+    public void testDisabledWhenDirectoryCanNotBeCreated() throws Throwable {
+        Config.Collector.SPILL_ENABLE = true;
+        // A directory can't be created under a regular file, like under a read-only agent package.
+        Config.Collector.SPILL_DIR = new File(folder.newFile("agent"), "spill").getPath();
+        SpillService spillService = new SpillService();
+        spillService.boot();
+        assertThat(spillService.isEnabled(), is(false));
+        assertThat(spillService.spill(SpillService.Type.SEGMENT, new byte[1]), is(false));
+        spillService.shutdown();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TraceIdPartitionerTest {
+    private final TraceIdPartitioner partitioner = new TraceIdPartitioner();
+
+    @Test
+    public void testSameTraceSameChannel() {
+        TraceSegment first = new TraceSegment();
+        TraceSegment second = new TraceSegment();
+        second.relatedGlobalTrace(new PropagatedTraceId(first.getRelatedGlobalTrace().getId()));
+
+        for (int total = 1; total <= 16; total++) {
+            assertThat(partitioner.partition(total, second), is(partitioner.partition(total, first)));
+        }
+        assertThat(partitioner.maxRetryCount(), is(1));
+    }
+
+    @Test
+    public void testSpreadOverChannels() {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            int index = partitioner.partition(4, new TraceSegment());
+            assertTrue(index >= 0 && index < 4);
+            used.add(index);
+        }
+        assertThat(used.size(), is(4));
+    }
+}
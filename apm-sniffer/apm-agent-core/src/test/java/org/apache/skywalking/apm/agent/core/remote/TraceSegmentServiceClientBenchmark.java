@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Segments per second reported by {@link TraceSegmentServiceClient} to an in-process gRPC server, with different
+ * {@link Config.Collector#SEGMENT_CONSUMER_SIZE}. Each invocation reports a batch of segments of different traces and
+ * waits until the server has received all of them.
+ */
+@State(Scope.Benchmark)
+public class TraceSegmentServiceClientBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({
+        "1",
+        "2",
+        "4"
+    })
+    private int consumers;
+
+    @Param({
+        "false",
+        "true"
+    })
+    private boolean persistent;
+
+    private final AtomicLong received = new AtomicLong();
+    private long reported;
+    private final List<TraceSegment> segments = new ArrayList<>(BATCH);
+    private Server server;
+    private ManagedChannel channel;
+    private TraceSegmentServiceClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Config.Agent.KEEP_TRACING = true;
+        Config.Buffer.BUFFER_SIZE = BATCH;
+        Config.Collector.SEGMENT_CONSUMER_SIZE = consumers;
+        Config.Collector.SEGMENT_STREAM_PERSISTENT = persistent;
+        ServiceManager.INSTANCE.boot();
+        TracingContext.ListenerManager.remove(ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class));
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(new CountingService()).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        client = new TraceSegmentServiceClient();
+        Field serviceStub = TraceSegmentServiceClient.class.getDeclaredField("serviceStub");
+        serviceStub.setAccessible(true);
+        serviceStub.set(client, TraceSegmentReportServiceGrpc.newStub(channel));
+        Field status = TraceSegmentServiceClient.class.getDeclaredField("status");
+        status.setAccessible(true);
+        status.set(client, GRPCChannelStatus.CONNECTED);
+        client.boot();
+
+        TracingContextListener collector = segments::add;
+        TracingContext.ListenerManager.add(collector);
+        for (int i = 0; i < BATCH; i++) {
+            AbstractSpan entrySpan = ContextManager.createEntrySpan("/url", null);
+            Tags.URL.set(entrySpan, "http://localhost:8080/url");
+            AbstractSpan exitSpan = ContextManager.createExitSpan("/mysql", "localhost:3306");
+            Tags.DB_STATEMENT.set(exitSpan, "select * from test");
+            ContextManager.stopSpan();
+            ContextManager.stopSpan();
+        }
+        TracingContext.ListenerManager.remove(collector);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.shutdown();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        ServiceManager.INSTANCE.shutdown();
+        Config.Agent.KEEP_TRACING = false;
+        Config.Buffer.BUFFER_SIZE = 300;
+        Config.Collector.SEGMENT_CONSUMER_SIZE = 1;
+        Config.Collector.SEGMENT_STREAM_PERSISTENT = false;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BATCH)
+    public void report() throws InterruptedException {
+        long expected = received.get() + BATCH;
+        for (TraceSegment segment : segments) {
+            client.afterFinished(segment);
+        }
+        while (received.get() < expected) {
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    /**
+     * Keep one batch in flight, as a steady load does, so the consumer doesn't wait for the producer after each batch.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BATCH)
+    public void reportPipelined() throws InterruptedException {
+        long expected = reported;
+        reported += BATCH;
+        for (TraceSegment segment : segments) {
+            client.afterFinished(segment);
+        }
+        while (received.get() < expected) {
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    private class CountingService extends TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase {
+        @Override
+        public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+            return new StreamObserver<SegmentObject>() {
+                @Override
+                public void onNext(SegmentObject value) {
+                    received.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onNext(Commands.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(TraceSegmentServiceClientBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -19,17 +19,25 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
@@ -46,11 +54,20 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(TracingSegmentRunner.class)
 public class TraceSegmentServiceClientTest {
@@ -61,6 +78,9 @@ public class TraceSegmentServiceClientTest {
     @Rule
     public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @SegmentStoragePoint
     private SegmentStorage storage;
 
@@ -106,15 +126,18 @@ public class TraceSegmentServiceClientTest {
         reconnect.setAccessible(true);
         reconnect.setBoolean(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), false);
         spy(serviceClient);
+        connect(grpcServerRule.getChannel());
+
+        upstreamSegments = new ArrayList<>();
+    }
 
+    private void connect(Channel channel) throws ReflectiveOperationException {
         Field serviceStub = TraceSegmentServiceClient.class.getDeclaredField("serviceStub");
         Field status = TraceSegmentServiceClient.class.getDeclaredField("status");
         serviceStub.setAccessible(true);
         status.setAccessible(true);
-        serviceStub.set(serviceClient, TraceSegmentReportServiceGrpc.newStub(grpcServerRule.getChannel()));
+        serviceStub.set(serviceClient, TraceSegmentReportServiceGrpc.newStub(channel));
         status.set(serviceClient, GRPCChannelStatus.CONNECTED);
-
-        upstreamSegments = new ArrayList<>();
     }
 
     @Test
@@ -161,4 +184,199 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testSendTraceSegmentByPersistentStream() throws Exception {
+        final AtomicInteger streamCounter = new AtomicInteger();
+        grpcServerRule.getServiceRegistry().addService(new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
+            @Override
+            public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+                streamCounter.incrementAndGet();
+                return serviceImplBase.collect(responseObserver);
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            ContextManager.createEntrySpan("/testEntry" + i, null);
+            ContextManager.stopSpan();
+        }
+        List<TraceSegment> segments = storage.getTraceSegments();
+        long maxBytes = Config.Collector.SEGMENT_STREAM_MAX_BYTES;
+        Config.Collector.SEGMENT_STREAM_PERSISTENT = true;
+        try {
+            serviceClient.consume(segments.subList(0, 1));
+            serviceClient.consume(segments.subList(1, 2));
+            assertThat(streamCounter.get(), is(1));
+
+            // Rotate the stream after every batch.
+            Config.Collector.SEGMENT_STREAM_MAX_BYTES = 1;
+            serviceClient.consume(segments.subList(2, 3));
+            serviceClient.consume(segments.subList(3, 4));
+            assertThat(streamCounter.get(), is(3));
+        } finally {
+            Config.Collector.SEGMENT_STREAM_MAX_BYTES = maxBytes;
+            Config.Collector.SEGMENT_STREAM_PERSISTENT = false;
+            serviceClient.onExit();
+        }
+
+        assertThat(upstreamSegments.size(), is(4));
+        assertThat(upstreamSegments.get(3).getSpans(0).getOperationName(), is("/testEntry3"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPersistentStreamFollowsFlowControl() throws Exception {
+        final ClientCall<Object, Object> call = mock(ClientCall.class);
+        final Channel channel = mock(Channel.class);
+        when(channel.newCall(any(), any())).thenReturn((ClientCall) call);
+        final AtomicReference<ClientCall.Listener<Object>> listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return null;
+        }).when(call).start(any(), any());
+        // The transport is ready for one segment at a time, and gets ready again a while after it is written.
+        final AtomicBoolean ready = new AtomicBoolean(true);
+        final AtomicInteger sentWhenNotReady = new AtomicInteger();
+        when(call.isReady()).thenAnswer(invocation -> ready.get());
+        doAnswer(invocation -> {
+            if (!ready.getAndSet(false)) {
+                sentWhenNotReady.incrementAndGet();
+            }
+            Thread drain = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignored) {
+                }
+                ready.set(true);
+                listener.get().onReady();
+            });
+            drain.setDaemon(true);
+            drain.start();
+            return null;
+        }).when(call).sendMessage(any());
+
+        for (int i = 0; i < 3; i++) {
+            ContextManager.createEntrySpan("/testEntry" + i, null);
+            ContextManager.stopSpan();
+        }
+        connect(channel);
+        Config.Collector.SEGMENT_STREAM_PERSISTENT = true;
+        try {
+            serviceClient.consume(storage.getTraceSegments());
+            verify(call, times(3)).sendMessage(any());
+            verify(call, never()).cancel(anyString(), any());
+            assertThat(sentWhenNotReady.get(), is(0));
+        } finally {
+            Config.Collector.SEGMENT_STREAM_PERSISTENT = false;
+            serviceClient.onExit();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPersistentStreamNotReadyInTime() throws Exception {
+        final ClientCall<Object, Object> call = mock(ClientCall.class);
+        final Channel channel = mock(Channel.class);
+        when(channel.newCall(any(), any())).thenReturn((ClientCall) call);
+        // Ready for the first segment only, and never again.
+        when(call.isReady()).thenReturn(true, false);
+
+        for (int i = 0; i < 3; i++) {
+            ContextManager.createEntrySpan("/testEntry" + i, null);
+            ContextManager.stopSpan();
+        }
+        connect(channel);
+        int timeout = Config.Collector.GRPC_UPSTREAM_TIMEOUT;
+        Config.Collector.GRPC_UPSTREAM_TIMEOUT = 1;
+        Config.Collector.SEGMENT_STREAM_PERSISTENT = true;
+        try {
+            serviceClient.consume(storage.getTraceSegments());
+            // The stuck stream is cancelled before the second segment, the rest of the batch is abandoned.
+            verify(call, times(1)).sendMessage(any());
+            verify(call).cancel(anyString(), any());
+        } finally {
+            Config.Collector.GRPC_UPSTREAM_TIMEOUT = timeout;
+            Config.Collector.SEGMENT_STREAM_PERSISTENT = false;
+            serviceClient.onExit();
+        }
+    }
+
+    @Test
+    public void testSendTraceSegmentByMultipleConsumers() throws Exception {
+        upstreamSegments = Collections.synchronizedList(upstreamSegments);
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        for (int i = 0; i < 20; i++) {
+            ContextManager.createEntrySpan("/testEntry" + i, null);
+            ContextManager.stopSpan();
+        }
+        List<TraceSegment> segments = storage.getTraceSegments();
+
+        Config.Collector.SEGMENT_CONSUMER_SIZE = 3;
+        try {
+            serviceClient.boot();
+            for (TraceSegment segment : segments) {
+                serviceClient.afterFinished(segment);
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (upstreamSegments.size() < segments.size() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            Config.Collector.SEGMENT_CONSUMER_SIZE = 1;
+            serviceClient.shutdown();
+        }
+
+        assertThat(upstreamSegments.size(), is(20));
+    }
+
+    @Test
+    public void testSpillAndReplay() throws Throwable {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        ContextManager.createEntrySpan("/testSpill", null);
+        ContextManager.stopSpan();
+
+        Config.Collector.SPILL_ENABLE = true;
+        Config.Collector.SPILL_DIR = folder.getRoot().getAbsolutePath();
+        SpillService spillService = new SpillService();
+        try {
+            spillService.boot();
+            spillService.setReplayer(SpillService.Type.SEGMENT, segments -> {
+                try {
+                    Method replay = TraceSegmentServiceClient.class.getDeclaredMethod("replay", List.class);
+                    replay.setAccessible(true);
+                    return (Boolean) replay.invoke(serviceClient, segments);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Field spill = TraceSegmentServiceClient.class.getDeclaredField("spillService");
+            spill.setAccessible(true);
+            spill.set(serviceClient, spillService);
+            Field status = TraceSegmentServiceClient.class.getDeclaredField("status");
+            status.setAccessible(true);
+
+            status.set(serviceClient, GRPCChannelStatus.DISCONNECT);
+            serviceClient.consume(storage.getTraceSegments());
+            spillService.run();
+            assertThat(upstreamSegments.size(), is(0));
+
+            status.set(serviceClient, GRPCChannelStatus.CONNECTED);
+            spillService.run();
+            assertThat(upstreamSegments.size(), is(1));
+            assertThat(upstreamSegments.get(0).getSpans(0).getOperationName(), is("/testSpill"));
+
+            // Replayed once only.
+            spillService.run();
+            assertThat(upstreamSegments.size(), is(1));
+
+            // The data coming after the shutdown is dropped, and the directory is kept out of the config.
+            spillService.shutdown();
+            assertThat(spillService.spill(SpillService.Type.SEGMENT, new byte[1]), is(false));
+            spillService.run();
+            assertThat(Config.Collector.SPILL_DIR, is(folder.getRoot().getAbsolutePath()));
+        } finally {
+            spillService.shutdown();
+            Config.Collector.SPILL_ENABLE = false;
+            Config.Collector.SPILL_DIR = "";
+        }
+    }
 }
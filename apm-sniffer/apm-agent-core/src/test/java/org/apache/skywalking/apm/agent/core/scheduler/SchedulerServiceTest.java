@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchedulerServiceTest {
+    private SchedulerService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new SchedulerService();
+    }
+
+    @After
+    public void tearDown() throws Throwable {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testPeriodicalTasks() throws InterruptedException {
+        CountDownLatch fixedRate = new CountDownLatch(3);
+        CountDownLatch fixedDelay = new CountDownLatch(3);
+        ScheduledFuture<?> rateFuture = scheduler.scheduleAtFixedRate(
+            "rate", fixedRate::countDown, 0, 10, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> delayFuture = scheduler.scheduleWithFixedDelay(
+            "delay", fixedDelay::countDown, 0, 10, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(fixedRate.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(fixedDelay.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(scheduler.drainMaxLag("rate") >= 0);
+        rateFuture.cancel(true);
+        delayFuture.cancel(true);
+        Assert.assertEquals(-1, scheduler.drainMaxLag("unknown"));
+    }
+
+    @Test
+    public void testLagReleasedOnCancel() {
+        ScheduledFuture<?> first = scheduler.scheduleBlockingWithFixedDelay(
+            "shared", () -> { }, 0, 10, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> second = scheduler.scheduleWithFixedDelay(
+            "shared", () -> { }, 0, 10, TimeUnit.MILLISECONDS);
+        first.cancel(true);
+        Assert.assertTrue(first.isCancelled());
+        // Still held by the second task.
+        Assert.assertTrue(scheduler.drainMaxLag("shared") >= 0);
+        second.cancel(true);
+        // Cancelling twice doesn't release twice.
+        first.cancel(true);
+        Assert.assertEquals(-1, scheduler.drainMaxLag("shared"));
+    }
+
+    @Test
+    public void testLagOfBlockedTask() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        // Occupy every thread of the pool, so the next task can't start on time.
+        for (int i = 0; i < 8; i++) {
+            scheduler.schedule("blocker", () -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignored) {
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+        }
+        scheduler.schedule("late", done::countDown, 0, TimeUnit.MILLISECONDS);
+        Thread.sleep(200);
+        blocked.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        long lag = scheduler.drainMaxLag("late");
+        Assert.assertTrue("lag " + lag, lag >= TimeUnit.MILLISECONDS.toNanos(150));
+        Assert.assertEquals(0, scheduler.drainMaxLag("late"));
+    }
+
+    @Test
+    public void testBlockingTaskOutOfSharedPool() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch periodical = new CountDownLatch(3);
+        // Block every blocking thread, and every shared thread if the blocking tasks were run by the shared pool.
+        for (int i = 0; i < 8; i++) {
+            scheduler.scheduleBlockingWithFixedDelay("blocking-" + i, () -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignored) {
+                }
+            }, 0, 10, TimeUnit.MILLISECONDS);
+        }
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(
+            "periodical", periodical::countDown, 0, 10, TimeUnit.MILLISECONDS);
+        try {
+            Assert.assertTrue(periodical.await(5, TimeUnit.SECONDS));
+        } finally {
+            future.cancel(true);
+            blocked.countDown();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterceptorSo11yTest {
+
+    @After
+    public void tearDown() {
+        Config.Meter.INTERCEPTOR_TIME_COST_SAMPLE_RATE = 1;
+    }
+
+    @Test
+    public void testTimeAllCallsByDefault() {
+        InterceptorSo11y so11y = InterceptorSo11y.of("test-plugin", "inst");
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(so11y.sample());
+        }
+    }
+
+    @Test
+    public void testSampleRate() {
+        Config.Meter.INTERCEPTOR_TIME_COST_SAMPLE_RATE = 10;
+        InterceptorSo11y so11y = InterceptorSo11y.of("test-plugin", "static");
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (so11y.sample()) {
+                sampled++;
+            }
+        }
+        Assert.assertTrue("sampled " + sampled, sampled > 9_000 && sampled < 11_000);
+    }
+
+    @Test
+    public void testBootedUntilShutdown() {
+        InterceptorSo11y.onBooted();
+        Assert.assertTrue(InterceptorSo11y.isBooted());
+        ServiceManager.INSTANCE.shutdown();
+        Assert.assertFalse(InterceptorSo11y.isBooted());
+    }
+
+    @Test
+    public void testPluginMetersAreShared() {
+        Assert.assertSame(PluginMeters.of("test-plugin"), PluginMeters.of("test-plugin"));
+        Assert.assertNotSame(PluginMeters.of("test-plugin"), PluginMeters.of("other-plugin"));
+        Assert.assertEquals(0, PluginMeters.typeIndex("inst"));
+        Assert.assertEquals(1, PluginMeters.typeIndex("static"));
+        Assert.assertEquals(2, PluginMeters.typeIndex("constructor"));
+        Assert.assertEquals(-1, PluginMeters.typeIndex("unknown"));
+    }
+}
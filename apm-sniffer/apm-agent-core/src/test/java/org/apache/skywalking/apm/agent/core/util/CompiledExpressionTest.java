@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CompiledExpressionTest {
+
+    @Test
+    public void testEvaluateArguments() {
+        Object[] allArguments = new Object[] {
+            "text",
+            new int[] {1, 2},
+            new Item("a"),
+            Collections.singletonMap("k", "v")
+        };
+        Assert.assertEquals("text", CompiledExpression.compile("arg[0]").evaluate(allArguments));
+        Assert.assertEquals("2", CompiledExpression.compile("arg[1].[1]").evaluate(allArguments));
+        Assert.assertEquals("a", CompiledExpression.compile("arg[2].name").evaluate(allArguments));
+        Assert.assertEquals("A", CompiledExpression.compile("arg[2].upperName()").evaluate(allArguments));
+        Assert.assertEquals("v", CompiledExpression.compile("arg[3].['k']").evaluate(allArguments));
+        Assert.assertEquals("null", CompiledExpression.compile("arg[4]").evaluate(allArguments));
+        Assert.assertEquals("null", CompiledExpression.compile("arg[2].missing").evaluate(allArguments));
+        Assert.assertEquals("null", CompiledExpression.compile("arg[2].fail()").evaluate(allArguments));
+        Assert.assertEquals("null", CompiledExpression.compile("returnedObj").evaluate(allArguments));
+        Assert.assertEquals("null", CompiledExpression.compile("arg[0]").evaluate(null));
+    }
+
+    @Test
+    public void testEvaluateReturnedObj() {
+        CompiledExpression expression = CompiledExpression.compile("returnedObj.[0].name");
+        Assert.assertTrue(expression.isReturnedObj());
+        Assert.assertEquals("b", expression.evaluateReturnedObj(Arrays.asList(new Item("b"))));
+        Assert.assertEquals("null", expression.evaluateReturnedObj(null));
+        Assert.assertEquals("null", CompiledExpression.compile("arg[0]").evaluateReturnedObj("text"));
+    }
+
+    @Test
+    public void testEvaluateReceiversOfManyClasses() {
+        CompiledExpression expression = CompiledExpression.compile("arg[0].name");
+        Assert.assertSame(expression, CompiledExpression.compile("arg[0].name"));
+        // the same field name is read in every class, each class resolving its own accessor
+        Object[] items = new Object[] {
+            new Item("1"), new Item2("2"), new Item3("3"), new Item4("4"), new Item5("5"), new Item("6")
+        };
+        for (int round = 0; round < 2; round++) {
+            for (Object item : items) {
+                Assert.assertEquals(item.toString(), expression.evaluate(new Object[] {item}));
+            }
+        }
+    }
+
+    static class Item {
+        private final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        public String upperName() {
+            return name.toUpperCase();
+        }
+
+        public String fail() {
+            throw new IllegalStateException("fail");
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static class Item2 extends Item {
+        private final String name;
+
+        Item2(String name) {
+            super(name);
+            this.name = name;
+        }
+    }
+
+    static class Item3 extends Item {
+        private final String name;
+
+        Item3(String name) {
+            super(name);
+            this.name = name;
+        }
+    }
+
+    static class Item4 extends Item {
+        private final String name;
+
+        Item4(String name) {
+            super(name);
+            this.name = name;
+        }
+    }
+
+    static class Item5 extends Item {
+        private final String name;
+
+        Item5(String name) {
+            super(name);
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluate the tags of a method with the context map of {@link CustomizeExpression} and with {@link
+ * CompiledExpression}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomizeExpressionBenchmark {
+    private static final String[] EXPRESSIONS = {
+        "arg[0]",
+        "arg[1].id",
+        "arg[1].getName()",
+        "arg[1].ext.['region']"
+    };
+
+    private final Object[] allArguments = {
+        "order",
+        new CustomizeExpressionTest.User(100, "sw", Collections.singletonMap("region", "eu"))
+    };
+
+    @Benchmark
+    public int parseExpression() {
+        int length = 0;
+        Map<String, Object> context = CustomizeExpression.evaluationContext(allArguments);
+        for (String expression : EXPRESSIONS) {
+            length += CustomizeExpression.parseExpression(expression, context).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int compiledExpression() {
+        int length = 0;
+        for (String expression : EXPRESSIONS) {
+            length += CompiledExpression.compile(expression).evaluate(allArguments).length();
+        }
+        return length;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(CustomizeExpressionBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * The parseExpression resolving the members by reflection on every evaluation, before the CompiledExpression
+     *
+     * Benchmark                                     Mode  Cnt    Score     Error  Units
+     * CustomizeExpressionBenchmark.parseExpression  avgt    5  861.722 +- 594.221  ns/op
+     *
+     * Benchmark                                        Mode  Cnt    Score     Error  Units
+     * CustomizeExpressionBenchmark.compiledExpression  avgt    5  276.780 +-  94.658  ns/op
+     * CustomizeExpressionBenchmark.parseExpression     avgt    5  417.014 +- 105.256  ns/op
+     *
+     * The accessors kept in a ClassValue per hop, instead of the inline cache of the last 4 receiver classes
+     *
+     * Benchmark                                        Mode  Cnt    Score     Error  Units
+     * CustomizeExpressionBenchmark.compiledExpression  avgt    5  305.535 +-  84.155  ns/op
+     * CustomizeExpressionBenchmark.parseExpression     avgt    5  349.105 +-  85.182  ns/op
+     */
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NameCacheTest {
+
+    @Test
+    public void testCacheByOwnerAndKey() {
+        NameCache cache = new NameCache(10);
+        Object owner = new Object();
+        Assert.assertNull(cache.get(owner, "a"));
+        Assert.assertEquals("name-a", cache.put(owner, "a", "name-a"));
+        Assert.assertEquals("name-a", cache.put(owner, "a", new String("name-a2")));
+        Assert.assertEquals("name-a", cache.get(owner, "a"));
+        Assert.assertNull(cache.get(owner, "b"));
+        // the owners are compared by identity
+        Assert.assertNull(cache.get(new Object(), "a"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        NameCache cache = new NameCache(2);
+        Object owner = new Object();
+        cache.put(owner, "a", "name-a");
+        cache.put(owner, "b", "name-b");
+        Assert.assertEquals("name-c", cache.put(owner, "c", "name-c"));
+        Assert.assertNull(cache.get(owner, "c"));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testReleaseCollectedOwners() throws InterruptedException {
+        NameCache cache = new NameCache(10);
+        cache.put(new Object(), "a", "name-a");
+        Assert.assertEquals(1, cache.size());
+
+        Object owner = new Object();
+        cache.put(owner, "b", "name-b");
+        for (int i = 0; i < 100 && cache.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            // the names of the collected owners are released when putting
+            cache.put(owner, "b", "name-b");
+        }
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("name-b", cache.get(owner, "b"));
+    }
+}
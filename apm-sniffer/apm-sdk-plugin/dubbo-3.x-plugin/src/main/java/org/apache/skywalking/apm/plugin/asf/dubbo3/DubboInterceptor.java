@@ -34,6 +34,7 @@ import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.apache.skywalking.apm.agent.core.util.NameCache;
 import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 import org.apache.skywalking.apm.util.StringUtil;
 
@@ -49,6 +50,15 @@ public class DubboInterceptor implements InstanceMethodsAroundInterceptor {
 
     public static final String ARGUMENTS = "arguments";
 
+    private static final String PEER = "peer";
+
+    /**
+     * The operation names, request URLs and peers of the services, cached by the URL of the invoker.
+     */
+    private static final NameCache OPERATION_NAMES = new NameCache();
+    private static final NameCache REQUEST_URLS = new NameCache();
+    private static final NameCache PEERS = new NameCache();
+
     /**
      * Consumer: The serialized trace context data will
      * inject to the {@link RpcContext#getClientAttachment} for transport to provider side.
@@ -70,15 +80,14 @@ public class DubboInterceptor implements InstanceMethodsAroundInterceptor {
 
         AbstractSpan span;
 
-        final String host = requestURL.getHost();
-        final int port = requestURL.getPort();
+        final InvocationKey invocationKey = new InvocationKey(invocation.getMethodName(), invocation.getParameterTypes());
+        final String operationName = operationName(requestURL, invocation, invocationKey);
 
         boolean needCollectArguments;
         int argumentsLengthThreshold;
         if (isConsumer) {
             final ContextCarrier contextCarrier = new ContextCarrier();
-            span = ContextManager.createExitSpan(
-                generateOperationName(requestURL, invocation), contextCarrier, host + ":" + port);
+            span = ContextManager.createExitSpan(operationName, contextCarrier, peer(requestURL));
             //invocation.getAttachments().put("contextData", contextDataStr);
             //@see https://github.com/alibaba/dubbo/blob/dubbo-2.5.3/dubbo-rpc/dubbo-rpc-api/src/main/java/com/alibaba/dubbo/rpc/RpcInvocation.java#L154-L161
             CarrierItem next = contextCarrier.items();
@@ -99,13 +108,13 @@ public class DubboInterceptor implements InstanceMethodsAroundInterceptor {
                 next.setHeadValue(attachment.getAttachment(next.getHeadKey()));
             }
 
-            span = ContextManager.createEntrySpan(generateOperationName(requestURL, invocation), contextCarrier);
+            span = ContextManager.createEntrySpan(operationName, contextCarrier);
             span.setPeer(attachment.getRemoteAddressString());
             needCollectArguments = DubboPluginConfig.Plugin.Dubbo.COLLECT_PROVIDER_ARGUMENTS;
             argumentsLengthThreshold = DubboPluginConfig.Plugin.Dubbo.PROVIDER_ARGUMENTS_LENGTH_THRESHOLD;
         }
 
-        Tags.URL.set(span, generateRequestURL(requestURL, invocation));
+        Tags.URL.set(span, requestURL(requestURL, operationName, invocationKey));
         collectArguments(needCollectArguments, argumentsLengthThreshold, span, invocation);
         span.setComponent(ComponentsDefine.DUBBO);
         SpanLayer.asRPCFramework(span);
@@ -150,6 +159,30 @@ public class DubboInterceptor implements InstanceMethodsAroundInterceptor {
                 .equals("consumer");
     }
 
+    private String operationName(URL requestURL, Invocation invocation, InvocationKey invocationKey) {
+        String operationName = OPERATION_NAMES.get(requestURL, invocationKey);
+        if (operationName == null) {
+            operationName = OPERATION_NAMES.put(requestURL, invocationKey, generateOperationName(requestURL, invocation));
+        }
+        return operationName;
+    }
+
+    private String requestURL(URL url, String operationName, InvocationKey invocationKey) {
+        String requestURL = REQUEST_URLS.get(url, invocationKey);
+        if (requestURL == null) {
+            requestURL = REQUEST_URLS.put(url, invocationKey, generateRequestURL(url, operationName));
+        }
+        return requestURL;
+    }
+
+    private String peer(URL url) {
+        String peer = PEERS.get(url, PEER);
+        if (peer == null) {
+            peer = PEERS.put(url, PEER, url.getHost() + ":" + url.getPort());
+        }
+        return peer;
+    }
+
     /**
      * Format operation name. e.g. org.apache.skywalking.apm.plugin.test.Test.test(String)
      *
@@ -180,12 +213,12 @@ public class DubboInterceptor implements InstanceMethodsAroundInterceptor {
      *
      * @return request url.
      */
-    private String generateRequestURL(URL url, Invocation invocation) {
+    private String generateRequestURL(URL url, String operationName) {
         StringBuilder requestURL = new StringBuilder();
         requestURL.append(url.getProtocol() + "://");
         requestURL.append(url.getHost());
         requestURL.append(":" + url.getPort() + "/");
-        requestURL.append(generateOperationName(url, invocation));
+        requestURL.append(operationName);
         return requestURL.toString();
     }
 
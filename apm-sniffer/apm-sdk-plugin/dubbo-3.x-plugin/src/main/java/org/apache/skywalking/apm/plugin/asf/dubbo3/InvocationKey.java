@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.asf.dubbo3;
+
+import java.util.Arrays;
+
+/**
+ * The method name and parameter types of an invocation, telling apart the names cached for the methods of a service.
+ */
+final class InvocationKey {
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+    private final int hash;
+
+    InvocationKey(String methodName, Class<?>[] parameterTypes) {
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes;
+        this.hash = 31 * methodName.hashCode() + Arrays.hashCode(parameterTypes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvocationKey)) {
+            return false;
+        }
+        InvocationKey that = (InvocationKey) o;
+        return hash == that.hash && methodName.equals(that.methodName) && Arrays.equals(parameterTypes, that.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
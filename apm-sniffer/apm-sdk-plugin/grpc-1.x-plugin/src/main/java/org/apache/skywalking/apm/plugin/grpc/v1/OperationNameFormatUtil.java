@@ -19,15 +19,36 @@
 package org.apache.skywalking.apm.plugin.grpc.v1;
 
 import io.grpc.MethodDescriptor;
+import org.apache.skywalking.apm.agent.core.util.NameCache;
 
 /**
  * Operation Name utility
  */
 public class OperationNameFormatUtil {
 
+    private static final String OPERATION_NAME = "";
+
+    /**
+     * The operation names and operation prefixes of the methods, cached by the method descriptor.
+     */
+    private static final NameCache OPERATION_NAMES = new NameCache();
+
     public static String formatOperationName(MethodDescriptor<?, ?> methodDescriptor) {
-        String fullMethodName = methodDescriptor.getFullMethodName();
-        return formatServiceName(fullMethodName) + "." + formatMethodName(fullMethodName);
+        return formatOperationPrefix(methodDescriptor, OPERATION_NAME);
+    }
+
+    /**
+     * @param suffix the suffix of the prefix, such as {@link Constants#CLIENT} and {@link Constants#SERVER}.
+     * @return the operation name followed by the suffix.
+     */
+    public static String formatOperationPrefix(MethodDescriptor<?, ?> methodDescriptor, String suffix) {
+        String operationPrefix = OPERATION_NAMES.get(methodDescriptor, suffix);
+        if (operationPrefix == null) {
+            String fullMethodName = methodDescriptor.getFullMethodName();
+            operationPrefix = OPERATION_NAMES.put(
+                methodDescriptor, suffix, formatServiceName(fullMethodName) + "." + formatMethodName(fullMethodName) + suffix);
+        }
+        return operationPrefix;
     }
 
     private static String formatServiceName(String requestMethodName) {
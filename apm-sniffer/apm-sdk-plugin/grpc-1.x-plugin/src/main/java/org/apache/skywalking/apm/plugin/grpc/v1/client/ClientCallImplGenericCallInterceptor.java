@@ -82,7 +82,7 @@ public class ClientCallImplGenericCallInterceptor
         // The server IP and PORT can be obtained accurately BY clientStream.
         // afterMethod method will set remotePeer.
         String remotePeer = "No Peer";
-        String operationPrefix = OperationNameFormatUtil.formatOperationName(methodDescriptor) + CLIENT;
+        String operationPrefix = OperationNameFormatUtil.formatOperationPrefix(methodDescriptor, CLIENT);
 
         ContextCarrier contextCarrier = new ContextCarrier();
         AbstractSpan span = ContextManager.createExitSpan(serviceName, contextCarrier, remotePeer);
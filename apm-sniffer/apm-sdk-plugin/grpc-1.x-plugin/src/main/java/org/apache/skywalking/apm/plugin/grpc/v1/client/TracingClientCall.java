@@ -63,7 +63,7 @@ class TracingClientCall<REQUEST, RESPONSE> extends ForwardingClientCall.SimpleFo
         this.methodDescriptor = method;
         this.serviceName = formatOperationName(method);
         this.remotePeer = channel.authority();
-        this.operationPrefix = OperationNameFormatUtil.formatOperationName(method) + CLIENT;
+        this.operationPrefix = OperationNameFormatUtil.formatOperationPrefix(method, CLIENT);
     }
 
     @Override
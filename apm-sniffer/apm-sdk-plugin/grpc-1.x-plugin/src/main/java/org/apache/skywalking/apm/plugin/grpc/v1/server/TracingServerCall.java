@@ -44,7 +44,7 @@ public class TracingServerCall<REQUEST, RESPONSE> extends ForwardingServerCall.S
                                 final ContextSnapshot contextSnapshot,
                                 final AbstractSpan parentEntrySpan) {
         super(delegate);
-        this.operationPrefix = OperationNameFormatUtil.formatOperationName(delegate.getMethodDescriptor()) + SERVER;
+        this.operationPrefix = OperationNameFormatUtil.formatOperationPrefix(delegate.getMethodDescriptor(), SERVER);
         this.contextSnapshot = contextSnapshot;
         this.parentEntrySpan = parentEntrySpan;
     }
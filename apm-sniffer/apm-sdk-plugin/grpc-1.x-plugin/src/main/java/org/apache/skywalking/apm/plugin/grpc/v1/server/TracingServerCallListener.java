@@ -43,7 +43,7 @@ public class TracingServerCallListener<REQUEST> extends ForwardingServerCallList
                                         final AbstractSpan parentEntrySpan) {
         super(delegate);
         this.methodType = descriptor.getType();
-        this.operationPrefix = OperationNameFormatUtil.formatOperationName(descriptor) + SERVER;
+        this.operationPrefix = OperationNameFormatUtil.formatOperationPrefix(descriptor, SERVER);
         this.contextSnapshot = contextSnapshot;
         this.parentEntrySpan = parentEntrySpan;
     }
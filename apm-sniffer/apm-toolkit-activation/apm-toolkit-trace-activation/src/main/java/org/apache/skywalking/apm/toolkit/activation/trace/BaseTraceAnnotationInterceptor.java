@@ -20,7 +20,6 @@ package org.apache.skywalking.apm.toolkit.activation.trace;
 
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
-import org.apache.skywalking.apm.agent.core.util.CustomizeExpression;
 import org.apache.skywalking.apm.agent.core.util.MethodUtil;
 import org.apache.skywalking.apm.toolkit.activation.ToolkitPluginConfig;
 import org.apache.skywalking.apm.toolkit.activation.util.TagUtil;
@@ -29,7 +28,6 @@ import org.apache.skywalking.apm.toolkit.trace.Tags;
 import org.apache.skywalking.apm.toolkit.trace.Trace;
 
 import java.lang.reflect.Method;
-import java.util.Map;
 
 public class BaseTraceAnnotationInterceptor {
     void beforeMethod(Method method, Object[] allArguments) {
@@ -41,19 +39,17 @@ public class BaseTraceAnnotationInterceptor {
 
         final AbstractSpan localSpan = ContextManager.createLocalSpan(operationName);
 
-        final Map<String, Object> context = CustomizeExpression.evaluationContext(allArguments);
-
         final org.apache.skywalking.apm.toolkit.trace.Tags tags = method.getAnnotation(Tags.class);
         if (tags != null && tags.value().length > 0) {
             for (final Tag tag : tags.value()) {
                 if (!TagUtil.isReturnTag(tag.value())) {
-                    TagUtil.tagSpan(localSpan, context, tag);
+                    TagUtil.tagSpan(localSpan, allArguments, tag);
                 }
             }
         }
         final Tag tag = method.getAnnotation(Tag.class);
         if (tag != null && !TagUtil.isReturnTag(tag.value())) {
-            TagUtil.tagSpan(localSpan, context, tag);
+            TagUtil.tagSpan(localSpan, allArguments, tag);
         }
     }
 
@@ -63,18 +59,17 @@ public class BaseTraceAnnotationInterceptor {
                 return;
             }
             final AbstractSpan localSpan = ContextManager.activeSpan();
-            final Map<String, Object> context = CustomizeExpression.evaluationReturnContext(ret);
             final Tags tags = method.getAnnotation(Tags.class);
             if (tags != null && tags.value().length > 0) {
                 for (final Tag tag : tags.value()) {
                     if (TagUtil.isReturnTag(tag.value())) {
-                        TagUtil.tagSpan(localSpan, context, tag);
+                        TagUtil.tagSpanByReturnedObj(localSpan, ret, tag);
                     }
                 }
             }
             final Tag tag = method.getAnnotation(Tag.class);
             if (tag != null && TagUtil.isReturnTag(tag.value())) {
-                TagUtil.tagSpan(localSpan, context, tag);
+                TagUtil.tagSpanByReturnedObj(localSpan, ret, tag);
             }
         } finally {
             ContextManager.stopSpan();
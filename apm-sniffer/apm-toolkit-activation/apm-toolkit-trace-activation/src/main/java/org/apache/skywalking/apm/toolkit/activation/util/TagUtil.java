@@ -18,21 +18,23 @@
 
 package org.apache.skywalking.apm.toolkit.activation.util;
 
-import java.util.Map;
-
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
-import org.apache.skywalking.apm.agent.core.util.CustomizeExpression;
+import org.apache.skywalking.apm.agent.core.util.CompiledExpression;
 import org.apache.skywalking.apm.toolkit.trace.Tag;
 
 public class TagUtil {
-    public static void tagSpan(final AbstractSpan span, final Map<String, Object> context,
+    public static void tagSpan(final AbstractSpan span, final Object[] allArguments,
                                      final Tag tag) {
-        new StringTag(tag.key()).set(span, CustomizeExpression.parseExpression(tag.value(), context));
+        new StringTag(tag.key()).set(span, CompiledExpression.compile(tag.value()).evaluate(allArguments));
+    }
+
+    public static void tagSpanByReturnedObj(final AbstractSpan span, final Object ret,
+                                            final Tag tag) {
+        new StringTag(tag.key()).set(span, CompiledExpression.compile(tag.value()).evaluateReturnedObj(ret));
     }
 
     public static Boolean isReturnTag(String expression) {
-        String[] es = expression.split("\\.");
-        return "returnedObj".equals(es[0]);
+        return CompiledExpression.compile(expression).isReturnedObj();
     }
 }
@@ -28,7 +28,7 @@ import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
-import org.apache.skywalking.apm.agent.core.util.CustomizeExpression;
+import org.apache.skywalking.apm.agent.core.util.CompiledExpression;
 import org.apache.skywalking.apm.plugin.customize.conf.CustomizeConfiguration;
 import org.apache.skywalking.apm.plugin.customize.conf.MethodConfiguration;
 import org.apache.skywalking.apm.plugin.customize.constants.Constants;
@@ -59,14 +59,13 @@ class BaseInterceptorMethods {
     void beforeMethod(Method method, Object[] allArguments, MethodInvocationContext miContext) {
         Map<String, Object> configuration = CustomizeConfiguration.INSTANCE.getConfiguration(method);
         String operationName = MethodConfiguration.getOperationName(configuration);
-        Map<String, Object> evalContext = CustomizeExpression.evaluationContext(allArguments);
 
         Map<String, String> tags = MethodConfiguration.getTags(configuration);
         Map<String, String> logs = MethodConfiguration.getLogs(configuration);
         Map<String, String> spanTags = tags == null ? Collections.EMPTY_MAP : new HashMap<String, String>(tags.size());
         Map<String, String> spanLogs = logs == null ? Collections.EMPTY_MAP : new HashMap<String, String>(logs.size());
 
-        if (evalContext == null || evalContext.isEmpty()) {
+        if (allArguments == null || allArguments.length == 0) {
             SpanDataHolder spanDataHolder = new SpanDataHolder(
                 ContextManager.createLocalSpan(operationName),
                 tags, logs, spanTags, spanLogs
@@ -78,11 +77,11 @@ class BaseInterceptorMethods {
             if (operationNameSuffixes != null && !operationNameSuffixes.isEmpty()) {
                 for (String expression : operationNameSuffixes) {
                     operationNameSuffix.append(Constants.OPERATION_NAME_SEPARATOR);
-                    operationNameSuffix.append(CustomizeExpression.parseExpression(expression, evalContext));
+                    operationNameSuffix.append(CompiledExpression.compile(expression).evaluate(allArguments));
                 }
             }
-            evalAndPopulate(evalContext, false, tags, spanTags);
-            evalAndPopulate(evalContext, false, logs, spanLogs);
+            evalAndPopulate(allArguments, null, false, tags, spanTags);
+            evalAndPopulate(allArguments, null, false, logs, spanLogs);
 
             operationName = operationNameSuffix.insert(0, operationName).toString();
             AbstractSpan localSpan = ContextManager.createLocalSpan(operationName);
@@ -119,10 +118,8 @@ class BaseInterceptorMethods {
         Map<String, String> spanLogs = spanDataHolder.spanLogs;
 
         try {
-            Map<String, Object> evalContext = CustomizeExpression.evaluationReturnContext(ret);
-
-            evalAndPopulate(evalContext, true, tags, spanTags);
-            evalAndPopulate(evalContext, true, logs, spanLogs);
+            evalAndPopulate(null, ret, true, tags, spanTags);
+            evalAndPopulate(null, ret, true, logs, spanLogs);
 
             tagSpanTags(localSpan, spanTags);
             tagSpanLogs(localSpan, spanLogs);
@@ -138,15 +135,15 @@ class BaseInterceptorMethods {
         ContextManager.activeSpan().log(t);
     }
 
-    private void evalAndPopulate(Map<String, Object> context, boolean returnExpr, Map<String, String> exprMap,
+    private void evalAndPopulate(Object[] allArguments, Object ret, boolean returnExpr, Map<String, String> exprMap,
         Map<String, String> toMap) {
         if (exprMap != null && !exprMap.isEmpty()) {
             for (Map.Entry<String, String> entry : exprMap.entrySet()) {
-                String expression = entry.getValue();
-                if (isReturnedObjExpression(expression) != returnExpr) {
+                CompiledExpression expression = CompiledExpression.compile(entry.getValue());
+                if (expression.isReturnedObj() != returnExpr) {
                     continue;
                 }
-                toMap.put(entry.getKey(), CustomizeExpression.parseExpression(expression, context));
+                toMap.put(entry.getKey(), returnExpr ? expression.evaluateReturnedObj(ret) : expression.evaluate(allArguments));
             }
         }
     }
@@ -164,9 +161,4 @@ class BaseInterceptorMethods {
             span.log(System.currentTimeMillis(), spanLogs);
         }
     }
-
-    private boolean isReturnedObjExpression(String expression) {
-        String[] es = expression.split("\\.");
-        return "returnedObj".equals(es[0]);
-    }
 }
@@ -26,16 +26,14 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.PathPatternIndex;
 import org.apache.skywalking.apm.util.StringUtil;
 
 @OverrideImplementor(SamplingService.class)
 public class TraceIgnoreExtendService extends SamplingService {
     private static final ILog LOGGER = LogManager.getLogger(TraceIgnoreExtendService.class);
     private static final String PATTERN_SEPARATOR = ",";
-    private TracePathMatcher pathMatcher = new FastPathMatcher();
-    private volatile String[] patterns = new String[] {};
+    private volatile PathPatternIndex patterns = compile(new String[] {});
     private TraceIgnorePatternWatcher traceIgnorePatternWatcher;
 
     @Override
@@ -49,7 +47,7 @@ public class TraceIgnoreExtendService extends SamplingService {
 
         IgnoreConfigInitializer.initialize();
         if (StringUtil.isNotEmpty(IgnoreConfig.Trace.IGNORE_PATH)) {
-            patterns = IgnoreConfig.Trace.IGNORE_PATH.split(PATTERN_SEPARATOR);
+            patterns = compile(IgnoreConfig.Trace.IGNORE_PATH.split(PATTERN_SEPARATOR));
         }
 
         traceIgnorePatternWatcher = new TraceIgnorePatternWatcher("agent.trace.ignore_path", this);
@@ -70,13 +68,9 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     @Override
     public boolean trySampling(final String operationName) {
-        if (patterns.length > 0) {
-            for (String pattern : patterns) {
-                if (pathMatcher.match(pattern, operationName)) {
-                    LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return false;
-                }
-            }
+        if (patterns.matchAny(operationName)) {
+            LOGGER.debug("operationName : " + operationName + " Ignore tracking");
+            return false;
         }
         return super.trySampling(operationName);
     }
@@ -88,9 +82,13 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     void handleTraceIgnorePatternsChanged() {
         if (StringUtil.isNotBlank(traceIgnorePatternWatcher.getTraceIgnorePathPatterns())) {
-            patterns = traceIgnorePatternWatcher.getTraceIgnorePathPatterns().split(PATTERN_SEPARATOR);
+            patterns = compile(traceIgnorePatternWatcher.getTraceIgnorePathPatterns().split(PATTERN_SEPARATOR));
         } else {
-            patterns = new String[] {};
+            patterns = compile(new String[] {});
         }
     }
+
+    private static PathPatternIndex compile(String[] patterns) {
+        return new PathPatternIndex(patterns, IgnoreConfig.Trace.DECISION_CACHE_SIZE);
+    }
 }
@@ -27,5 +27,11 @@ public class IgnoreConfig {
          * support multilevel directories
          */
         public static String IGNORE_PATH = "";
+
+        /**
+         * The max number of operation names whose match results are cached. The names not used recently are evicted
+         * first. 0 or less disables the cache.
+         */
+        public static int DECISION_CACHE_SIZE = 1024;
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of the match decisions, keyed by the operation name, evicting by the CLOCK (second chance)
+ * approximation of LRU. A hit is lock free, it only marks its entry as referenced, and only when the mark isn't set
+ * yet. A miss admits its decision under a lock, moving the clock hand over the entries, clearing their marks, to the
+ * first one not referenced since the hand passed it last time, and replacing that one. A miss finding the lock held by
+ * another thread doesn't wait, its decision isn't cached. The index, with its cache, is replaced when the patterns
+ * change.
+ */
+class DecisionCache {
+    private final Map<String, Entry> decisions = new ConcurrentHashMap<>();
+    private final ReentrantLock admission = new ReentrantLock();
+    /**
+     * The entries in their clock order, guarded by {@link #admission}.
+     */
+    private final Entry[] clock;
+    private int size;
+    private int hand;
+
+    DecisionCache(int maxSize) {
+        this.clock = new Entry[maxSize];
+    }
+
+    Boolean get(String key) {
+        Entry entry = decisions.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    void put(String key, boolean value) {
+        if (!admission.tryLock()) {
+            return;
+        }
+        try {
+            if (decisions.containsKey(key)) {
+                return;
+            }
+            Entry entry = new Entry(key, value);
+            if (size < clock.length) {
+                clock[size++] = entry;
+            } else {
+                // The hits could mark the entries again behind the hand, so one round at most.
+                for (int i = 0; i < clock.length && clock[hand].referenced; i++) {
+                    clock[hand].referenced = false;
+                    hand = (hand + 1) % clock.length;
+                }
+                decisions.remove(clock[hand].key);
+                clock[hand] = entry;
+                hand = (hand + 1) % clock.length;
+            }
+            decisions.put(key, entry);
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    private static class Entry {
+        private final String key;
+        private final boolean value;
+        /**
+         * Set by the hits, cleared by the clock hand. Not volatile, a lost or late mark only costs a less precise
+         * eviction.
+         */
+        private boolean referenced;
+
+        private Entry(String key, boolean value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * All the ignore patterns compiled into one character trie, keyed by the literal head of every pattern, which is the
+ * part before the first wildcard.
+ * <p>
+ * A pattern without any wildcard is an exact path, and marks the node its last char reaches. A pattern like
+ * <code>/eureka/**</code> accepts every path under its literal head, and marks that node as a prefix. Every other
+ * pattern is hung on the node of its literal head, and is only handed to {@link FastPathMatcher} when the path walks
+ * through that node. So one lookup walks the path once, instead of trying every pattern in turn.
+ * <p>
+ * The decisions are kept in a bounded cache in front of the trie. An index is never modified after creation, a
+ * new one, with an empty cache, replaces it when the patterns change.
+ */
+public class PathPatternIndex {
+    private static final TracePathMatcher WILDCARD_MATCHER = new FastPathMatcher();
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_PATTERNS = new String[0];
+
+    private final Node root;
+    private final int patternCount;
+    private final DecisionCache cache;
+
+    /**
+     * @param patterns  the ant style path patterns
+     * @param cacheSize the max number of cached decisions, 0 or less means no cache.
+     */
+    public PathPatternIndex(String[] patterns, int cacheSize) {
+        NodeBuilder rootBuilder = new NodeBuilder();
+        for (String pattern : patterns) {
+            rootBuilder.add(pattern);
+        }
+        this.root = rootBuilder.build();
+        this.patternCount = patterns.length;
+        this.cache = cacheSize > 0 && patterns.length > 0 ? new DecisionCache(cacheSize) : null;
+    }
+
+    /**
+     * @return true if the path matches any of the patterns.
+     */
+    public boolean matchAny(String path) {
+        if (patternCount == 0) {
+            return false;
+        }
+        if (cache == null) {
+            return lookup(path);
+        }
+        Boolean matched = cache.get(path);
+        if (matched == null) {
+            matched = lookup(path);
+            cache.put(path, matched);
+        }
+        return matched;
+    }
+
+    boolean lookup(String path) {
+        Node node = root;
+        final int length = path.length();
+        for (int i = 0; i < length; i++) {
+            if (node.prefix || node.matchWildcards(path)) {
+                return true;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.prefix || node.exact || node.matchWildcards(path);
+    }
+
+    private static boolean isWildcard(char c) {
+        return c == '*' || c == '?';
+    }
+
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final boolean exact;
+        private final boolean prefix;
+        private final String[] wildcards;
+
+        private Node(char[] labels, Node[] children, boolean exact, boolean prefix, String[] wildcards) {
+            this.labels = labels;
+            this.children = children;
+            this.exact = exact;
+            this.prefix = prefix;
+            this.wildcards = wildcards;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private boolean matchWildcards(String path) {
+            for (String pattern : wildcards) {
+                if (WILDCARD_MATCHER.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class NodeBuilder {
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<String> wildcards = new ArrayList<>(0);
+        private boolean exact;
+        private boolean prefix;
+
+        private void add(String pattern) {
+            NodeBuilder node = this;
+            final int length = pattern.length();
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(i);
+                if (isWildcard(c)) {
+                    if (i == length - 2 && c == '*' && pattern.charAt(i + 1) == '*') {
+                        // Only the tail `**` follows the literal head, any path starting with the head matches.
+                        node.prefix = true;
+                    } else {
+                        node.wildcards.add(pattern);
+                    }
+                    return;
+                }
+                node = node.children.computeIfAbsent(c, key -> new NodeBuilder());
+            }
+            node.exact = true;
+        }
+
+        private Node build() {
+            if (prefix) {
+                // Everything below is covered already.
+                return new Node(NO_LABELS, NO_CHILDREN, true, true, NO_PATTERNS);
+            }
+            char[] labels = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(
+                labels.length == 0 ? NO_LABELS : labels,
+                nodes.length == 0 ? NO_CHILDREN : nodes,
+                exact,
+                false,
+                wildcards.isEmpty() ? NO_PATTERNS : wildcards.toArray(NO_PATTERNS)
+            );
+        }
+    }
+}
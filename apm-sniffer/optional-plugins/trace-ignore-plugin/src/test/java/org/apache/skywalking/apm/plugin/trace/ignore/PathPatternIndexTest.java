@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.PathPatternIndex;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PathPatternIndexTest {
+    private static final String[] PATTERNS = {
+        "/eureka/*",
+        "/eureka/**",
+        "/eureka/*/",
+        "eureka/apps/?",
+        "eureka/**/lists",
+        "eureka/**/test/**",
+        "/eureka/**/b/**/*.txt",
+        "abc/*",
+        "/health",
+        "/static**",
+        "**/*.js",
+        ""
+    };
+
+    private static final String[] PATHS = {
+        "/eureka/apps",
+        "/eureka/",
+        "/eureka",
+        "/eureka/apps/",
+        "/eureka/apps/list",
+        "/eureka/test",
+        "/eureka/apps/test/",
+        "eureka/apps/list",
+        "eureka/apps/",
+        "eureka/apps/a",
+        "eureka/apps/lists",
+        "eureka/apps/test/lists",
+        "eureka/apps/test/",
+        "eureka/apps/test",
+        "eureka/apps/test/list",
+        "eureka/apps/foo/test/list/bar/",
+        "eureka/test/list",
+        "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx.txt",
+        "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx",
+        "abc/foo/bar",
+        "abc/foo",
+        "/health",
+        "/health/",
+        "/healthz",
+        "/static",
+        "/static/css/main.css",
+        "/app/main.js",
+        "/app/main.json",
+        "",
+        "/"
+    };
+
+    @Test
+    public void testSameResultAsPathMatcher() {
+        TracePathMatcher pathMatcher = new FastPathMatcher();
+        for (int count = 0; count <= PATTERNS.length; count++) {
+            String[] patterns = new String[count];
+            System.arraycopy(PATTERNS, 0, patterns, 0, count);
+            PathPatternIndex index = new PathPatternIndex(patterns, 0);
+            for (String path : PATHS) {
+                boolean expected = false;
+                for (String pattern : patterns) {
+                    expected |= pathMatcher.match(pattern, path);
+                }
+                Assert.assertEquals(count + " patterns, path " + path, expected, index.matchAny(path));
+            }
+        }
+    }
+
+    @Test
+    public void testSinglePattern() {
+        TracePathMatcher pathMatcher = new FastPathMatcher();
+        for (String pattern : PATTERNS) {
+            PathPatternIndex index = new PathPatternIndex(new String[] {pattern}, 0);
+            for (String path : PATHS) {
+                Assert.assertEquals(
+                    "pattern " + pattern + ", path " + path, pathMatcher.match(pattern, path), index.matchAny(path));
+            }
+        }
+    }
+
+    @Test
+    public void testCachedDecision() {
+        PathPatternIndex index = new PathPatternIndex(new String[] {"/eureka/**", "/health"}, 4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                Assert.assertTrue(index.matchAny("/eureka/apps/" + i));
+                Assert.assertFalse(index.matchAny("/consul/apps/" + i));
+            }
+            Assert.assertTrue(index.matchAny("/health"));
+            Assert.assertFalse(index.matchAny("/healthz"));
+        }
+    }
+
+    @Test
+    public void testEmptyPatterns() {
+        PathPatternIndex index = new PathPatternIndex(new String[0], 16);
+        Assert.assertFalse(index.matchAny(""));
+        Assert.assertFalse(index.matchAny("/eureka/apps"));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.PathPatternIndex;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * The cost of one ignore decision against the number of patterns, the pattern by pattern loop vs the compiled index,
+ * with and without the decision cache. A third of the patterns are exact paths, a third are `/**` prefixes and the
+ * rest have wildcards in the middle. Most of the operation names don't match, which is the worst case of the loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TraceIgnoreBenchmark {
+    private static final int PATH_COUNT = 64;
+
+    @Param({"10", "50", "200", "1000"})
+    private int patternCount;
+
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+    private String[] patterns;
+    private PathPatternIndex index;
+    private PathPatternIndex cachedIndex;
+    private String[] paths;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        patterns = new String[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            switch (i % 3) {
+                case 0:
+                    patterns[i] = "/gateway/service-" + i + "/health";
+                    break;
+                case 1:
+                    patterns[i] = "/gateway/service-" + i + "/static/**";
+                    break;
+                default:
+                    patterns[i] = "/gateway/service-" + i + "/*/metrics";
+            }
+        }
+        index = new PathPatternIndex(patterns, 0);
+        cachedIndex = new PathPatternIndex(patterns, 1024);
+        paths = new String[PATH_COUNT];
+        for (int i = 0; i < PATH_COUNT; i++) {
+            if (i % 8 == 0) {
+                paths[i] = "/gateway/service-" + (i % patternCount / 3 * 3 + 1) + "/static/app.js";
+            } else {
+                paths[i] = "/gateway/service-" + i + "/api/orders/" + i;
+            }
+        }
+    }
+
+    private String nextPath() {
+        return paths[cursor++ & (PATH_COUNT - 1)];
+    }
+
+    @Benchmark
+    public boolean loop() {
+        String path = nextPath();
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean index() {
+        return index.matchAny(nextPath());
+    }
+
+    @Benchmark
+    public boolean cachedIndex() {
+        return cachedIndex.matchAny(nextPath());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(TraceIgnoreBenchmark.class.getName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(10))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(10))
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * # JMH version: 1.33
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 3 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                         (patternCount)  Mode  Cnt      Score       Error  Units
+     * TraceIgnoreBenchmark.cachedIndex              10  avgt    5      7.307 +-     2.517  ns/op
+     * TraceIgnoreBenchmark.cachedIndex              50  avgt    5     10.133 +-     2.895  ns/op
+     * TraceIgnoreBenchmark.cachedIndex             200  avgt    5      8.832 +-     4.893  ns/op
+     * TraceIgnoreBenchmark.cachedIndex            1000  avgt    5      9.206 +-     4.307  ns/op
+     * TraceIgnoreBenchmark.index                    10  avgt    5    134.313 +-    35.098  ns/op
+     * TraceIgnoreBenchmark.index                    50  avgt    5    165.627 +-    49.883  ns/op
+     * TraceIgnoreBenchmark.index                   200  avgt    5    157.882 +-    27.506  ns/op
+     * TraceIgnoreBenchmark.index                  1000  avgt    5    164.150 +-     7.284  ns/op
+     * TraceIgnoreBenchmark.loop                     10  avgt    5    206.953 +-   132.447  ns/op
+     * TraceIgnoreBenchmark.loop                     50  avgt    5    953.562 +-   320.723  ns/op
+     * TraceIgnoreBenchmark.loop                    200  avgt    5   5184.685 +-  1375.003  ns/op
+     * TraceIgnoreBenchmark.loop                   1000  avgt    5  29514.361 +- 20220.989  ns/op
+     */
+}
@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.PathPatternIndex;
 import org.apache.skywalking.apm.util.ConfigInitializer;
 import org.apache.skywalking.apm.util.PropertyPlaceholderHelper;
 import org.junit.Assert;
@@ -55,7 +56,7 @@ public class TraceIgnoreTest {
         patterns.setAccessible(true);
         patterns.set(
             service,
-            new String[] {"/eureka/**"}
+            new PathPatternIndex(new String[] {"/eureka/**"}, IgnoreConfig.Trace.DECISION_CACHE_SIZE)
         );
 
         Assert.assertFalse(service.trySampling("/eureka/apps"));
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DecisionCacheTest {
+    @Test
+    public void testEvictNotReferenced() {
+        DecisionCache cache = new DecisionCache(2);
+        cache.put("/a", true);
+        cache.put("/b", false);
+        Assert.assertEquals(Boolean.TRUE, cache.get("/a"));
+
+        // /a has a second chance, /b is evicted.
+        cache.put("/c", true);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("/b"));
+        Assert.assertEquals(Boolean.TRUE, cache.get("/a"));
+        Assert.assertEquals(Boolean.TRUE, cache.get("/c"));
+    }
+
+    @Test
+    public void testHotAfterWarmUp() {
+        DecisionCache cache = new DecisionCache(4);
+        for (int i = 0; i < 4; i++) {
+            cache.put("/warm-up/" + i, false);
+        }
+        // A name becoming hot after the cache is full is still admitted, and kept while it is used.
+        cache.put("/hot", true);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(Boolean.TRUE, cache.get("/hot"));
+            cache.put("/cold/" + i, false);
+        }
+        Assert.assertEquals(4, cache.size());
+        Assert.assertEquals(Boolean.TRUE, cache.get("/hot"));
+    }
+
+    @Test
+    public void testAllReferenced() {
+        DecisionCache cache = new DecisionCache(2);
+        cache.put("/a", true);
+        cache.put("/b", true);
+        cache.get("/a");
+        cache.get("/b");
+        // All the marks are cleared in one round, then the entry under the hand is replaced.
+        cache.put("/c", false);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(Boolean.FALSE, cache.get("/c"));
+    }
+}
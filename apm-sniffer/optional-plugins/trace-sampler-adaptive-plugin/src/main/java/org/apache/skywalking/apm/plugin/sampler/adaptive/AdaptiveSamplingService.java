@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
+import org.apache.skywalking.apm.plugin.sampler.adaptive.conf.AdaptiveSamplerPluginConfig.Plugin.AdaptiveSampler;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Sample the segments with a {@link StripedTokenBucket} refilled at a rate adjusted every second to hit the target
+ * segments per second, rather than one counter reset every 3 seconds.
+ * <p>
+ * Each endpoint, i.e. the first operation name of the segment, has a budget of its own on top of the shared bucket.
+ * <ul>
+ *     <li>It is sampled once per {@link AdaptiveSampler#ENDPOINT_RESERVE_INTERVAL} whatever the others take, so the
+ *     low-volume endpoints stay visible.</li>
+ *     <li>It takes at most {@link AdaptiveSampler#MAX_ENDPOINT_SHARE} of the rate per second, or the fair share among
+ *     the active endpoints if it is larger, so a noisy endpoint can't take the whole budget.</li>
+ * </ul>
+ * The reserved samples and the ones forced by the upstream services take no token from the bucket, they are only
+ * counted, and the bucket rate is the target minus what they took in the last second.
+ */
+@OverrideImplementor(SamplingService.class)
+public class AdaptiveSamplingService extends SamplingService {
+    private static final ILog LOGGER = LogManager.getLogger(AdaptiveSamplingService.class);
+
+    static final int TICKS_PER_SECOND = 10;
+    /**
+     * The bucket rate never goes below this share of the target, whatever the reserved and forced samples take.
+     */
+    private static final double MIN_RATE_SHARE = 0.1;
+    /**
+     * The endpoints not seen in this time give their place to the new ones.
+     */
+    private static final long IDLE_TICKS = 60 * TICKS_PER_SECOND;
+
+    private final StripedTokenBucket bucket;
+    private final Map<String, EndpointBudget> endpoints = new ConcurrentHashMap<>();
+    /**
+     * Shared by the endpoints not in {@link #endpoints}, because there are too many of them.
+     */
+    private final EndpointBudget others = new EndpointBudget();
+    private final LongAdder reservedCounter = new LongAdder();
+    private final LongAdder forcedCounter = new LongAdder();
+
+    private volatile boolean on = false;
+    private volatile int target;
+    private volatile double rate;
+    private volatile int endpointLimit;
+    private volatile long reserveTicks;
+    private volatile long tick;
+    private double refillCarry;
+    private volatile ScheduledFuture<?> scheduledFuture;
+
+    public AdaptiveSamplingService() {
+        this(StripedTokenBucket.defaultStripes());
+    }
+
+    AdaptiveSamplingService(int stripes) {
+        this.bucket = new StripedTokenBucket(stripes);
+    }
+
+    @Override
+    public void boot() {
+        super.boot();
+        scheduledFuture = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+            "AdaptiveSamplingService",
+            new RunnableWithExceptionProtection(this::tick, t -> LOGGER.error("unexpected exception.", t)),
+            0, 1000 / TICKS_PER_SECOND, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(true);
+        }
+    }
+
+    @Override
+    public boolean trySampling(final String operationName) {
+        if (!on) {
+            return true;
+        }
+        final long now = tick;
+        final EndpointBudget budget = budgetOf(operationName);
+        if (budget.lastAccessTick != now) {
+            budget.lastAccessTick = now;
+        }
+        final long reserve = reserveTicks;
+        if (reserve > 0) {
+            long next = budget.nextReservedTick.get();
+            if (next <= now && budget.nextReservedTick.compareAndSet(next, now + reserve)) {
+                reservedCounter.increment();
+                budget.sampled.incrementAndGet();
+                return true;
+            }
+        }
+        if (budget.sampled.get() >= endpointLimit || !bucket.tryAcquire()) {
+            return false;
+        }
+        budget.sampled.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public void forceSampled() {
+        if (on) {
+            forcedCounter.increment();
+        }
+    }
+
+    @Override
+    public void handleSamplingRateChanged() {
+        int newTarget = AdaptiveSampler.TARGET_PER_SECOND;
+        if (newTarget <= 0) {
+            int samplingRate = getSamplingRate();
+            newTarget = samplingRate > 0 ? (samplingRate + 2) / 3 : 0;
+        }
+        if (newTarget <= 0) {
+            on = false;
+            return;
+        }
+        reserveTicks = (long) AdaptiveSampler.ENDPOINT_RESERVE_INTERVAL * TICKS_PER_SECOND;
+        if (!on || newTarget != target) {
+            target = newTarget;
+            rate = newTarget;
+            updateEndpointLimit(Math.max(1, endpoints.size()));
+            bucket.refill(newTarget, newTarget);
+            on = true;
+            LOGGER.debug("Agent adaptive sampling started. Sample {} traces per second.", newTarget);
+        }
+    }
+
+    /**
+     * Refill the bucket, and adjust the rate and the endpoint budgets every second. Only called by the scheduler
+     * thread.
+     */
+    void tick() {
+        if (!on) {
+            return;
+        }
+        final long now = tick + 1;
+        tick = now;
+        final double currentRate = rate;
+        refillCarry += currentRate / TICKS_PER_SECOND;
+        long amount = (long) refillCarry;
+        refillCarry -= amount;
+        bucket.refill(amount, Math.max(1, Math.round(currentRate)));
+        if (now % TICKS_PER_SECOND == 0) {
+            adjust(now);
+        }
+    }
+
+    private void adjust(long now) {
+        long outside = reservedCounter.sumThenReset() + forcedCounter.sumThenReset();
+        double next = Math.max(target * MIN_RATE_SHARE, target - outside);
+        // Move half way only, to damp the oscillation between the bucket and the samples beyond it.
+        rate = (rate + next) / 2;
+
+        int active = 0;
+        Iterator<EndpointBudget> iterator = endpoints.values().iterator();
+        while (iterator.hasNext()) {
+            EndpointBudget budget = iterator.next();
+            if (budget.lastAccessTick < now - IDLE_TICKS) {
+                iterator.remove();
+                continue;
+            }
+            if (budget.lastAccessTick >= now - TICKS_PER_SECOND) {
+                active++;
+            }
+            budget.sampled.set(0);
+        }
+        others.sampled.set(0);
+        updateEndpointLimit(Math.max(1, active));
+    }
+
+    private void updateEndpointLimit(int activeEndpoints) {
+        double limit = Math.max(rate * AdaptiveSampler.MAX_ENDPOINT_SHARE, rate / activeEndpoints);
+        endpointLimit = (int) Math.max(1, Math.ceil(limit));
+    }
+
+    private EndpointBudget budgetOf(String operationName) {
+        if (StringUtil.isEmpty(operationName)) {
+            return others;
+        }
+        EndpointBudget budget = endpoints.get(operationName);
+        if (budget != null) {
+            return budget;
+        }
+        if (endpoints.size() >= AdaptiveSampler.MAX_ENDPOINTS) {
+            return others;
+        }
+        return endpoints.computeIfAbsent(operationName, name -> new EndpointBudget());
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    int getEndpointLimit() {
+        return endpointLimit;
+    }
+
+    private static class EndpointBudget {
+        /**
+         * Sampled in the current second. Only written when sampling, so the noisy endpoints mostly read it.
+         */
+        private final AtomicInteger sampled = new AtomicInteger();
+        private final AtomicLong nextReservedTick = new AtomicLong();
+        private volatile long lastAccessTick;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A token bucket split into stripes, each one in its own cache line. A thread takes tokens from the stripe of its id
+ * first, so the threads don't CAS the same counter, and only walks the other stripes when its own one is empty.
+ */
+public class StripedTokenBucket {
+    /**
+     * Stride between two stripes in the array, 16 longs keep them 128 bytes apart.
+     */
+    private static final int STRIDE = 16;
+
+    private final AtomicLongArray tokens;
+    private final int stripes;
+    /**
+     * The stripe getting the first one of the remaining tokens in the next refill, so the remainders go round.
+     */
+    private int remainderCursor;
+
+    public StripedTokenBucket(int stripes) {
+        this.stripes = stripes;
+        this.tokens = new AtomicLongArray(stripes * STRIDE);
+    }
+
+    /**
+     * @return 4 stripes per processor, 64 at most.
+     */
+    public static int defaultStripes() {
+        return Math.min(64, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public boolean tryAcquire() {
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) % stripes) * STRIDE;
+            long available = tokens.get(index);
+            while (available > 0) {
+                if (tokens.compareAndSet(index, available, available - 1)) {
+                    return true;
+                }
+                available = tokens.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spread the given tokens over the stripes, each stripe holds its share of the capacity at most. Not thread-safe,
+     * expected to be called by one thread only.
+     */
+    public void refill(long amount, long capacity) {
+        long share = amount / stripes;
+        int remainder = (int) (amount % stripes);
+        long stripeCapacity = Math.max(1, capacity / stripes);
+        for (int i = 0; i < stripes; i++) {
+            long add = share + ((i - remainderCursor + stripes) % stripes < remainder ? 1 : 0);
+            int index = i * STRIDE;
+            long current;
+            long next;
+            do {
+                current = tokens.get(index);
+                next = current >= stripeCapacity ? current : Math.min(stripeCapacity, current + add);
+            }
+            while (!tokens.compareAndSet(index, current, next));
+        }
+        remainderCursor = (remainderCursor + remainder) % stripes;
+    }
+
+    /**
+     * @return the sum of the tokens of all stripes.
+     */
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += tokens.get(i * STRIDE);
+        }
+        return sum;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        // Fibonacci hashing, consecutive thread ids land on different stripes.
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) % stripes;
+    }
+}
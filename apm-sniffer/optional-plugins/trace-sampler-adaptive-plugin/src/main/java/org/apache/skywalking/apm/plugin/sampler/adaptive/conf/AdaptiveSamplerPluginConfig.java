@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive.conf;
+
+import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
+
+public class AdaptiveSamplerPluginConfig {
+    public static class Plugin {
+        @PluginConfig(root = AdaptiveSamplerPluginConfig.class)
+        public static class AdaptiveSampler {
+            /**
+             * The target number of sampled segments per second. If not positive, it is `agent.sample_n_per_3_secs` / 3,
+             * and all segments are sampled when that one is not positive either.
+             */
+            public static int TARGET_PER_SECOND = -1;
+            /**
+             * The max number of endpoints with their own budget. The others share one budget.
+             */
+            public static int MAX_ENDPOINTS = 1000;
+            /**
+             * One endpoint could take at most this share of the sampling rate per second, or the fair share among the
+             * active endpoints if that one is larger.
+             */
+            public static double MAX_ENDPOINT_SHARE = 0.25;
+            /**
+             * Every endpoint is sampled at least once in this period, out of the shared budget. Unit is second, not
+             * positive means no reservation.
+             */
+            public static int ENDPOINT_RESERVE_INTERVAL = 5;
+        }
+    }
+}
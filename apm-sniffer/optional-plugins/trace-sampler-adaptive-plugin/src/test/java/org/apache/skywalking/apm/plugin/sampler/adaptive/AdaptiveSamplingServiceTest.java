@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive;
+
+import org.apache.skywalking.apm.plugin.sampler.adaptive.conf.AdaptiveSamplerPluginConfig.Plugin.AdaptiveSampler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AdaptiveSamplingServiceTest {
+    private AdaptiveSamplingService service;
+
+    @Before
+    public void setUp() {
+        AdaptiveSampler.TARGET_PER_SECOND = 100;
+        service = new AdaptiveSamplingService(4);
+        service.handleSamplingRateChanged();
+    }
+
+    @After
+    public void tearDown() {
+        AdaptiveSampler.TARGET_PER_SECOND = -1;
+    }
+
+    @Test
+    public void testNoisyEndpointLimited() {
+        // Alone, one endpoint takes the whole rate.
+        assertThat(sample("/noisy", 1000), is(100));
+
+        nextSecond();
+        sample("/quiet", 1);
+        sample("/noisy", 1);
+        // Two active endpoints in the last second, each one takes half of the rate at most.
+        nextSecond();
+        assertThat(service.getEndpointLimit(), is(50));
+        assertThat(sample("/noisy", 1000), is(50));
+        assertThat(sample("/quiet", 10), is(10));
+    }
+
+    @Test
+    public void testLowVolumeEndpointReserved() {
+        sample("/noisy", 1000);
+        sample("/other", 1000);
+        // The bucket is empty, the first request of a new endpoint is still sampled, but only the first one.
+        assertThat(sample("/rare", 5), is(1));
+    }
+
+    @Test
+    public void testRateAdjustedForForcedSamples() {
+        for (int i = 0; i < 80; i++) {
+            service.forceSampled();
+        }
+        nextSecond();
+        // Half way from 100 to 100 - 80.
+        assertThat(service.getRate(), is(60.0));
+        nextSecond();
+        assertThat(service.getRate(), is(80.0));
+    }
+
+    @Test
+    public void testForcedSamplesTakeNoToken() {
+        // One stripe, so the tokens left are exactly the ones of the bucket.
+        service = new AdaptiveSamplingService(1);
+        service.handleSamplingRateChanged();
+        // 1 reserved and 99 from the bucket.
+        assertThat(sample("/a", 1000), is(100));
+        for (int i = 0; i < 80; i++) {
+            service.forceSampled();
+        }
+        nextSecond();
+        // Half way from 100 to 100 - 81, the forced samples are counted once, by the rate only.
+        assertThat(service.getRate(), is(59.5));
+        assertThat(sample("/a", 1000), is(60));
+    }
+
+    @Test
+    public void testRefill() {
+        sample("/a", 1000);
+        assertThat(service.trySampling("/a"), is(false));
+        nextSecond();
+        assertThat(sample("/a", 1000), is(100));
+    }
+
+    private int sample(String operationName, int times) {
+        int sampled = 0;
+        for (int i = 0; i < times; i++) {
+            if (service.trySampling(operationName)) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+
+    private void nextSecond() {
+        for (int i = 0; i < AdaptiveSamplingService.TICKS_PER_SECOND; i++) {
+            service.tick();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SamplingRateWatcher;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.plugin.sampler.adaptive.conf.AdaptiveSamplerPluginConfig.Plugin.AdaptiveSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The sampling decision of the default {@link SamplingService} against {@link AdaptiveSamplingService}, from 4 threads
+ * over 16 endpoints, both at 100 segments per second.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(value = 1, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class SamplingServiceBenchmark {
+    private static final String[] ENDPOINTS = new String[16];
+
+    static {
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            ENDPOINTS[i] = "/endpoint/" + i;
+        }
+    }
+
+    private SamplingService defaultService;
+    private AdaptiveSamplingService adaptiveService;
+    private ScheduledExecutorService scheduler;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(1);
+
+        Config.Agent.SAMPLE_N_PER_3_SECS = 300;
+        defaultService = new SamplingService();
+        setField(defaultService, "samplingRateWatcher", new SamplingRateWatcher("agent.sample_n_per_3_secs", defaultService));
+        setField(defaultService, "service", scheduler);
+        defaultService.handleSamplingRateChanged();
+
+        AdaptiveSampler.TARGET_PER_SECOND = 100;
+        adaptiveService = new AdaptiveSamplingService();
+        adaptiveService.handleSamplingRateChanged();
+        scheduler.scheduleAtFixedRate(
+            adaptiveService::tick, 0, 1000 / AdaptiveSamplingService.TICKS_PER_SECOND, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdownNow();
+        Config.Agent.SAMPLE_N_PER_3_SECS = -1;
+        AdaptiveSampler.TARGET_PER_SECOND = -1;
+    }
+
+    @Benchmark
+    public boolean defaultSampling(EndpointState endpoint) {
+        return defaultService.trySampling(endpoint.next());
+    }
+
+    @Benchmark
+    public boolean adaptiveSampling(EndpointState endpoint) {
+        return adaptiveService.trySampling(endpoint.next());
+    }
+
+    @State(Scope.Thread)
+    public static class EndpointState {
+        private int index;
+
+        String next() {
+            index = (index + 1) & (ENDPOINTS.length - 1);
+            return ENDPOINTS[index];
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = SamplingService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(SamplingServiceBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.skywalking.apm.plugin.sampler.adaptive;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StripedTokenBucketTest {
+    @Test
+    public void testAcquireFromAllStripes() {
+        StripedTokenBucket bucket = new StripedTokenBucket(4);
+        bucket.refill(10, 100);
+        assertThat(bucket.available(), is(10L));
+
+        // One thread drains the tokens of the other stripes too.
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(), is(true));
+        }
+        assertThat(bucket.tryAcquire(), is(false));
+    }
+
+    @Test
+    public void testCapacity() {
+        StripedTokenBucket bucket = new StripedTokenBucket(4);
+        bucket.refill(100, 8);
+        bucket.refill(100, 8);
+        assertThat(bucket.available(), is(8L));
+    }
+}
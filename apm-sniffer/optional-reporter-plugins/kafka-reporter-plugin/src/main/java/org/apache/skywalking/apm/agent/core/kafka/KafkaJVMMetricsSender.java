@@ -49,27 +49,30 @@ public class KafkaJVMMetricsSender extends JVMMetricsSender implements KafkaConn
     public void run() {
         if (!queue.isEmpty()) {
             List<JVMMetric> buffer = new ArrayList<>();
-            queue.drainTo(buffer);
+            while (queue.drainTo(buffer, maxMetricsPerReport()) > 0) {
+                if (producer != null) {
+                    JVMMetricCollection metrics = JVMMetricCollection.newBuilder()
+                                                                     .addAllMetrics(buffer)
+                                                                     .setService(Config.Agent.SERVICE_NAME)
+                                                                     .setServiceInstance(Config.Agent.INSTANCE_NAME)
+                                                                     .build();
 
-            if (producer != null) {
-                JVMMetricCollection metrics = JVMMetricCollection.newBuilder()
-                                                                 .addAllMetrics(buffer)
-                                                                 .setService(Config.Agent.SERVICE_NAME)
-                                                                 .setServiceInstance(Config.Agent.INSTANCE_NAME)
-                                                                 .build();
+                    if (LOGGER.isDebugEnable()) {
+                        LOGGER.debug(
+                                "JVM metrics reporting, topic: {}, key: {}, length: {}", topic,
+                                metrics.getServiceInstance(), buffer.size()
+                        );
+                    }
 
-                if (LOGGER.isDebugEnable()) {
-                    LOGGER.debug(
-                            "JVM metrics reporting, topic: {}, key: {}, length: {}", topic, metrics.getServiceInstance(),
-                            buffer.size()
-                    );
+                    producer.send(new ProducerRecord<>(
+                            topic,
+                            metrics.getServiceInstance(),
+                            Bytes.wrap(metrics.toByteArray())
+                    ));
                 }
-
-                producer.send(new ProducerRecord<>(
-                        topic,
-                        metrics.getServiceInstance(),
-                        Bytes.wrap(metrics.toByteArray())
-                ));
+                buffer.clear();
+            }
+            if (producer != null) {
                 producer.flush();
             }
         }
@@ -67,6 +67,9 @@ public class KafkaMeterSender extends MeterSender implements KafkaConnectionStat
             }
             builder.addMeterData(meterData);
         });
+        if (builder.getMeterDataCount() == 0) {
+            return;
+        }
         producer.send(
             new ProducerRecord<>(topic, Config.Agent.INSTANCE_NAME, Bytes.wrap(builder.build().toByteArray())));
 
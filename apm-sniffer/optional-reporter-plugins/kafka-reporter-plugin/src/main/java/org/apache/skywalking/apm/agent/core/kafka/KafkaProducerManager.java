@@ -29,7 +29,6 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -43,13 +42,13 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.kafka.KafkaReporterPluginConfig.Plugin.Kafka;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.apm.util.StringUtil;
 
@@ -74,9 +73,8 @@ public class KafkaProducerManager implements BootService, Runnable {
 
     @Override
     public void boot() {
-        bootProducerFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("kafkaProducerInitThread")
-        ).scheduleAtFixedRate(new RunnableWithExceptionProtection(
+        bootProducerFuture = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleBlockingAtFixedRate(
+                "kafkaProducerInitThread", new RunnableWithExceptionProtection(
                 this,
                 t -> LOGGER.error("unexpected exception.", t)
         ), 0, 120, TimeUnit.SECONDS);
@@ -30,13 +30,13 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentSerializer;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -52,6 +52,7 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
     private KafkaProducer<String, Bytes> producer;
 
     private volatile DataCarrier<TraceSegment> carrier;
+    private final TraceSegmentSerializer serializer = new TraceSegmentSerializer();
 
     @Override
     public void prepare() {
@@ -88,12 +89,12 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             return;
         }
         data.forEach(traceSegment -> {
-            SegmentObject upstreamSegment = traceSegment.transform();
             ProducerRecord<String, Bytes> record = new ProducerRecord<>(
                 topic,
-                upstreamSegment.getTraceSegmentId(),
-                Bytes.wrap(upstreamSegment.toByteArray())
+                traceSegment.getTraceSegmentId(),
+                Bytes.wrap(serializer.serialize(traceSegment))
             );
+            traceSegment.recycle();
             producer.send(record, (m, e) -> {
                 if (Objects.nonNull(e)) {
                     LOGGER.error("Failed to report TraceSegment.", e);